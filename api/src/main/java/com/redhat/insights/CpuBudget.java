@@ -0,0 +1,264 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Bounds the CPU time spent by the client on scanning and serializing reports.
+ *
+ * <p>Threads doing such work measure their own CPU time, and charge it to this budget with {@link
+ * #charge(long)}:
+ *
+ * <pre>{@code
+ * long start = CpuBudget.threadCpuNanos();
+ * // ... do the work ...
+ * CpuBudget.getInstance().charge(start);
+ * }</pre>
+ *
+ * <p>Once the CPU time charged over the sliding {@link InsightsConfiguration#getCpuBudgetWindow()}
+ * exceeds {@link InsightsConfiguration#getCpuBudgetShare()} of the capacity of the available
+ * processors, the charging thread pauses until enough of the window has elapsed. Only the tasks of
+ * the client, run through {@link #throttling(Runnable)}, ever pause: the same code called from a
+ * product thread, such as a deployment scanning its jars, is charged but never delayed. Nested
+ * charges on the same thread are only counted once. The budget is not enforced until {@link
+ * #configure(InsightsConfiguration)} is called, which the {@link InsightsReportController} does.
+ *
+ * <p>The budget is shared by all the controllers of the JVM, so the strictest share applies, and
+ * the window is that of the first controller.
+ */
+@NullMarked
+public class CpuBudget {
+
+  static final int BUCKETS = 10;
+
+  private static final CpuBudget INSTANCE =
+      new CpuBudget(System::nanoTime, Runtime.getRuntime().availableProcessors());
+
+  // The CPU time last charged by each thread, to skip the part already charged by nested work
+  private static final ThreadLocal<long[]> LAST_CHARGED =
+      ThreadLocal.withInitial(() -> new long[1]);
+
+  // Whether the current thread runs a task of the client, which may be paused
+  private static final ThreadLocal<boolean[]> CLIENT_TASK =
+      ThreadLocal.withInitial(() -> new boolean[1]);
+
+  private final LongSupplier clock;
+  private final int processors;
+  private final long createdAt;
+
+  private boolean configured;
+  private double share;
+  private long bucketNanos;
+  private final long[] used = new long[BUCKETS];
+  private final long[] epochs = new long[BUCKETS];
+
+  private long totalNanos;
+  private long throttledNanos;
+  private long throttleCount;
+
+  CpuBudget(LongSupplier clock, int processors) {
+    this.clock = clock;
+    this.processors = processors;
+    this.createdAt = clock.getAsLong();
+    this.bucketNanos = Duration.ofMinutes(1).toNanos() / BUCKETS;
+  }
+
+  public static CpuBudget getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return the CPU time of the current thread in nanoseconds, or -1 if the JVM cannot measure it
+   */
+  public static long threadCpuNanos() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (!threads.isCurrentThreadCpuTimeSupported()) {
+      return -1L;
+    }
+    return threads.getCurrentThreadCpuTime();
+  }
+
+  /**
+   * Wraps a task of the client, so that the thread running it pauses when the budget is exhausted.
+   *
+   * @param task a client task, run on a thread owned by the client
+   * @return the task, allowed to be throttled while it runs
+   */
+  public static Runnable throttling(Runnable task) {
+    return () -> {
+      boolean[] clientTask = CLIENT_TASK.get();
+      boolean outer = clientTask[0];
+      clientTask[0] = true;
+      try {
+        task.run();
+      } finally {
+        clientTask[0] = outer;
+      }
+    };
+  }
+
+  /**
+   * Applies the budget of a controller. The smallest positive share of all the controllers applies,
+   * 0 meaning no limit. The window is only set by the first controller, as changing it would
+   * discard the CPU time already charged.
+   *
+   * @param configuration the configuration of the controller
+   */
+  public void configure(InsightsConfiguration configuration) {
+    configure(configuration.getCpuBudgetShare(), configuration.getCpuBudgetWindow());
+  }
+
+  synchronized void configure(double share, Duration window) {
+    if (configured) {
+      if (share > 0 && (this.share <= 0 || share < this.share)) {
+        this.share = share;
+      }
+      return;
+    }
+    configured = true;
+    long newBucketNanos = Math.max(1L, window.toNanos() / BUCKETS);
+    if (newBucketNanos != bucketNanos) {
+      // Buckets of the old length cannot be compared with the new ones
+      for (int i = 0; i < BUCKETS; i++) {
+        used[i] = 0L;
+        epochs[i] = 0L;
+      }
+    }
+    this.share = share;
+    this.bucketNanos = newBucketNanos;
+  }
+
+  /**
+   * Charges the CPU time used by the current thread since {@code threadCpuStart}, then pauses if
+   * the budget is exhausted and the thread runs a {@linkplain #throttling(Runnable) client task}.
+   *
+   * @param threadCpuStart a value returned by {@link #threadCpuNanos()} on this thread
+   */
+  public void charge(long threadCpuStart) {
+    if (threadCpuStart < 0) {
+      return;
+    }
+    long now = threadCpuNanos();
+    long[] lastCharged = LAST_CHARGED.get();
+    long from = Math.max(threadCpuStart, lastCharged[0]);
+    lastCharged[0] = now;
+    if (now > from) {
+      consume(now - from);
+    }
+  }
+
+  void consume(long cpuNanos) {
+    long wait;
+    synchronized (this) {
+      long epoch = Math.floorDiv(clock.getAsLong(), bucketNanos);
+      int slot = (int) Math.floorMod(epoch, (long) BUCKETS);
+      if (epochs[slot] != epoch) {
+        epochs[slot] = epoch;
+        used[slot] = 0L;
+      }
+      used[slot] += cpuNanos;
+      totalNanos += cpuNanos;
+      wait = waitNanos(epoch);
+    }
+    if (wait > 0 && CLIENT_TASK.get()[0]) {
+      throttle();
+    }
+  }
+
+  private void throttle() {
+    long start = clock.getAsLong();
+    long waited = 0;
+    // After a full window every bucket has expired, so the loop is bounded
+    long maxWait = bucketNanos * BUCKETS;
+    try {
+      while (waited < maxWait) {
+        long wait;
+        synchronized (this) {
+          wait = waitNanos(Math.floorDiv(clock.getAsLong(), bucketNanos));
+        }
+        if (wait <= 0) {
+          break;
+        }
+        pause(Math.min(wait, maxWait - waited));
+        waited = clock.getAsLong() - start;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      synchronized (this) {
+        throttledNanos += clock.getAsLong() - start;
+        throttleCount++;
+      }
+    }
+  }
+
+  // Time until the oldest buckets expire enough for the window to be under budget, or 0
+  private long waitNanos(long epoch) {
+    if (share <= 0) {
+      return 0L;
+    }
+    long budget = (long) (share * bucketNanos * BUCKETS * processors);
+    long inWindow = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      if (epochs[i] > epoch - BUCKETS) {
+        inWindow += used[i];
+      }
+    }
+    if (inWindow <= budget) {
+      return 0L;
+    }
+    // Expire buckets from the oldest one
+    for (long oldest = epoch - BUCKETS + 1; oldest <= epoch; oldest++) {
+      int slot = (int) Math.floorMod(oldest, (long) BUCKETS);
+      if (epochs[slot] == oldest) {
+        inWindow -= used[slot];
+      }
+      if (inWindow <= budget) {
+        return (oldest + BUCKETS) * bucketNanos - clock.getAsLong();
+      }
+    }
+    return bucketNanos * BUCKETS;
+  }
+
+  void pause(long nanos) throws InterruptedException {
+    TimeUnit.NANOSECONDS.sleep(nanos);
+  }
+
+  /**
+   * Reports the budget settings and the CPU time used so far, including the share of the processors
+   * capacity used by the client since it started.
+   *
+   * @return the usage, keyed by report entry name
+   */
+  public synchronized Map<String, Object> getUsage() {
+    Map<String, Object> usage = new HashMap<>();
+    usage.put("app.client.cpu.budget_share", share);
+    usage.put(
+        "app.client.cpu.budget_window_ms", TimeUnit.NANOSECONDS.toMillis(bucketNanos * BUCKETS));
+    usage.put("app.client.cpu.total_ms", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+    usage.put("app.client.cpu.throttled_ms", TimeUnit.NANOSECONDS.toMillis(throttledNanos));
+    usage.put("app.client.cpu.throttle_count", throttleCount);
+
+    long elapsed = clock.getAsLong() - createdAt;
+    if (elapsed > 0) {
+      usage.put("app.client.cpu.capacity_share", (double) totalNanos / elapsed / processors);
+    }
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    if (os instanceof com.sun.management.OperatingSystemMXBean) {
+      long processCpu = ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+      if (processCpu > 0) {
+        usage.put("app.client.cpu.process_share", (double) totalNanos / processCpu);
+      }
+    }
+    return usage;
+  }
+}
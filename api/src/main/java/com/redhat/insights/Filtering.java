@@ -1,8 +1,14 @@
-/* Copyright (C) Red Hat 2022-2024 */
+/* Copyright (C) Red Hat 2022-2026 */
 package com.redhat.insights;
 
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.reports.RedactionEngine;
 import com.redhat.insights.reports.Utils;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.function.Function;
 import org.jspecify.annotations.NullMarked;
@@ -12,6 +18,13 @@ import org.jspecify.annotations.NullMarked;
 public enum Filtering implements Function<Map<String, Object>, Map<String, Object>> {
   DEFAULT(Utils::defaultMasking),
 
+  /**
+   * Masks secrets in every value. Reports apply the rules of their configuration, see {@link
+   * #withConfiguration(InsightsConfiguration)}; used directly, the built-in rules apply. See {@link
+   * RedactionEngine}.
+   */
+  REDACT(basic -> DefaultRedaction.ENGINE.redact(basic)),
+
   CLEARTEXT(Function.identity()),
 
   NOTHING(__ -> new HashMap<>());
@@ -26,4 +39,39 @@ public enum Filtering implements Function<Map<String, Object>, Map<String, Objec
   public Map<String, Object> apply(Map<String, Object> unfiltered) {
     return mask.apply(unfiltered);
   }
+
+  /**
+   * @param configuration the client configuration
+   * @return this filter, or for {@link #REDACT}, an engine compiled from the configured rules
+   */
+  public Function<Map<String, Object>, Map<String, Object>> withConfiguration(
+      InsightsConfiguration configuration) {
+    return this == REDACT ? new RedactionEngine(configuration)::redact : this;
+  }
+
+  /**
+   * @param configuration the client configuration
+   * @param logger logs a warning if no filter has the configured name
+   * @return the filter named by {@link InsightsConfiguration#getReportMasking()}, or {@link
+   *     #DEFAULT} if no filter has that name
+   */
+  public static Filtering of(InsightsConfiguration configuration, InsightsLogger logger) {
+    String name = configuration.getReportMasking();
+    try {
+      return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      logger.warning(
+          "Unknown report masking " + name + ", expected one of " + Arrays.toString(values()));
+      return DEFAULT;
+    }
+  }
+
+  // Compiles the rules on first use only
+  private static final class DefaultRedaction {
+    static final RedactionEngine ENGINE =
+        new RedactionEngine(
+            Arrays.asList(InsightsConfiguration.DEFAULT_REDACTION_KEY_PATTERNS.split(",")),
+            Arrays.asList(InsightsConfiguration.DEFAULT_REDACTION_VALUE_PREFIXES.split(",")),
+            Collections.emptyList());
+  }
 }
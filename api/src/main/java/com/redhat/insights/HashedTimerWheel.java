@@ -0,0 +1,171 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A hashed timer wheel: timeouts are hashed by deadline tick into a fixed ring of buckets, so that
+ * scheduling and cancelling are O(1) regardless of the number of timeouts, at the cost of a
+ * precision of one tick.
+ *
+ * <p>A single daemon thread, started on the first timeout, advances the wheel. Expired tasks run on
+ * that thread, so they must only hand work over elsewhere. Failures are passed to the error
+ * handler.
+ */
+@NullMarked
+final class HashedTimerWheel {
+
+  private final String threadName;
+  private final long tickNanos;
+  private final List<Timeout>[] wheel;
+  private final int mask;
+  private final Consumer<Throwable> errorHandler;
+  private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+
+  private final long startTime = System.nanoTime();
+  private @Nullable Thread worker;
+  private volatile boolean stopped;
+  private long tick;
+
+  @SuppressWarnings("unchecked")
+  HashedTimerWheel(
+      String threadName, long tick, TimeUnit unit, int size, Consumer<Throwable> errorHandler) {
+    if (tick <= 0 || size <= 0) {
+      throw new IllegalArgumentException("Tick and size must be positive");
+    }
+    // Rounded up to a power of two, to hash with a mask
+    int buckets = Integer.highestOneBit(size - 1) << 1;
+    if (buckets <= 0) {
+      buckets = 1;
+    }
+    this.threadName = threadName;
+    this.tickNanos = unit.toNanos(tick);
+    this.wheel = new List[buckets];
+    for (int i = 0; i < buckets; i++) {
+      wheel[i] = new ArrayList<>();
+    }
+    this.mask = buckets - 1;
+    this.errorHandler = errorHandler;
+  }
+
+  /**
+   * Schedules a task.
+   *
+   * @param task a short task, run on the timer thread
+   * @param delay the delay, rounded up to the next tick
+   * @param unit the unit of the delay
+   * @return a handle to cancel the task
+   */
+  Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+    if (stopped) {
+      throw new IllegalStateException(threadName + " is stopped");
+    }
+    Timeout timeout = new Timeout(task, System.nanoTime() - startTime + unit.toNanos(delay));
+    added.add(timeout);
+    ensureStarted();
+    return timeout;
+  }
+
+  private synchronized void ensureStarted() {
+    if (worker == null) {
+      Thread thread = new Thread(this::run, threadName);
+      thread.setDaemon(true);
+      thread.start();
+      worker = thread;
+    }
+  }
+
+  /** Stops the timer thread; pending timeouts never expire. */
+  void stop() {
+    stopped = true;
+    Thread thread;
+    synchronized (this) {
+      thread = worker;
+    }
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  private void run() {
+    while (!stopped) {
+      long deadline = (tick + 1) * tickNanos;
+      long sleep = deadline - (System.nanoTime() - startTime);
+      if (sleep > 0) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(sleep);
+        } catch (InterruptedException e) {
+          if (stopped) {
+            return;
+          }
+          continue;
+        }
+      }
+      transferAdded();
+      expire(wheel[(int) (tick & mask)]);
+      tick++;
+    }
+  }
+
+  private void transferAdded() {
+    Timeout timeout;
+    while ((timeout = added.poll()) != null) {
+      if (timeout.cancelled) {
+        continue;
+      }
+      // Never in the past, so that late timeouts expire on the current tick
+      long deadlineTick = Math.max(tick, (timeout.deadline + tickNanos - 1) / tickNanos - 1);
+      timeout.rounds = (deadlineTick - tick) / wheel.length;
+      wheel[(int) (deadlineTick & mask)].add(timeout);
+    }
+  }
+
+  private void expire(List<Timeout> bucket) {
+    Iterator<Timeout> timeouts = bucket.iterator();
+    List<Timeout> expired = new ArrayList<>();
+    while (timeouts.hasNext()) {
+      Timeout timeout = timeouts.next();
+      if (timeout.cancelled) {
+        timeouts.remove();
+      } else if (timeout.rounds > 0) {
+        timeout.rounds--;
+      } else {
+        timeouts.remove();
+        expired.add(timeout);
+      }
+    }
+    // Run after iterating, as a task may schedule into this bucket
+    for (Timeout timeout : expired) {
+      try {
+        timeout.task.run();
+      } catch (Throwable th) {
+        errorHandler.accept(th);
+      }
+    }
+  }
+
+  /** A scheduled task. */
+  static final class Timeout {
+    private final Runnable task;
+    private final long deadline;
+    private long rounds;
+    private volatile boolean cancelled;
+
+    private Timeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    void cancel() {
+      cancelled = true;
+    }
+  }
+}
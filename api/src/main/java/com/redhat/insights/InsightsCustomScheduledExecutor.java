@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights;
 
 import static com.redhat.insights.InsightsErrorCode.ERROR_SCHEDULED_SENT;
@@ -16,13 +16,15 @@ public class InsightsCustomScheduledExecutor extends ScheduledThreadPoolExecutor
     implements InsightsScheduler {
   private final InsightsLogger logger;
   private final InsightsConfiguration configuration;
+  private final SchedulingJitter jitter;
 
-  private InsightsCustomScheduledExecutor(
+  protected InsightsCustomScheduledExecutor(
       InsightsLogger logger, InsightsConfiguration configuration) {
     super(1);
     setKeepAliveTime(10L, TimeUnit.MILLISECONDS);
     this.logger = logger;
     this.configuration = configuration;
+    this.jitter = new SchedulingJitter(logger, configuration);
   }
 
   public static InsightsCustomScheduledExecutor of(
@@ -34,19 +36,26 @@ public class InsightsCustomScheduledExecutor extends ScheduledThreadPoolExecutor
     return pool;
   }
 
+  SchedulingJitter getJitter() {
+    return jitter;
+  }
+
   @Override
   public ScheduledFuture<?> scheduleConnect(Runnable sendConnect) {
     return scheduleAtFixedRate(
-        sendConnect, 0, configuration.getConnectPeriod().getSeconds(), TimeUnit.SECONDS);
+        sendConnect,
+        jitter.getConnectDelayMillis(),
+        configuration.getConnectPeriod().toMillis(),
+        TimeUnit.MILLISECONDS);
   }
 
   @Override
   public ScheduledFuture<?> scheduleJarUpdate(Runnable sendNewJarsIfAny) {
     return scheduleAtFixedRate(
         sendNewJarsIfAny,
-        configuration.getUpdatePeriod().getSeconds(),
-        configuration.getUpdatePeriod().getSeconds(),
-        TimeUnit.SECONDS);
+        jitter.getUpdateDelayMillis(),
+        UpdateBatcher.getCheckPeriod(configuration).toMillis(),
+        TimeUnit.MILLISECONDS);
   }
 
   @Override
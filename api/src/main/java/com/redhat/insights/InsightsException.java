@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights;
 
 import static com.redhat.insights.InsightsErrorCode.NONE;
@@ -43,6 +43,10 @@ public final class InsightsException extends RuntimeException {
     this.error = error;
   }
 
+  public InsightsErrorCode getError() {
+    return error;
+  }
+
   @Override
   public String getMessage() {
     return error.formatMessage(String.valueOf(super.getMessage()));
@@ -1,29 +1,45 @@
-/* Copyright (C) Red Hat 2022-2024 */
+/* Copyright (C) Red Hat 2022-2026 */
 package com.redhat.insights;
 
 import static com.redhat.insights.InsightsErrorCode.ERROR_GENERATING_HASH;
+import static com.redhat.insights.InsightsErrorCode.ERROR_SCHEDULED_SENT;
 import static com.redhat.insights.InsightsErrorCode.OPT_OUT;
 import static com.redhat.insights.http.InsightsHttpClient.gzipReport;
 import static com.redhat.insights.jars.JarUtils.computeSha512;
 
 import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.http.InsightsFileWritingClient;
 import com.redhat.insights.http.InsightsHttpClient;
+import com.redhat.insights.http.RetryBudget;
+import com.redhat.insights.jars.JarEventQueue;
 import com.redhat.insights.jars.JarInfo;
 import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.metrics.InsightsMetrics;
 import com.redhat.insights.reports.InsightsReport;
-import com.redhat.insights.reports.UpdateReportImpl;
+import com.redhat.insights.reports.InsightsSubreport;
+import com.redhat.insights.telemetry.IdHashEvent;
+import com.redhat.insights.telemetry.InsightsEvents;
+import java.io.Closeable;
 import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
 /**
  * The controller class has primarily responsibility for managing the upload of {@code CONNECT} and
  * {@code UPDATE} events.
  *
  * <p>Client code must explicitly manage the lifecycle of the controller object, and shut it down at
- * application exit.
+ * application exit. Unless {@link InsightsConfiguration#getShutdownTimeout()} is zero, a JVM
+ * shutdown hook also {@linkplain #shutdown(Duration) flushes} the pending jars within that bound.
  */
 @NullMarked
 public final class InsightsReportController {
@@ -44,6 +60,22 @@ public final class InsightsReportController {
 
   private final BlockingQueue<JarInfo> jarsToSend;
 
+  private final SplittingUploader uploader;
+
+  private final UpdateBatcher updateBatcher;
+
+  // UPDATE uploads still in progress, and their jars
+  private final Map<CompletableFuture<Void>, List<JarInfo>> updatesInFlight =
+      new ConcurrentHashMap<>();
+
+  private final AtomicReference<@Nullable CompletableFuture<Void>> gracefulShutdown =
+      new AtomicReference<>();
+
+  private volatile @Nullable Thread shutdownHook;
+
+  // Whether a CONNECT upload has completed, before which UPDATE events are postponed
+  private volatile boolean connected;
+
   private InsightsReportController(
       InsightsLogger logger,
       InsightsConfiguration configuration,
@@ -58,8 +90,19 @@ public final class InsightsReportController {
     this.scheduler = scheduler;
     this.jarsToSend = jarsToSend;
 
-    this.masking = Filtering.DEFAULT;
+    this.masking = Filtering.of(configuration, logger);
     this.idHashHolder = new CompletableFuture<>();
+    this.uploader = new SplittingUploader(logger, configuration, masking);
+    this.updateBatcher = new UpdateBatcher(configuration);
+
+    CpuBudget.getInstance().configure(configuration);
+    RetryBudget.getInstance().configure(configuration);
+
+    InsightsMetrics metrics = InsightsMetrics.getInstance();
+    if (!metrics.registerMBean()) {
+      logger.debug("Could not register " + InsightsMetrics.OBJECT_NAME);
+    }
+    metrics.addJarQueue(jarsToSend);
   }
 
   public static InsightsReportController of(
@@ -72,8 +115,8 @@ public final class InsightsReportController {
         configuration,
         report,
         httpClientSupplier,
-        InsightsCustomScheduledExecutor.of(logger, configuration),
-        new LinkedBlockingQueue<>());
+        newScheduler(logger, configuration),
+        new JarEventQueue(logger, configuration));
   }
 
   public static InsightsReportController of(
@@ -87,7 +130,7 @@ public final class InsightsReportController {
         configuration,
         report,
         httpClientSupplier,
-        InsightsCustomScheduledExecutor.of(logger, configuration),
+        newScheduler(logger, configuration),
         jarsToSend);
   }
 
@@ -102,6 +145,14 @@ public final class InsightsReportController {
         logger, configuration, report, httpClientSupplier, scheduler, jarsToSend);
   }
 
+  private static InsightsScheduler newScheduler(
+      InsightsLogger logger, InsightsConfiguration configuration) {
+    if (configuration.isSchedulerShared()) {
+      return InsightsSharedScheduler.getInstance().register(logger, configuration);
+    }
+    return InsightsCustomScheduledExecutor.of(logger, configuration);
+  }
+
   /** Generates the report (including subreports), computes identifying hash and schedules sends */
   public void generate() {
     try {
@@ -118,50 +169,308 @@ public final class InsightsReportController {
             InsightsHttpClient httpClient = httpClientSupplier.get();
             if (httpClient.isReadyToSend()) {
               generateConnectReport();
+              CompletableFuture<Void> sent;
               try {
-                httpClient.sendInsightsReport(getIdHash() + "_connect", report);
-              } finally {
-                try {
-                  report.close();
-                } catch (IOException ioex) {
-                  // Nothing to be done there
-                }
+                sent = uploader.sendConnectAsync(httpClient, getIdHash(), report);
+              } catch (RuntimeException e) {
+                closeReport();
+                throw e;
               }
+              awaitOrWatch(
+                  sent.whenComplete(
+                      (ok, err) -> {
+                        closeReport();
+                        if (err == null) {
+                          connected = true;
+                        }
+                      }));
             } else {
               logger.debug("Insights is not configured to send: " + configuration);
             }
           };
-      scheduler.scheduleConnect(sendConnect);
+      scheduler.scheduleConnect(CpuBudget.throttling(sendConnect));
 
       // Schedule a possible Jar send (every few mins? Defaults to 5 min)
-      final InsightsReport updateReport = new UpdateReportImpl(jarsToSend, logger);
       Runnable sendNewJarsIfAny =
           () -> {
+            if (!connected) {
+              // Never wait for the CONNECT, which may need this very thread: the jars stay queued
+              logger.debug("No CONNECT sent yet, postponing UPDATE");
+              return;
+            }
             InsightsHttpClient httpClient = httpClientSupplier.get();
-            if (httpClient.isReadyToSend() && !jarsToSend.isEmpty()) {
-              updateReport.setIdHash(getIdHash());
-              updateReport.generateReport(masking);
-              httpClient.sendInsightsReport(getIdHash() + "_update", updateReport);
+            if (httpClient.isReadyToSend()) {
+              List<JarInfo> jars = updateBatcher.nextBatch(jarsToSend);
+              if (!jars.isEmpty()) {
+                CompletableFuture<Void> sent =
+                    uploader.sendUpdateAsync(httpClient, getIdHash(), jars);
+                updatesInFlight.put(sent, jars);
+                sent.whenComplete((ok, err) -> updatesInFlight.remove(sent));
+                awaitOrWatch(sent);
+              }
             }
           };
-      scheduler.scheduleJarUpdate(sendNewJarsIfAny);
+      scheduler.scheduleJarUpdate(CpuBudget.throttling(sendNewJarsIfAny));
+
+      registerShutdownHook();
 
     } catch (InsightsException isx) {
       logger.error(
           "Red Hat Insights client scheduler shutdown due to a controller startup error", isx);
-      scheduler.shutdown();
+      shutdown();
       throw isx;
     }
   }
 
+  private void closeReport() {
+    try {
+      report.close();
+    } catch (IOException ioex) {
+      // Nothing to be done there
+    }
+  }
+
+  /**
+   * Rethrows the failure of a completed upload to the scheduler, as before. An upload still in
+   * progress, typically retrying, releases the scheduler thread and handles its failure itself.
+   */
+  private void awaitOrWatch(CompletableFuture<Void> sent) {
+    if (sent.isDone()) {
+      SplittingUploader.join(sent);
+      return;
+    }
+    sent.whenComplete(
+        (ok, err) -> {
+          if (err != null) {
+            Throwable cause = SplittingUploader.unwrap(err);
+            logger.error(
+                ERROR_SCHEDULED_SENT.formatMessage(
+                    "Red Hat Insights client scheduler shutdown, scheduled send failed: "
+                        + cause.getMessage()),
+                cause);
+            shutdown();
+          }
+        });
+  }
+
   void generateConnectReport() {
     report.generateReport(masking);
     generateAndSetReportIdHash();
   }
 
-  /** Forward the shutdown-related calls to the scheduler */
+  private void registerShutdownHook() {
+    Duration timeout = configuration.getShutdownTimeout();
+    if (timeout.isNegative() || timeout.isZero()) {
+      return;
+    }
+    Thread hook =
+        new Thread(
+            () -> {
+              try {
+                shutdown(timeout).get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+              } catch (TimeoutException e) {
+                logger.warning("Pending Red Hat Insights jars not flushed within " + timeout);
+              } catch (ExecutionException e) {
+                logger.error("Could not flush pending Red Hat Insights jars", e);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            },
+            "insights-shutdown-hook");
+    shutdownHook = hook;
+    try {
+      Runtime.getRuntime().addShutdownHook(hook);
+    } catch (IllegalStateException e) {
+      // The JVM is already exiting
+      shutdownHook = null;
+    }
+  }
+
+  /**
+   * Forward the shutdown-related calls to the scheduler, dropping any pending jars, and close the
+   * client, which publishes the reports it buffered
+   */
   public void shutdown() {
+    stopScheduling();
+    closeHttpClient();
+  }
+
+  private void stopScheduling() {
+    Thread hook = shutdownHook;
+    if (hook != null && hook != Thread.currentThread()) {
+      try {
+        Runtime.getRuntime().removeShutdownHook(hook);
+      } catch (IllegalStateException e) {
+        // The JVM is already exiting, the hook is running or has run
+      }
+    }
+    shutdownHook = null;
+    InsightsMetrics.getInstance().removeJarQueue(jarsToSend);
     scheduler.shutdown();
+    closeSubreports();
+  }
+
+  // Stops the subreports sampling in the background, which would otherwise run until JVM exit
+  private void closeSubreports() {
+    for (Map.Entry<String, InsightsSubreport> entry : report.getSubreports().entrySet()) {
+      if (entry.getValue() instanceof Closeable) {
+        try {
+          ((Closeable) entry.getValue()).close();
+        } catch (IOException | RuntimeException e) {
+          logger.debug("Could not close subreport " + entry.getKey() + ": " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops scheduling events, then uploads the pending jars as a last {@code UPDATE} and waits for
+   * the uploads in progress, for three quarters of the timeout at most. The jars of the uploads
+   * that failed are written to {@link InsightsConfiguration#getArchiveUploadDir()} instead, for a
+   * later pick-up; those of the uploads still in progress only if they fail later, so that no jar
+   * is sent twice. The pending jars are also written there if the {@code CONNECT} was generated but
+   * not sent yet, and dropped if no {@code CONNECT} was generated, as they cannot be attributed.
+   *
+   * @param timeout the bound of the flush
+   * @return a future completed once the jars are sent or written, exceptionally if writing failed
+   */
+  public CompletableFuture<Void> shutdown(Duration timeout) {
+    CompletableFuture<Void> flushed = new CompletableFuture<>();
+    if (!gracefulShutdown.compareAndSet(null, flushed)) {
+      CompletableFuture<Void> current = gracefulShutdown.get();
+      return current != null ? current : flushed;
+    }
+    long uploadDeadline = System.nanoTime() + timeout.toNanos() / 4 * 3;
+    // The client is closed once the last UPDATE went through it
+    stopScheduling();
+
+    Thread flusher = new Thread(() -> flush(uploadDeadline, flushed), "insights-shutdown");
+    flusher.setDaemon(true);
+    flusher.start();
+    return flushed;
+  }
+
+  private void flush(long uploadDeadline, CompletableFuture<Void> flushed) {
+    try {
+      Map<CompletableFuture<Void>, List<JarInfo>> uploads = new HashMap<>(updatesInFlight);
+      List<JarInfo> unsent = new ArrayList<>();
+      List<JarInfo> jars = updateBatcher.drain(jarsToSend);
+      if (!jars.isEmpty()) {
+        if (!idHashHolder.isDone()) {
+          logger.debug("Dropping " + jars.size() + " pending jars, no CONNECT was generated");
+        } else if (!connected) {
+          // An UPDATE the server cannot attribute yet would be lost, a later pick-up is not
+          logger.debug("Keeping " + jars.size() + " pending jars, the CONNECT was not sent");
+          unsent.addAll(jars);
+        } else {
+          CompletableFuture<Void> sent = sendFinalUpdate(jars);
+          if (sent != null) {
+            uploads.put(sent, jars);
+          } else {
+            unsent.addAll(jars);
+          }
+        }
+      }
+
+      for (Map.Entry<CompletableFuture<Void>, List<JarInfo>> upload : uploads.entrySet()) {
+        try {
+          upload
+              .getKey()
+              .get(Math.max(0L, uploadDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+          unsent.addAll(upload.getValue());
+        } catch (TimeoutException e) {
+          spoolIfFailed(upload.getKey(), upload.getValue());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          spoolIfFailed(upload.getKey(), upload.getValue());
+        }
+      }
+      if (!unsent.isEmpty()) {
+        spool(unsent);
+      }
+      closeHttpClient();
+      flushed.complete(null);
+    } catch (RuntimeException e) {
+      closeHttpClient();
+      flushed.completeExceptionally(e);
+    }
+  }
+
+  private void closeHttpClient() {
+    InsightsHttpClient httpClient;
+    try {
+      httpClient = httpClientSupplier.get();
+    } catch (RuntimeException e) {
+      logger.debug("No client to close: " + e.getMessage());
+      return;
+    }
+    if (httpClient instanceof Closeable) {
+      try {
+        ((Closeable) httpClient).close();
+      } catch (IOException e) {
+        logger.warning("Could not close the Red Hat Insights client", e);
+      }
+    }
+  }
+
+  private @Nullable CompletableFuture<Void> sendFinalUpdate(List<JarInfo> jars) {
+    try {
+      InsightsHttpClient httpClient = httpClientSupplier.get();
+      if (httpClient.isReadyToSend()) {
+        String idHash = getIdHash();
+        // Clients may send synchronously, which must not hold the flush past its deadline
+        Executor sender =
+            command -> {
+              Thread thread = new Thread(command, "insights-shutdown-update");
+              thread.setDaemon(true);
+              thread.start();
+            };
+        return CompletableFuture.supplyAsync(
+                () -> uploader.sendUpdateAsync(httpClient, idHash, jars), sender)
+            .thenCompose(sent -> sent);
+      }
+    } catch (RuntimeException e) {
+      logger.debug("Could not send the last UPDATE: " + e.getMessage());
+    }
+    return null;
+  }
+
+  /**
+   * An upload still running at the deadline may yet succeed, and spooling its jars now could send
+   * them twice: they are only spooled if it fails before the JVM exits.
+   */
+  private void spoolIfFailed(CompletableFuture<Void> upload, List<JarInfo> jars) {
+    logger.debug("UPDATE of " + jars.size() + " jars still in progress at the shutdown deadline");
+    upload.whenComplete(
+        (ok, err) -> {
+          if (err != null) {
+            try {
+              spool(jars);
+            } catch (RuntimeException e) {
+              logger.error("Could not write " + jars.size() + " unsent jars on shutdown", e);
+            }
+          }
+        });
+  }
+
+  private void spool(List<JarInfo> jars) {
+    logger.info(
+        "Writing "
+            + jars.size()
+            + " unsent jars to "
+            + configuration.getArchiveUploadDir()
+            + " on shutdown");
+    InsightsFileWritingClient spool = new InsightsFileWritingClient(logger, configuration);
+    try {
+      uploader.sendUpdate(spool, getIdHash(), jars);
+    } finally {
+      try {
+        spool.close();
+      } catch (IOException e) {
+        logger.error("Could not close the spooled UPDATE", e);
+      }
+    }
   }
 
   public boolean isShutdown() {
@@ -177,7 +486,14 @@ public final class InsightsReportController {
   void generateAndSetReportIdHash() {
     try {
       if (!idHashHolder.isDone()) {
-        String hash = computeSha512(gzipReport(report.serializeRaw()));
+        IdHashEvent event = InsightsEvents.idHash();
+        event.begin();
+        byte[] gzipped = gzipReport(report.serializeRaw());
+        String hash = computeSha512(gzipped);
+        if (event.shouldCommit()) {
+          event.setBytes(gzipped.length);
+          event.commit();
+        }
         idHashHolder.complete(hash);
         report.setIdHash(hash);
       }
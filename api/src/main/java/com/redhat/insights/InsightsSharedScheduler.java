@@ -0,0 +1,384 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static com.redhat.insights.InsightsErrorCode.ERROR_SCHEDULED_SENT;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A scheduling service shared by all the {@link InsightsReportController}s of a JVM, such as those
+ * of the deployments of an application server.
+ *
+ * <p>Each controller {@linkplain #register(InsightsLogger, InsightsConfiguration) registers} and
+ * gets its own {@link InsightsScheduler}; shutting it down unregisters the controller. All
+ * registrations share one {@link HashedTimerWheel} thread and a pool of at most {@code concurrency}
+ * worker threads, which is also the limit on the {@code CONNECT} and {@code UPDATE} runs in
+ * progress across the JVM. When more runs are due, they wait in per-registration queues, served
+ * round-robin so that a busy deployment cannot starve the others.
+ *
+ * <p>The limit only covers the scheduled runs themselves: an upload that outlives its run, such as
+ * an asynchronous upload or its retries on the {@link com.redhat.insights.http.AsyncRetryExecutor},
+ * goes on outside of it.
+ */
+@NullMarked
+public class InsightsSharedScheduler {
+
+  public static final int DEFAULT_CONCURRENCY =
+      InsightsConfiguration.DEFAULT_SHARED_SCHEDULER_CONCURRENCY;
+
+  private static final long TICK_MILLIS = 100L;
+  private static final int WHEEL_SIZE = 512;
+
+  // Grown to the concurrency of the controllers that register
+  private static final InsightsSharedScheduler INSTANCE = new InsightsSharedScheduler(1);
+
+  private int concurrency;
+  private final HashedTimerWheel timer;
+  private final ThreadPoolExecutor workers;
+
+  // Registrations with due runs, in round-robin order
+  private final Queue<Registration> ready = new ArrayDeque<>();
+  private final List<Registration> registrations = new ArrayList<>();
+  private int running;
+
+  public InsightsSharedScheduler(int concurrency) {
+    this(concurrency, TICK_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  InsightsSharedScheduler(int concurrency, long tick, TimeUnit unit) {
+    if (concurrency < 1) {
+      throw new IllegalArgumentException("Concurrency must be positive, not " + concurrency);
+    }
+    this.concurrency = concurrency;
+    this.timer = new HashedTimerWheel("insights-timer", tick, unit, WHEEL_SIZE, th -> {});
+    AtomicInteger threads = new AtomicInteger();
+    this.workers =
+        new ThreadPoolExecutor(
+            concurrency,
+            concurrency,
+            10L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+              Thread thread = new Thread(r, "insights-worker-" + threads.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    workers.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * @return the JVM-wide instance, with the largest {@link
+   *     InsightsConfiguration#getSharedSchedulerConcurrency()} of its registrations
+   */
+  public static InsightsSharedScheduler getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Registers a controller.
+   *
+   * @param logger the logger of the controller
+   * @param configuration the configuration of the controller, for its periods and the number of
+   *     workers, which only ever grows
+   * @return a scheduler for the controller, to shut down when the controller goes away
+   * @throws IllegalArgumentException if the configured concurrency is not positive
+   */
+  public InsightsScheduler register(InsightsLogger logger, InsightsConfiguration configuration) {
+    int wanted = configuration.getSharedSchedulerConcurrency();
+    if (wanted < 1) {
+      throw new IllegalArgumentException("Concurrency must be positive, not " + wanted);
+    }
+    Registration registration = new Registration(logger, configuration);
+    synchronized (this) {
+      registrations.add(registration);
+      if (wanted > concurrency) {
+        // The maximum first, as the core size may not exceed it
+        workers.setMaximumPoolSize(wanted);
+        workers.setCorePoolSize(wanted);
+        concurrency = wanted;
+        dispatch();
+      }
+    }
+    return registration;
+  }
+
+  public synchronized int getConcurrency() {
+    return concurrency;
+  }
+
+  public synchronized int getRegistrationCount() {
+    return registrations.size();
+  }
+
+  public synchronized int getRunningCount() {
+    return running;
+  }
+
+  private synchronized void submit(Registration registration, PeriodicTask task) {
+    if (registration.shutdown) {
+      task.finished();
+      return;
+    }
+    registration.due.add(task);
+    if (!registration.ready) {
+      registration.ready = true;
+      ready.add(registration);
+    }
+    dispatch();
+  }
+
+  private synchronized void dispatch() {
+    while (running < concurrency && !ready.isEmpty()) {
+      Registration registration = ready.poll();
+      PeriodicTask task = registration.due.poll();
+      if (registration.due.isEmpty()) {
+        registration.ready = false;
+      } else {
+        ready.add(registration);
+      }
+      if (task == null) {
+        continue;
+      }
+      running++;
+      workers.execute(
+          () -> {
+            try {
+              task.runGuarded();
+            } finally {
+              task.finished();
+              synchronized (this) {
+                running--;
+                dispatch();
+              }
+            }
+          });
+    }
+  }
+
+  private synchronized void unregister(Registration registration) {
+    registration.shutdown = true;
+    registrations.remove(registration);
+    ready.remove(registration);
+    for (PeriodicTask task : registration.due) {
+      task.finished();
+    }
+    registration.due.clear();
+  }
+
+  /** The scheduler of one controller. */
+  private final class Registration implements InsightsScheduler {
+    private final InsightsLogger logger;
+    private final InsightsConfiguration configuration;
+    private final SchedulingJitter jitter;
+    private final List<PeriodicTask> tasks = new ArrayList<>();
+    private final Queue<PeriodicTask> due = new ArrayDeque<>();
+    private volatile boolean shutdown;
+    private boolean ready;
+
+    private Registration(InsightsLogger logger, InsightsConfiguration configuration) {
+      this.logger = logger;
+      this.configuration = configuration;
+      this.jitter = new SchedulingJitter(logger, configuration);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleConnect(Runnable sendConnect) {
+      return schedule(
+          sendConnect, jitter.getConnectDelayMillis(), configuration.getConnectPeriod().toMillis());
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleJarUpdate(Runnable sendNewJarsIfAny) {
+      return schedule(
+          sendNewJarsIfAny,
+          jitter.getUpdateDelayMillis(),
+          UpdateBatcher.getCheckPeriod(configuration).toMillis());
+    }
+
+    private ScheduledFuture<?> schedule(
+        Runnable command, long initialDelayMillis, long periodMillis) {
+      PeriodicTask task =
+          new PeriodicTask(this, command, TimeUnit.MILLISECONDS.toNanos(periodMillis));
+      synchronized (InsightsSharedScheduler.this) {
+        if (shutdown) {
+          throw new IllegalStateException("Insights scheduler is shut down");
+        }
+        tasks.add(task);
+      }
+      task.scheduleAt(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(initialDelayMillis));
+      return task;
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public void shutdown() {
+      List<PeriodicTask> toCancel;
+      synchronized (InsightsSharedScheduler.this) {
+        if (shutdown) {
+          return;
+        }
+        unregister(this);
+        toCancel = new ArrayList<>(tasks);
+        tasks.clear();
+      }
+      for (PeriodicTask task : toCancel) {
+        task.cancel(false);
+      }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      List<Runnable> pending;
+      synchronized (InsightsSharedScheduler.this) {
+        pending = new ArrayList<>(due);
+      }
+      shutdown();
+      return pending;
+    }
+  }
+
+  /** A periodic run, rescheduled at a fixed rate, and skipped while the previous one is due. */
+  private final class PeriodicTask implements ScheduledFuture<Object>, Runnable {
+    private final Registration registration;
+    private final Runnable command;
+    private final long periodNanos;
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private volatile long nextRun;
+    private volatile HashedTimerWheel.@Nullable Timeout timeout;
+    // Set while queued or running
+    private boolean busy;
+
+    private PeriodicTask(Registration registration, Runnable command, long periodNanos) {
+      this.registration = registration;
+      this.command = command;
+      this.periodNanos = periodNanos;
+    }
+
+    private void scheduleAt(long time) {
+      nextRun = time;
+      HashedTimerWheel.Timeout next =
+          timer.newTimeout(this, time - System.nanoTime(), TimeUnit.NANOSECONDS);
+      timeout = next;
+      // Cancelled while rescheduling
+      if (isCancelled()) {
+        next.cancel();
+      }
+    }
+
+    // On the timer thread
+    @Override
+    public void run() {
+      if (isCancelled()) {
+        return;
+      }
+      boolean skip;
+      synchronized (InsightsSharedScheduler.this) {
+        skip = busy;
+        busy = true;
+      }
+      if (skip) {
+        registration.logger.debug("Previous Insights run still in progress, skipping this period");
+      } else {
+        submit(registration, this);
+      }
+      if (periodNanos > 0 && !isCancelled()) {
+        scheduleAt(nextRun + periodNanos);
+      }
+    }
+
+    private void runGuarded() {
+      try {
+        command.run();
+      } catch (InsightsException ix) {
+        registration.logger.error(
+            ERROR_SCHEDULED_SENT.formatMessage(
+                "Red Hat Insights client scheduler shutdown, scheduled send failed: "
+                    + ix.getMessage()),
+            ix);
+        registration.shutdown();
+      } catch (Throwable th) {
+        registration.logger.error(
+            ERROR_SCHEDULED_SENT.formatMessage(
+                "Red Hat Insights client scheduler shutdown, non-Insights failure: "
+                    + th.getMessage()),
+            th);
+        registration.shutdown();
+      }
+    }
+
+    private void finished() {
+      synchronized (InsightsSharedScheduler.this) {
+        busy = false;
+      }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      if (isCancelled()) {
+        return false;
+      }
+      cancelled.countDown();
+      HashedTimerWheel.Timeout current = timeout;
+      if (current != null) {
+        current.cancel();
+      }
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return cancelled.getCount() == 0;
+    }
+
+    @Override
+    public boolean isDone() {
+      return isCancelled();
+    }
+
+    // Like any periodic future, only completes when cancelled
+    @Override
+    public Object get() throws InterruptedException {
+      cancelled.await();
+      throw new CancellationException();
+    }
+
+    @Override
+    public Object get(long time, TimeUnit unit) throws InterruptedException, TimeoutException {
+      if (!cancelled.await(time, unit)) {
+        throw new TimeoutException();
+      }
+      throw new CancellationException();
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(nextRun - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+  }
+}
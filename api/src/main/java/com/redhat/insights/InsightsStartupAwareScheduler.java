@@ -0,0 +1,290 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A scheduler that defers the first {@code CONNECT} until application startup has settled, so that
+ * the classpath scan and report serialization do not compete with warm-up.
+ *
+ * <p>Startup is settled once the process CPU load and the share of time spent in JIT compilation
+ * have stayed under {@link InsightsConfiguration#getStartupCpuThreshold()} and {@link
+ * InsightsConfiguration#getStartupJitThreshold()} for {@link
+ * InsightsConfiguration#getStartupSettleWindow()}. The {@code CONNECT} is sent anyway after {@link
+ * InsightsConfiguration#getStartupMaxDeferral()}, capped to a quarter of the delay of the first
+ * {@code UPDATE}, which is postponed until a {@code CONNECT} has been sent. Metrics that the JVM
+ * does not support are ignored.
+ */
+@NullMarked
+public class InsightsStartupAwareScheduler extends InsightsCustomScheduledExecutor {
+
+  static final long SAMPLE_INTERVAL_MILLIS = 1000L;
+
+  private final InsightsLogger logger;
+  private final InsightsConfiguration configuration;
+  private final DoubleSupplier processCpuLoad;
+  private final LongSupplier compilationMillis;
+  private final long sampleIntervalMillis;
+  private final long maxDeferralNanos;
+
+  private InsightsStartupAwareScheduler(
+      InsightsLogger logger,
+      InsightsConfiguration configuration,
+      DoubleSupplier processCpuLoad,
+      LongSupplier compilationMillis,
+      long sampleIntervalMillis) {
+    super(logger, configuration);
+    this.logger = logger;
+    this.configuration = configuration;
+    this.processCpuLoad = processCpuLoad;
+    this.compilationMillis = compilationMillis;
+    this.sampleIntervalMillis = sampleIntervalMillis;
+    this.maxDeferralNanos =
+        Math.min(
+            configuration.getStartupMaxDeferral().toNanos(),
+            TimeUnit.MILLISECONDS.toNanos(getJitter().getUpdateDelayMillis()) / 4);
+  }
+
+  public static InsightsStartupAwareScheduler of(
+      InsightsLogger logger, InsightsConfiguration configuration) {
+    return of(
+        logger,
+        configuration,
+        InsightsStartupAwareScheduler::readProcessCpuLoad,
+        InsightsStartupAwareScheduler::readCompilationMillis,
+        SAMPLE_INTERVAL_MILLIS);
+  }
+
+  static InsightsStartupAwareScheduler of(
+      InsightsLogger logger,
+      InsightsConfiguration configuration,
+      DoubleSupplier processCpuLoad,
+      LongSupplier compilationMillis,
+      long sampleIntervalMillis) {
+    InsightsStartupAwareScheduler pool =
+        new InsightsStartupAwareScheduler(
+            logger, configuration, processCpuLoad, compilationMillis, sampleIntervalMillis);
+    pool.allowCoreThreadTimeOut(true);
+
+    return pool;
+  }
+
+  /**
+   * Samples startup activity until it settles, then schedules the {@code CONNECT} as usual.
+   *
+   * @param sendConnect the command that sends a {@code CONNECT} event
+   * @return a future that tracks the probing, then the periodic {@code CONNECT}
+   */
+  @Override
+  public ScheduledFuture<?> scheduleConnect(Runnable sendConnect) {
+    DeferredFuture deferred = new DeferredFuture();
+    StartupProbe probe = new StartupProbe(sendConnect, deferred);
+    deferred.setProbe(
+        scheduleWithFixedDelay(
+            probe, sampleIntervalMillis, sampleIntervalMillis, TimeUnit.MILLISECONDS));
+    return deferred;
+  }
+
+  private ScheduledFuture<?> scheduleSettledConnect(Runnable sendConnect) {
+    return super.scheduleConnect(sendConnect);
+  }
+
+  // Negative when not supported
+  private static double readProcessCpuLoad() {
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    if (os instanceof com.sun.management.OperatingSystemMXBean) {
+      return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad();
+    }
+    return -1.0;
+  }
+
+  // Negative when not supported
+  private static long readCompilationMillis() {
+    CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+    if (compilation != null && compilation.isCompilationTimeMonitoringSupported()) {
+      return compilation.getTotalCompilationTime();
+    }
+    return -1L;
+  }
+
+  /** Samples CPU and JIT activity, and releases the {@code CONNECT} once settled. */
+  private final class StartupProbe implements Runnable {
+    private final Runnable sendConnect;
+    private final DeferredFuture deferred;
+    private final long start;
+    private long lastSample;
+    private long lastCompilationMillis;
+    private long quietSince = -1L;
+
+    private StartupProbe(Runnable sendConnect, DeferredFuture deferred) {
+      this.sendConnect = sendConnect;
+      this.deferred = deferred;
+      this.start = System.nanoTime();
+      this.lastSample = start;
+      this.lastCompilationMillis = compilationMillis.getAsLong();
+    }
+
+    @Override
+    public void run() {
+      if (deferred.isReleased()) {
+        return;
+      }
+      long now = System.nanoTime();
+      try {
+        if (now - start >= maxDeferralNanos) {
+          logger.debug("Startup did not settle in time, sending CONNECT anyway");
+          release();
+          return;
+        }
+        if (isQuiet(now)) {
+          if (quietSince < 0) {
+            quietSince = lastSample;
+          }
+          if (now - quietSince >= configuration.getStartupSettleWindow().toNanos()) {
+            logger.debug(
+                "Startup settled after "
+                    + TimeUnit.NANOSECONDS.toMillis(now - start)
+                    + " ms, sending CONNECT");
+            release();
+          }
+        } else {
+          quietSince = -1L;
+        }
+      } catch (RuntimeException e) {
+        logger.warning("Could not sample startup activity, sending CONNECT", e);
+        release();
+      } finally {
+        lastSample = now;
+      }
+    }
+
+    private boolean isQuiet(long now) {
+      double cpuLoad = processCpuLoad.getAsDouble();
+      long compiled = compilationMillis.getAsLong();
+      double elapsedMillis = Math.max(1.0, (now - lastSample) / 1_000_000.0);
+      double jitShare =
+          compiled < 0 || lastCompilationMillis < 0
+              ? 0.0
+              : (compiled - lastCompilationMillis) / elapsedMillis;
+      lastCompilationMillis = compiled;
+      return cpuLoad <= configuration.getStartupCpuThreshold()
+          && jitShare <= configuration.getStartupJitThreshold();
+    }
+
+    private void release() {
+      deferred.release(scheduleSettledConnect(sendConnect));
+    }
+  }
+
+  /** Tracks the startup probe, then the {@code CONNECT} it eventually schedules. */
+  private static final class DeferredFuture implements ScheduledFuture<Object> {
+    private final CountDownLatch released = new CountDownLatch(1);
+    private volatile @Nullable ScheduledFuture<?> probe;
+    private volatile @Nullable ScheduledFuture<?> connect;
+    private volatile boolean cancelled;
+
+    synchronized void setProbe(ScheduledFuture<?> probe) {
+      this.probe = probe;
+      if (connect != null || cancelled) {
+        probe.cancel(false);
+      }
+    }
+
+    synchronized void release(ScheduledFuture<?> connect) {
+      this.connect = connect;
+      if (cancelled) {
+        connect.cancel(false);
+      }
+      if (probe != null) {
+        probe.cancel(false);
+      }
+      released.countDown();
+    }
+
+    boolean isReleased() {
+      return connect != null;
+    }
+
+    @Override
+    public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+      if (cancelled) {
+        return false;
+      }
+      cancelled = true;
+      if (probe != null) {
+        probe.cancel(mayInterruptIfRunning);
+      }
+      ScheduledFuture<?> target = connect;
+      if (target != null) {
+        target.cancel(mayInterruptIfRunning);
+      }
+      released.countDown();
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+      ScheduledFuture<?> target = connect;
+      return cancelled || (target != null && target.isDone());
+    }
+
+    @Override
+    public @Nullable Object get() throws InterruptedException, ExecutionException {
+      released.await();
+      return awaitConnect().get();
+    }
+
+    @Override
+    public @Nullable Object get(long timeout, TimeUnit unit)
+        throws InterruptedException, ExecutionException, TimeoutException {
+      long deadline = System.nanoTime() + unit.toNanos(timeout);
+      if (!released.await(timeout, unit)) {
+        throw new TimeoutException();
+      }
+      return awaitConnect().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private ScheduledFuture<?> awaitConnect() {
+      ScheduledFuture<?> target = connect;
+      if (cancelled || target == null) {
+        throw new CancellationException();
+      }
+      return target;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      ScheduledFuture<?> target = connect;
+      if (target != null) {
+        return target.getDelay(unit);
+      }
+      ScheduledFuture<?> sampling = probe;
+      return sampling != null ? sampling.getDelay(unit) : 0L;
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+  }
+}
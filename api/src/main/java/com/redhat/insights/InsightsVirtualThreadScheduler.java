@@ -0,0 +1,178 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static com.redhat.insights.InsightsErrorCode.ERROR_SCHEDULED_SENT;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A scheduler that only uses a platform thread to keep time, and runs each {@code CONNECT} and
+ * {@code UPDATE} on a virtual thread.
+ *
+ * <p>Blocking phases, such as hostname lookups, jar hashing, HTTP sends and retry backoff sleeps,
+ * thus do not hold a platform thread, and a slow {@code CONNECT} does not delay the next {@code
+ * UPDATE}. A run that is still in progress when its next period starts skips that period, like
+ * {@link InsightsCustomScheduledExecutor} does.
+ *
+ * <p>Virtual threads are looked up at runtime, so that this class also loads on Java versions
+ * before 21: there, or when virtual threads are disabled, runs fall back to daemon platform threads
+ * (see {@link #isVirtual()}).
+ */
+@NullMarked
+public class InsightsVirtualThreadScheduler implements InsightsScheduler {
+  private final InsightsLogger logger;
+  private final InsightsConfiguration configuration;
+  private final SchedulingJitter jitter;
+  private final ScheduledThreadPoolExecutor timer;
+  private final ExecutorService workers;
+  private final boolean virtual;
+
+  protected InsightsVirtualThreadScheduler(
+      InsightsLogger logger,
+      InsightsConfiguration configuration,
+      ExecutorService workers,
+      boolean virtual) {
+    this.logger = logger;
+    this.configuration = configuration;
+    this.jitter = new SchedulingJitter(logger, configuration);
+    this.workers = workers;
+    this.virtual = virtual;
+    this.timer =
+        new ScheduledThreadPoolExecutor(
+            1,
+            r -> {
+              Thread thread = new Thread(r, "insights-timer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    timer.setKeepAliveTime(10L, TimeUnit.MILLISECONDS);
+    timer.allowCoreThreadTimeOut(true);
+  }
+
+  public static InsightsVirtualThreadScheduler of(
+      InsightsLogger logger, InsightsConfiguration configuration) {
+    ExecutorService workers = newVirtualThreadPerTaskExecutor();
+    if (workers != null) {
+      return new InsightsVirtualThreadScheduler(logger, configuration, workers, true);
+    }
+    logger.debug("Virtual threads are not available, Insights runs use platform threads");
+    return new InsightsVirtualThreadScheduler(
+        logger,
+        configuration,
+        Executors.newCachedThreadPool(
+            r -> {
+              Thread thread = new Thread(r, "insights-worker");
+              thread.setDaemon(true);
+              return thread;
+            }),
+        false);
+  }
+
+  // Executors.newVirtualThreadPerTaskExecutor(), on Java 21+
+  static @Nullable ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Missing, or a disabled preview feature
+      return null;
+    }
+  }
+
+  /**
+   * @return {@code true} if runs use virtual threads, {@code false} if they use platform threads
+   */
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleConnect(Runnable sendConnect) {
+    return schedule(
+        sendConnect, jitter.getConnectDelayMillis(), configuration.getConnectPeriod().toMillis());
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleJarUpdate(Runnable sendNewJarsIfAny) {
+    return schedule(
+        sendNewJarsIfAny,
+        jitter.getUpdateDelayMillis(),
+        UpdateBatcher.getCheckPeriod(configuration).toMillis());
+  }
+
+  ScheduledFuture<?> schedule(Runnable command, long initialDelayMillis, long periodMillis) {
+    AtomicBoolean running = new AtomicBoolean();
+    Runnable trigger =
+        () -> {
+          if (!running.compareAndSet(false, true)) {
+            logger.debug("Previous Insights run still in progress, skipping this period");
+            return;
+          }
+          try {
+            workers.execute(
+                () -> {
+                  try {
+                    runGuarded(command);
+                  } finally {
+                    running.set(false);
+                  }
+                });
+          } catch (RejectedExecutionException e) {
+            running.set(false);
+          }
+        };
+    return timer.scheduleAtFixedRate(
+        trigger, initialDelayMillis, periodMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private void runGuarded(Runnable command) {
+    try {
+      command.run();
+    } catch (InsightsException ix) {
+      logger.error(
+          ERROR_SCHEDULED_SENT.formatMessage(
+              "Red Hat Insights client scheduler shutdown, scheduled send failed: "
+                  + ix.getMessage()),
+          ix);
+      shutdown();
+    } catch (Throwable th) {
+      logger.error(
+          ERROR_SCHEDULED_SENT.formatMessage(
+              "Red Hat Insights client scheduler shutdown, non-Insights failure: "
+                  + th.getMessage()),
+          th);
+      shutdown();
+    }
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return timer.isShutdown();
+  }
+
+  @Override
+  public void shutdown() {
+    timer.shutdown();
+    workers.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    List<Runnable> pending = new ArrayList<>(timer.shutdownNow());
+    pending.addAll(workers.shutdownNow());
+    return pending;
+  }
+}
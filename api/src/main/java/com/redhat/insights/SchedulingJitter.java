@@ -0,0 +1,108 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Stable per-host delays, so that a fleet of JVMs restarted together does not send its {@code
+ * CONNECT} and {@code UPDATE} events at the same time.
+ *
+ * <p>Each delay is a fraction of {@link InsightsConfiguration#getConnectJitterWindow()} or {@link
+ * InsightsConfiguration#getUpdateJitterWindow()}, derived from a hash of the machine id and the
+ * {@linkplain InsightsConfiguration#getIdentificationName() identification name}. The delays are
+ * thus uniformly spread across hosts and applications, but identical across restarts, without any
+ * coordination. The periodic events keep the phase of the first one.
+ */
+@NullMarked
+final class SchedulingJitter {
+
+  private static final Path SYSTEMD_MACHINE_ID = Paths.get("/etc/machine-id");
+
+  private final InsightsConfiguration configuration;
+  private final String seed;
+
+  SchedulingJitter(InsightsLogger logger, InsightsConfiguration configuration) {
+    this(
+        configuration,
+        readMachineId(
+            logger,
+            Arrays.asList(Paths.get(configuration.getMachineIdFilePath()), SYSTEMD_MACHINE_ID)));
+  }
+
+  SchedulingJitter(InsightsConfiguration configuration, String machineId) {
+    this.configuration = configuration;
+    this.seed = machineId + '\n' + configuration.getIdentificationName();
+  }
+
+  private static String readMachineId(InsightsLogger logger, List<Path> files) {
+    for (Path file : files) {
+      if (!Files.isReadable(file)) {
+        continue;
+      }
+      try {
+        String id = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+        if (!id.isEmpty()) {
+          return id;
+        }
+      } catch (IOException e) {
+        logger.debug("Could not read machine id from " + file + ": " + e.getMessage());
+      }
+    }
+    // Still spreads distinct applications
+    return "";
+  }
+
+  /**
+   * @return the delay of the first {@code CONNECT}, in milliseconds, anywhere in the window. It may
+   *     come after the first {@code UPDATE} checks, which wait for the {@code CONNECT}.
+   */
+  long getConnectDelayMillis() {
+    return offsetMillis("connect", configuration.getConnectJitterWindow());
+  }
+
+  /**
+   * @return the delay of the first {@code UPDATE} check, one period plus the jitter, in
+   *     milliseconds
+   */
+  long getUpdateDelayMillis() {
+    return UpdateBatcher.getCheckPeriod(configuration).toMillis()
+        + offsetMillis("update", configuration.getUpdateJitterWindow());
+  }
+
+  long offsetMillis(String event, Duration window) {
+    if (window.isNegative() || window.isZero()) {
+      return 0L;
+    }
+    return (long) (fraction(event) * window.toMillis());
+  }
+
+  // In [0, 1), uniformly distributed
+  double fraction(String event) {
+    byte[] hash;
+    try {
+      hash =
+          MessageDigest.getInstance("SHA-256")
+              .digest((seed + '\n' + event).getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      // Mandated by the Java platform
+      throw new IllegalStateException(e);
+    }
+    long bits = 0L;
+    for (int i = 0; i < 8; i++) {
+      bits = (bits << 8) | (hash[i] & 0xFF);
+    }
+    return (bits >>> 11) * 0x1.0p-53;
+  }
+}
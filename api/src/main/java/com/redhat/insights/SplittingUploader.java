@@ -0,0 +1,290 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static com.redhat.insights.InsightsErrorCode.ERROR_HTTP_SEND_;
+import static com.redhat.insights.InsightsErrorCode.ERROR_HTTP_SEND_PAYLOAD;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.http.InsightsHttpClient;
+import com.redhat.insights.jars.JarInfo;
+import com.redhat.insights.jars.JarInfoSubreport;
+import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.metrics.InsightsMetrics;
+import com.redhat.insights.reports.InsightsReport;
+import com.redhat.insights.reports.InsightsSubreport;
+import com.redhat.insights.reports.UpdateReportImpl;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Uploads reports while keeping each payload under {@link
+ * InsightsConfiguration#getMaxUploadSize()}.
+ *
+ * <p>Jar lists are split into correlated {@code UPDATE} uploads, based on an estimate of their
+ * compressed size. A {@code CONNECT} report that is too large is sent without its jars, which then
+ * follow as {@code UPDATE} uploads. When the server still rejects a payload as too large (HTTP
+ * 413), the offending batch is split in half and resent, down to a single jar. A batch whose last
+ * jars are skipped ends with an empty part, so that it is always closed.
+ *
+ * <p>Uploads are chained on the futures of {@link
+ * InsightsHttpClient#sendInsightsReportAsync(String, InsightsReport)}, so that the calling thread
+ * is not held while a client retries.
+ */
+@NullMarked
+final class SplittingUploader {
+
+  // Conservative gzip ratio for jar entries, which are dominated by hex-encoded digests
+  static final double COMPRESSION_RATIO_ESTIMATE = 0.6;
+
+  // Field names, quotes and punctuation of a serialized jar entry
+  private static final int JAR_JSON_OVERHEAD = 64;
+  private static final int ATTRIBUTE_JSON_OVERHEAD = 8;
+
+  // Version, idHash and batch information of a report
+  private static final int REPORT_JSON_OVERHEAD = 1024;
+
+  private final InsightsLogger logger;
+  private final InsightsConfiguration configuration;
+  private final Filtering masking;
+
+  SplittingUploader(InsightsLogger logger, InsightsConfiguration configuration, Filtering masking) {
+    this.logger = logger;
+    this.configuration = configuration;
+    this.masking = masking;
+  }
+
+  void sendConnect(InsightsHttpClient client, String idHash, InsightsReport report) {
+    join(sendConnectAsync(client, idHash, report));
+  }
+
+  void sendUpdate(InsightsHttpClient client, String idHash, List<JarInfo> jars) {
+    join(sendUpdateAsync(client, idHash, jars));
+  }
+
+  /**
+   * Sends a {@code CONNECT} report, without waiting for uploads that the client sends
+   * asynchronously (see {@link InsightsHttpClient#sendInsightsReportAsync(String,
+   * InsightsReport)}).
+   */
+  CompletableFuture<Void> sendConnectAsync(
+      InsightsHttpClient client, String idHash, InsightsReport report) {
+    String reportName = idHash + "_connect";
+    List<JarInfo> jars = new ArrayList<>();
+    for (InsightsSubreport subreport : report.getSubreports().values()) {
+      if (subreport instanceof JarInfoSubreport) {
+        jars.addAll(((JarInfoSubreport) subreport).getJarInfos());
+      }
+    }
+
+    if (estimateCompressedSize(jars) > configuration.getMaxUploadSize()) {
+      return sendTrimmedConnect(client, idHash, report, jars);
+    }
+    return send(client, reportName, report)
+        .handle(
+            (sent, err) -> {
+              if (err == null) {
+                return done();
+              }
+              Throwable cause = unwrap(err);
+              if (!isPayloadTooLarge(cause) || jars.isEmpty()) {
+                return failed(cause);
+              }
+              logger.warning("CONNECT report too large, resending its jars separately", cause);
+              return sendTrimmedConnect(client, idHash, report, jars);
+            })
+        .thenCompose(next -> next);
+  }
+
+  CompletableFuture<Void> sendUpdateAsync(
+      InsightsHttpClient client, String idHash, List<JarInfo> jars) {
+    return sendJars(client, idHash, jars, UUID.randomUUID().toString());
+  }
+
+  private CompletableFuture<Void> sendTrimmedConnect(
+      InsightsHttpClient client, String idHash, InsightsReport report, List<JarInfo> jars) {
+    String batchId = UUID.randomUUID().toString();
+    return send(client, idHash + "_connect", new TrimmedConnectReport(logger, report, batchId))
+        .handle(
+            (sent, err) -> {
+              if (err == null) {
+                return sendJars(client, idHash, jars, batchId);
+              }
+              Throwable cause = unwrap(err);
+              if (!isPayloadTooLarge(cause)) {
+                return failed(cause);
+              }
+              logger.error("CONNECT report too large even without jars, skipping it", cause);
+              return done();
+            })
+        .thenCompose(next -> next);
+  }
+
+  private CompletableFuture<Void> sendJars(
+      InsightsHttpClient client, String idHash, List<JarInfo> jars, String id) {
+    return sendBatches(client, idHash, new ArrayDeque<>(split(jars)), id, 0);
+  }
+
+  // Sends the batches one after the other, halving those rejected as too large
+  private CompletableFuture<Void> sendBatches(
+      InsightsHttpClient client, String idHash, Deque<List<JarInfo>> batches, String id, int part) {
+    List<JarInfo> batch = batches.pollFirst();
+    if (batch == null) {
+      return done();
+    }
+    boolean single = part == 0 && batches.isEmpty();
+
+    UpdateReportImpl updateReport = new UpdateReportImpl(new LinkedBlockingQueue<>(batch), logger);
+    updateReport.setIdHash(idHash);
+    if (!single) {
+      updateReport.setBatch(id, part + 1, batches.isEmpty());
+    }
+    updateReport.generateReport(masking);
+
+    String reportName = single ? idHash + "_update" : idHash + "_update-" + (part + 1);
+    return send(client, reportName, updateReport)
+        .handle(
+            (sent, err) -> {
+              if (err == null) {
+                return sendBatches(client, idHash, batches, id, part + 1);
+              }
+              Throwable cause = unwrap(err);
+              if (!isPayloadTooLarge(cause)) {
+                return failed(cause);
+              }
+              if (batch.size() == 1) {
+                logger.error("Jar too large to be uploaded, skipping it: " + batch.get(0), cause);
+                if (batches.isEmpty() && part > 0) {
+                  return sendClosingPart(client, idHash, id, part);
+                }
+              } else {
+                logger.debug(
+                    "Payload too large, splitting " + batch.size() + " jars in two", cause);
+                int half = batch.size() / 2;
+                batches.addFirst(batch.subList(half, batch.size()));
+                batches.addFirst(batch.subList(0, half));
+              }
+              return sendBatches(client, idHash, batches, id, part);
+            })
+        .thenCompose(next -> next);
+  }
+
+  // Ends a batch whose last jars were all skipped, as the parts already sent are not marked last
+  private CompletableFuture<Void> sendClosingPart(
+      InsightsHttpClient client, String idHash, String id, int part) {
+    UpdateReportImpl updateReport = new UpdateReportImpl(new LinkedBlockingQueue<>(), logger);
+    updateReport.setIdHash(idHash);
+    updateReport.setBatch(id, part + 1, true);
+    updateReport.generateReport(masking);
+    return send(client, idHash + "_update-" + (part + 1), updateReport);
+  }
+
+  private CompletableFuture<Void> send(
+      InsightsHttpClient client, String reportName, InsightsReport report) {
+    InsightsMetrics metrics = InsightsMetrics.getInstance();
+    long start = System.nanoTime();
+    CompletableFuture<Void> sent;
+    try {
+      sent = client.sendInsightsReportAsync(reportName, report);
+    } catch (RuntimeException e) {
+      sent = failed(e);
+    }
+    return sent.whenComplete(
+        (ok, err) -> {
+          if (err == null) {
+            metrics.uploaded(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+          } else if (unwrap(err) instanceof InsightsException) {
+            metrics.failed(((InsightsException) unwrap(err)).getError());
+          }
+        });
+  }
+
+  /**
+   * Waits for an upload, rethrowing its failure as is.
+   *
+   * @throws InsightsException if the upload failed
+   */
+  static void join(CompletableFuture<Void> sent) {
+    try {
+      sent.join();
+    } catch (CompletionException e) {
+      Throwable cause = unwrap(e);
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new InsightsException(ERROR_HTTP_SEND_, "Upload failed", cause);
+    }
+  }
+
+  static Throwable unwrap(Throwable err) {
+    Throwable cause = err;
+    while (cause instanceof CompletionException && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause;
+  }
+
+  private static CompletableFuture<Void> done() {
+    return CompletableFuture.completedFuture(null);
+  }
+
+  private static CompletableFuture<Void> failed(Throwable err) {
+    CompletableFuture<Void> failed = new CompletableFuture<>();
+    failed.completeExceptionally(err);
+    return failed;
+  }
+
+  List<List<JarInfo>> split(List<JarInfo> jars) {
+    long budget = configuration.getMaxUploadSize() - REPORT_JSON_OVERHEAD;
+    List<List<JarInfo>> batches = new ArrayList<>();
+    List<JarInfo> current = new ArrayList<>();
+    long size = 0;
+    for (JarInfo jar : jars) {
+      long jarSize = estimateCompressedSize(jar);
+      if (!current.isEmpty() && size + jarSize > budget) {
+        batches.add(current);
+        current = new ArrayList<>();
+        size = 0;
+      }
+      current.add(jar);
+      size += jarSize;
+    }
+    if (!current.isEmpty()) {
+      batches.add(current);
+    }
+    return batches;
+  }
+
+  static long estimateCompressedSize(List<JarInfo> jars) {
+    long size = REPORT_JSON_OVERHEAD;
+    for (JarInfo jar : jars) {
+      size += estimateCompressedSize(jar);
+    }
+    return size;
+  }
+
+  static long estimateCompressedSize(JarInfo jar) {
+    long size = JAR_JSON_OVERHEAD + jar.name().length() + jar.version().length();
+    for (Map.Entry<String, String> attribute : jar.attributes().entrySet()) {
+      size += ATTRIBUTE_JSON_OVERHEAD + attribute.getKey().length();
+      size += attribute.getValue().length();
+    }
+    return (long) (size * COMPRESSION_RATIO_ESTIMATE);
+  }
+
+  static boolean isPayloadTooLarge(Throwable err) {
+    return err instanceof InsightsException
+        && ((InsightsException) err).getError() == ERROR_HTTP_SEND_PAYLOAD;
+  }
+}
@@ -0,0 +1,87 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.redhat.insights.jars.JarInfoSubreport;
+import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.reports.InsightsReport;
+import com.redhat.insights.reports.InsightsSubreport;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A view of a {@code CONNECT} report where the jar subreports are emptied, used when the full
+ * report is too large to be uploaded at once. The jars are sent as correlated {@code UPDATE}
+ * uploads sharing the same batch id.
+ */
+@NullMarked
+final class TrimmedConnectReport implements InsightsReport {
+
+  private final InsightsLogger logger;
+  private final InsightsReport delegate;
+  private final String batchId;
+
+  TrimmedConnectReport(InsightsLogger logger, InsightsReport delegate, String batchId) {
+    this.logger = logger;
+    this.delegate = delegate;
+    this.batchId = batchId;
+  }
+
+  @Override
+  public Map<String, InsightsSubreport> getSubreports() {
+    Map<String, InsightsSubreport> subreports = new LinkedHashMap<>();
+    for (Map.Entry<String, InsightsSubreport> entry : delegate.getSubreports().entrySet()) {
+      if (entry.getValue() instanceof JarInfoSubreport) {
+        subreports.put(entry.getKey(), new JarInfoSubreport(logger, Collections.emptyList()));
+      } else {
+        subreports.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return subreports;
+  }
+
+  @Override
+  public JsonSerializer<InsightsReport> getSerializer() {
+    return delegate.getSerializer();
+  }
+
+  @Override
+  public void generateReport(Filtering masking) {
+    delegate.generateReport(masking);
+  }
+
+  @Override
+  public Map<String, Object> getBasic() {
+    Map<String, Object> basic = new HashMap<>(delegate.getBasic());
+    basic.put("update.batch.id", batchId);
+    return basic;
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public void setIdHash(String hash) {
+    delegate.setIdHash(hash);
+  }
+
+  @Override
+  public String getIdHash() {
+    return delegate.getIdHash();
+  }
+
+  @Override
+  public void decorate(String key, String value) {
+    delegate.decorate(key, value);
+  }
+
+  @Override
+  public void close() {
+    // The delegate is closed by its owner
+  }
+}
@@ -0,0 +1,139 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.jars.JarInfo;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.LongSupplier;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Decides when the jars waiting in the queue are sent as an {@code UPDATE}.
+ *
+ * <p>By default, every check sends whatever is queued. With {@link
+ * InsightsConfiguration#isUpdateFlushAdaptive()}, the jars are held back until {@link
+ * InsightsConfiguration#getUpdateFlushJars()} are pending, their estimated compressed size reaches
+ * {@link InsightsConfiguration#getUpdateFlushBytes()}, or the oldest has waited {@link
+ * InsightsConfiguration#getUpdateFlushMaxAge()}; two sends are at least {@link
+ * InsightsConfiguration#getUpdateFlushMinSpacing()} apart. A deployment storm then results in a few
+ * well-filled uploads, and a quiet application sends nothing.
+ *
+ * <p>The controller only starts checking once a {@code CONNECT} has been sent, so a check period
+ * shorter than the update period never sends an {@code UPDATE} first.
+ *
+ * <p>The scheduler never overlaps two runs of the {@code UPDATE} task, but a shutdown may
+ * {@linkplain #drain(BlockingQueue) drain} the batcher concurrently.
+ */
+@NullMarked
+final class UpdateBatcher {
+
+  private final InsightsConfiguration configuration;
+  private final LongSupplier nanoClock;
+
+  private final List<JarInfo> pending = new ArrayList<>();
+  private long pendingBytes;
+  private long oldestAt;
+  private long lastFlushAt;
+
+  UpdateBatcher(InsightsConfiguration configuration) {
+    this(configuration, System::nanoTime);
+  }
+
+  UpdateBatcher(InsightsConfiguration configuration, LongSupplier nanoClock) {
+    this.configuration = configuration;
+    this.nanoClock = nanoClock;
+    this.lastFlushAt = nanoClock.getAsLong() - configuration.getUpdateFlushMinSpacing().toNanos();
+  }
+
+  /**
+   * The interval between two checks of the queue: the update period, or the minimum spacing if
+   * shorter when flushing adaptively, so that a threshold is noticed soon after it is crossed.
+   *
+   * @param configuration the client configuration
+   * @return the check interval
+   */
+  static Duration getCheckPeriod(InsightsConfiguration configuration) {
+    Duration period = configuration.getUpdatePeriod();
+    if (!configuration.isUpdateFlushAdaptive()) {
+      return period;
+    }
+    Duration spacing = configuration.getUpdateFlushMinSpacing();
+    return spacing.isNegative() || spacing.isZero() || spacing.compareTo(period) >= 0
+        ? period
+        : spacing;
+  }
+
+  /**
+   * Moves the queued jars to the pending batch, and returns it if it is due.
+   *
+   * @param queue the jars discovered since the last check
+   * @return the jars to send, empty if nothing is due
+   */
+  synchronized List<JarInfo> nextBatch(BlockingQueue<JarInfo> queue) {
+    if (!configuration.isUpdateFlushAdaptive()) {
+      if (queue.isEmpty()) {
+        return Collections.emptyList();
+      }
+      List<JarInfo> jars = new ArrayList<>();
+      queue.drainTo(jars);
+      return jars;
+    }
+
+    long now = nanoClock.getAsLong();
+    int before = pending.size();
+    queue.drainTo(pending);
+    if (pending.isEmpty()) {
+      return Collections.emptyList();
+    }
+    if (before == 0) {
+      oldestAt = now;
+    }
+    for (int i = before; i < pending.size(); i++) {
+      pendingBytes += SplittingUploader.estimateCompressedSize(pending.get(i));
+    }
+
+    if (!isDue(now)) {
+      return Collections.emptyList();
+    }
+    List<JarInfo> batch = new ArrayList<>(pending);
+    pending.clear();
+    pendingBytes = 0L;
+    lastFlushAt = now;
+    return batch;
+  }
+
+  /**
+   * Takes all the jars, pending or queued, regardless of the thresholds.
+   *
+   * @param queue the jars discovered since the last check
+   * @return the jars not sent yet
+   */
+  synchronized List<JarInfo> drain(BlockingQueue<JarInfo> queue) {
+    List<JarInfo> jars = new ArrayList<>(pending);
+    queue.drainTo(jars);
+    pending.clear();
+    pendingBytes = 0L;
+    return jars;
+  }
+
+  private boolean isDue(long now) {
+    if (now - lastFlushAt < configuration.getUpdateFlushMinSpacing().toNanos()) {
+      return false;
+    }
+    return pending.size() >= configuration.getUpdateFlushJars()
+        || pendingBytes >= configuration.getUpdateFlushBytes()
+        || now - oldestAt >= configuration.getUpdateFlushMaxAge().toNanos();
+  }
+
+  synchronized int getPendingCount() {
+    return pending.size();
+  }
+
+  synchronized long getPendingBytes() {
+    return pendingBytes;
+  }
+}
@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.config;
 
 import static com.redhat.insights.InsightsErrorCode.ERROR_IDENTIFICATION_NOT_DEFINED;
@@ -40,6 +40,61 @@ public class EnvAndSysPropsInsightsConfiguration extends DefaultInsightsConfigur
   public static final String ENV_HTTP_CLIENT_TIMEOUT = "RHT_INSIGHTS_JAVA_HTTP_CLIENT_TIMEOUT";
 
   public static final String ENV_CERT_HELPER_BINARY = "RHT_INSIGHTS_JAVA_CERT_HELPER_BINARY";
+  public static final String ENV_COMPRESSION_LEVEL = "RHT_INSIGHTS_JAVA_COMPRESSION_LEVEL";
+  public static final String ENV_COMPRESSION_STRATEGY = "RHT_INSIGHTS_JAVA_COMPRESSION_STRATEGY";
+  public static final String ENV_COMPRESSION_THREADS = "RHT_INSIGHTS_JAVA_COMPRESSION_THREADS";
+  public static final String ENV_MAX_UPLOAD_SIZE = "RHT_INSIGHTS_JAVA_MAX_UPLOAD_SIZE";
+  public static final String ENV_ARCHIVE_SEGMENTED = "RHT_INSIGHTS_JAVA_ARCHIVE_SEGMENTED";
+  public static final String ENV_ARCHIVE_SEGMENT_MAX_SIZE =
+      "RHT_INSIGHTS_JAVA_ARCHIVE_SEGMENT_MAX_SIZE";
+  public static final String ENV_ARCHIVE_SEGMENT_MAX_AGE =
+      "RHT_INSIGHTS_JAVA_ARCHIVE_SEGMENT_MAX_AGE";
+  public static final String ENV_REDACTION_KEY_PATTERNS =
+      "RHT_INSIGHTS_JAVA_REDACTION_KEY_PATTERNS";
+  public static final String ENV_REDACTION_VALUE_PREFIXES =
+      "RHT_INSIGHTS_JAVA_REDACTION_VALUE_PREFIXES";
+  public static final String ENV_REDACTION_ALLOWED_KEYS =
+      "RHT_INSIGHTS_JAVA_REDACTION_ALLOWED_KEYS";
+  public static final String ENV_HOSTNAME_RESOLUTION_TIMEOUT =
+      "RHT_INSIGHTS_JAVA_HOSTNAME_RESOLUTION_TIMEOUT";
+  public static final String ENV_HOSTNAME_REFRESH_PERIOD =
+      "RHT_INSIGHTS_JAVA_HOSTNAME_REFRESH_PERIOD";
+  public static final String ENV_STARTUP_CPU_THRESHOLD = "RHT_INSIGHTS_JAVA_STARTUP_CPU_THRESHOLD";
+  public static final String ENV_STARTUP_JIT_THRESHOLD = "RHT_INSIGHTS_JAVA_STARTUP_JIT_THRESHOLD";
+  public static final String ENV_STARTUP_SETTLE_WINDOW = "RHT_INSIGHTS_JAVA_STARTUP_SETTLE_WINDOW";
+  public static final String ENV_STARTUP_MAX_DEFERRAL = "RHT_INSIGHTS_JAVA_STARTUP_MAX_DEFERRAL";
+  public static final String ENV_CPU_BUDGET_SHARE = "RHT_INSIGHTS_JAVA_CPU_BUDGET_SHARE";
+  public static final String ENV_CPU_BUDGET_WINDOW = "RHT_INSIGHTS_JAVA_CPU_BUDGET_WINDOW";
+  public static final String ENV_TELEMETRY_SAMPLE_INTERVAL =
+      "RHT_INSIGHTS_JAVA_TELEMETRY_SAMPLE_INTERVAL";
+  public static final String ENV_TELEMETRY_SAMPLE_CAPACITY =
+      "RHT_INSIGHTS_JAVA_TELEMETRY_SAMPLE_CAPACITY";
+  public static final String ENV_NATIVE_MEMORY_MIN_INTERVAL =
+      "RHT_INSIGHTS_JAVA_NATIVE_MEMORY_MIN_INTERVAL";
+  public static final String ENV_THREAD_CONTENTION_SAMPLING =
+      "RHT_INSIGHTS_JAVA_THREAD_CONTENTION_SAMPLING";
+  public static final String ENV_THREAD_CONTENTION_INTERVAL =
+      "RHT_INSIGHTS_JAVA_THREAD_CONTENTION_INTERVAL";
+  public static final String ENV_THREAD_CONTENTION_TOP_K =
+      "RHT_INSIGHTS_JAVA_THREAD_CONTENTION_TOP_K";
+  public static final String ENV_SHARED_SCHEDULER = "RHT_INSIGHTS_JAVA_SHARED_SCHEDULER";
+  public static final String ENV_CONNECT_JITTER_WINDOW = "RHT_INSIGHTS_JAVA_CONNECT_JITTER_WINDOW";
+  public static final String ENV_UPDATE_JITTER_WINDOW = "RHT_INSIGHTS_JAVA_UPDATE_JITTER_WINDOW";
+  public static final String ENV_HTTP_CLIENT_RETRY_BUDGET_RATIO =
+      "RHT_INSIGHTS_JAVA_HTTP_CLIENT_RETRY_BUDGET_RATIO";
+  public static final String ENV_JAR_QUEUE_CAPACITY = "RHT_INSIGHTS_JAVA_JAR_QUEUE_CAPACITY";
+  public static final String ENV_JAR_QUEUE_OVERFLOW = "RHT_INSIGHTS_JAVA_JAR_QUEUE_OVERFLOW";
+  public static final String ENV_UPDATE_FLUSH_ADAPTIVE = "RHT_INSIGHTS_JAVA_UPDATE_FLUSH_ADAPTIVE";
+  public static final String ENV_UPDATE_FLUSH_JARS = "RHT_INSIGHTS_JAVA_UPDATE_FLUSH_JARS";
+  public static final String ENV_UPDATE_FLUSH_BYTES = "RHT_INSIGHTS_JAVA_UPDATE_FLUSH_BYTES";
+  public static final String ENV_UPDATE_FLUSH_MAX_AGE = "RHT_INSIGHTS_JAVA_UPDATE_FLUSH_MAX_AGE";
+  public static final String ENV_UPDATE_FLUSH_MIN_SPACING =
+      "RHT_INSIGHTS_JAVA_UPDATE_FLUSH_MIN_SPACING";
+  public static final String ENV_SHUTDOWN_TIMEOUT = "RHT_INSIGHTS_JAVA_SHUTDOWN_TIMEOUT";
+  public static final String ENV_HTTP_CLIENT_VERSION = "RHT_INSIGHTS_JAVA_HTTP_CLIENT_VERSION";
+  public static final String ENV_REPORT_MASKING = "RHT_INSIGHTS_JAVA_REPORT_MASKING";
+  public static final String ENV_SHARED_SCHEDULER_CONCURRENCY =
+      "RHT_INSIGHTS_JAVA_SHARED_SCHEDULER_CONCURRENCY";
 
   private String lookup(String env) {
     String value = System.getenv(env);
@@ -207,6 +262,357 @@ public class EnvAndSysPropsInsightsConfiguration extends DefaultInsightsConfigur
     return super.getCertHelperBinary();
   }
 
+  @Override
+  public int getCompressionLevel() {
+    String value = lookup(ENV_COMPRESSION_LEVEL);
+    if (value != null) {
+      return Integer.parseInt(value);
+    }
+    return super.getCompressionLevel();
+  }
+
+  @Override
+  public int getCompressionStrategy() {
+    String value = lookup(ENV_COMPRESSION_STRATEGY);
+    if (value != null) {
+      return Integer.parseInt(value);
+    }
+    return super.getCompressionStrategy();
+  }
+
+  @Override
+  public int getCompressionThreads() {
+    String value = lookup(ENV_COMPRESSION_THREADS);
+    if (value != null) {
+      return Integer.parseInt(value);
+    }
+    return super.getCompressionThreads();
+  }
+
+  @Override
+  public long getMaxUploadSize() {
+    String value = lookup(ENV_MAX_UPLOAD_SIZE);
+    if (value != null) {
+      return Long.parseLong(value);
+    }
+    return super.getMaxUploadSize();
+  }
+
+  @Override
+  public boolean isArchiveSegmented() {
+    String value = lookup(ENV_ARCHIVE_SEGMENTED);
+    if (value != null) {
+      return "true".equalsIgnoreCase(value.trim());
+    }
+    return super.isArchiveSegmented();
+  }
+
+  @Override
+  public long getArchiveSegmentMaxSize() {
+    String value = lookup(ENV_ARCHIVE_SEGMENT_MAX_SIZE);
+    if (value != null) {
+      return Long.parseLong(value);
+    }
+    return super.getArchiveSegmentMaxSize();
+  }
+
+  @Override
+  public Duration getArchiveSegmentMaxAge() {
+    String value = lookup(ENV_ARCHIVE_SEGMENT_MAX_AGE);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getArchiveSegmentMaxAge();
+  }
+
+  @Override
+  public String getRedactionKeyPatterns() {
+    String value = lookup(ENV_REDACTION_KEY_PATTERNS);
+    if (value != null) {
+      return value;
+    }
+    return super.getRedactionKeyPatterns();
+  }
+
+  @Override
+  public String getRedactionValuePrefixes() {
+    String value = lookup(ENV_REDACTION_VALUE_PREFIXES);
+    if (value != null) {
+      return value;
+    }
+    return super.getRedactionValuePrefixes();
+  }
+
+  @Override
+  public String getRedactionAllowedKeys() {
+    String value = lookup(ENV_REDACTION_ALLOWED_KEYS);
+    if (value != null) {
+      return value;
+    }
+    return super.getRedactionAllowedKeys();
+  }
+
+  @Override
+  public Duration getHostnameResolutionTimeout() {
+    String value = lookup(ENV_HOSTNAME_RESOLUTION_TIMEOUT);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getHostnameResolutionTimeout();
+  }
+
+  @Override
+  public Duration getHostnameRefreshPeriod() {
+    String value = lookup(ENV_HOSTNAME_REFRESH_PERIOD);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getHostnameRefreshPeriod();
+  }
+
+  @Override
+  public double getStartupCpuThreshold() {
+    String value = lookup(ENV_STARTUP_CPU_THRESHOLD);
+    if (value != null) {
+      return Double.parseDouble(value);
+    }
+    return super.getStartupCpuThreshold();
+  }
+
+  @Override
+  public double getStartupJitThreshold() {
+    String value = lookup(ENV_STARTUP_JIT_THRESHOLD);
+    if (value != null) {
+      return Double.parseDouble(value);
+    }
+    return super.getStartupJitThreshold();
+  }
+
+  @Override
+  public Duration getStartupSettleWindow() {
+    String value = lookup(ENV_STARTUP_SETTLE_WINDOW);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getStartupSettleWindow();
+  }
+
+  @Override
+  public Duration getStartupMaxDeferral() {
+    String value = lookup(ENV_STARTUP_MAX_DEFERRAL);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getStartupMaxDeferral();
+  }
+
+  @Override
+  public double getCpuBudgetShare() {
+    String value = lookup(ENV_CPU_BUDGET_SHARE);
+    if (value != null) {
+      return Double.parseDouble(value);
+    }
+    return super.getCpuBudgetShare();
+  }
+
+  @Override
+  public Duration getCpuBudgetWindow() {
+    String value = lookup(ENV_CPU_BUDGET_WINDOW);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getCpuBudgetWindow();
+  }
+
+  @Override
+  public Duration getTelemetrySampleInterval() {
+    String value = lookup(ENV_TELEMETRY_SAMPLE_INTERVAL);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getTelemetrySampleInterval();
+  }
+
+  @Override
+  public int getTelemetrySampleCapacity() {
+    String value = lookup(ENV_TELEMETRY_SAMPLE_CAPACITY);
+    if (value != null) {
+      return Integer.parseInt(value);
+    }
+    return super.getTelemetrySampleCapacity();
+  }
+
+  @Override
+  public Duration getNativeMemoryMinInterval() {
+    String value = lookup(ENV_NATIVE_MEMORY_MIN_INTERVAL);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getNativeMemoryMinInterval();
+  }
+
+  @Override
+  public boolean isThreadContentionSamplingEnabled() {
+    String value = lookup(ENV_THREAD_CONTENTION_SAMPLING);
+    if (value != null) {
+      return "true".equalsIgnoreCase(value.trim());
+    }
+    return super.isThreadContentionSamplingEnabled();
+  }
+
+  @Override
+  public Duration getThreadContentionInterval() {
+    String value = lookup(ENV_THREAD_CONTENTION_INTERVAL);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getThreadContentionInterval();
+  }
+
+  @Override
+  public int getThreadContentionTopK() {
+    String value = lookup(ENV_THREAD_CONTENTION_TOP_K);
+    if (value != null) {
+      return Integer.parseInt(value);
+    }
+    return super.getThreadContentionTopK();
+  }
+
+  @Override
+  public boolean isSchedulerShared() {
+    String value = lookup(ENV_SHARED_SCHEDULER);
+    if (value != null) {
+      return "true".equalsIgnoreCase(value.trim());
+    }
+    return super.isSchedulerShared();
+  }
+
+  @Override
+  public Duration getConnectJitterWindow() {
+    String value = lookup(ENV_CONNECT_JITTER_WINDOW);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getConnectJitterWindow();
+  }
+
+  @Override
+  public Duration getUpdateJitterWindow() {
+    String value = lookup(ENV_UPDATE_JITTER_WINDOW);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getUpdateJitterWindow();
+  }
+
+  @Override
+  public double getHttpClientRetryBudgetRatio() {
+    String value = lookup(ENV_HTTP_CLIENT_RETRY_BUDGET_RATIO);
+    if (value != null) {
+      return Double.parseDouble(value);
+    }
+    return super.getHttpClientRetryBudgetRatio();
+  }
+
+  @Override
+  public int getJarQueueCapacity() {
+    String value = lookup(ENV_JAR_QUEUE_CAPACITY);
+    if (value != null) {
+      return Integer.parseInt(value);
+    }
+    return super.getJarQueueCapacity();
+  }
+
+  @Override
+  public String getJarQueueOverflow() {
+    String value = lookup(ENV_JAR_QUEUE_OVERFLOW);
+    if (value != null) {
+      return value;
+    }
+    return super.getJarQueueOverflow();
+  }
+
+  @Override
+  public boolean isUpdateFlushAdaptive() {
+    String value = lookup(ENV_UPDATE_FLUSH_ADAPTIVE);
+    if (value != null) {
+      return "true".equalsIgnoreCase(value.trim());
+    }
+    return super.isUpdateFlushAdaptive();
+  }
+
+  @Override
+  public int getUpdateFlushJars() {
+    String value = lookup(ENV_UPDATE_FLUSH_JARS);
+    if (value != null) {
+      return Integer.parseInt(value);
+    }
+    return super.getUpdateFlushJars();
+  }
+
+  @Override
+  public long getUpdateFlushBytes() {
+    String value = lookup(ENV_UPDATE_FLUSH_BYTES);
+    if (value != null) {
+      return Long.parseLong(value);
+    }
+    return super.getUpdateFlushBytes();
+  }
+
+  @Override
+  public Duration getUpdateFlushMaxAge() {
+    String value = lookup(ENV_UPDATE_FLUSH_MAX_AGE);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getUpdateFlushMaxAge();
+  }
+
+  @Override
+  public Duration getUpdateFlushMinSpacing() {
+    String value = lookup(ENV_UPDATE_FLUSH_MIN_SPACING);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getUpdateFlushMinSpacing();
+  }
+
+  @Override
+  public Duration getShutdownTimeout() {
+    String value = lookup(ENV_SHUTDOWN_TIMEOUT);
+    if (value != null) {
+      return Duration.parse(value);
+    }
+    return super.getShutdownTimeout();
+  }
+
+  @Override
+  public String getHttpClientVersion() {
+    String value = lookup(ENV_HTTP_CLIENT_VERSION);
+    if (value != null) {
+      return value;
+    }
+    return super.getHttpClientVersion();
+  }
+
+  @Override
+  public String getReportMasking() {
+    String value = lookup(ENV_REPORT_MASKING);
+    if (value != null) {
+      return value;
+    }
+    return super.getReportMasking();
+  }
+
+  @Override
+  public int getSharedSchedulerConcurrency() {
+    String value = lookup(ENV_SHARED_SCHEDULER_CONCURRENCY);
+    if (value != null) {
+      return Integer.parseInt(value);
+    }
+    return super.getSharedSchedulerConcurrency();
+  }
+
   @Override
   public String toString() {
     return "EnvAndSysPropsInsightsConfiguration{"
@@ -244,6 +650,84 @@ public class EnvAndSysPropsInsightsConfiguration extends DefaultInsightsConfigur
         + getMachineIdFilePath()
         + ", httpClientTimeout = "
         + getHttpClientTimeout()
+        + ", compressionLevel = "
+        + getCompressionLevel()
+        + ", compressionStrategy = "
+        + getCompressionStrategy()
+        + ", compressionThreads = "
+        + getCompressionThreads()
+        + ", maxUploadSize = "
+        + getMaxUploadSize()
+        + ", archiveSegmented = "
+        + isArchiveSegmented()
+        + ", archiveSegmentMaxSize = "
+        + getArchiveSegmentMaxSize()
+        + ", archiveSegmentMaxAge = "
+        + getArchiveSegmentMaxAge()
+        + ", redactionKeyPatterns = "
+        + getRedactionKeyPatterns()
+        + ", redactionValuePrefixes = "
+        + getRedactionValuePrefixes()
+        + ", redactionAllowedKeys = "
+        + getRedactionAllowedKeys()
+        + ", hostnameResolutionTimeout = "
+        + getHostnameResolutionTimeout()
+        + ", hostnameRefreshPeriod = "
+        + getHostnameRefreshPeriod()
+        + ", startupCpuThreshold = "
+        + getStartupCpuThreshold()
+        + ", startupJitThreshold = "
+        + getStartupJitThreshold()
+        + ", startupSettleWindow = "
+        + getStartupSettleWindow()
+        + ", startupMaxDeferral = "
+        + getStartupMaxDeferral()
+        + ", cpuBudgetShare = "
+        + getCpuBudgetShare()
+        + ", cpuBudgetWindow = "
+        + getCpuBudgetWindow()
+        + ", telemetrySampleInterval = "
+        + getTelemetrySampleInterval()
+        + ", telemetrySampleCapacity = "
+        + getTelemetrySampleCapacity()
+        + ", nativeMemoryMinInterval = "
+        + getNativeMemoryMinInterval()
+        + ", threadContentionSamplingEnabled = "
+        + isThreadContentionSamplingEnabled()
+        + ", threadContentionInterval = "
+        + getThreadContentionInterval()
+        + ", threadContentionTopK = "
+        + getThreadContentionTopK()
+        + ", schedulerShared = "
+        + isSchedulerShared()
+        + ", connectJitterWindow = "
+        + getConnectJitterWindow()
+        + ", updateJitterWindow = "
+        + getUpdateJitterWindow()
+        + ", httpClientRetryBudgetRatio = "
+        + getHttpClientRetryBudgetRatio()
+        + ", jarQueueCapacity = "
+        + getJarQueueCapacity()
+        + ", jarQueueOverflow = "
+        + getJarQueueOverflow()
+        + ", updateFlushAdaptive = "
+        + isUpdateFlushAdaptive()
+        + ", updateFlushJars = "
+        + getUpdateFlushJars()
+        + ", updateFlushBytes = "
+        + getUpdateFlushBytes()
+        + ", updateFlushMaxAge = "
+        + getUpdateFlushMaxAge()
+        + ", updateFlushMinSpacing = "
+        + getUpdateFlushMinSpacing()
+        + ", shutdownTimeout = "
+        + getShutdownTimeout()
+        + ", httpClientVersion = "
+        + getHttpClientVersion()
+        + ", reportMasking = "
+        + getReportMasking()
+        + ", sharedSchedulerConcurrency = "
+        + getSharedSchedulerConcurrency()
         + '}';
   }
 }
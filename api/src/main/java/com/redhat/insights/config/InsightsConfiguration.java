@@ -1,8 +1,9 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.config;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.zip.Deflater;
 import org.jspecify.annotations.NullMarked;
 
 /**
@@ -26,6 +27,41 @@ public interface InsightsConfiguration {
   double DEFAULT_HTTP_CLIENT_RETRY_BACKOFF_FACTOR = 2.0;
   int DEFAULT_HTTP_CLIENT_RETRY_MAX_ATTEMPTS = 5;
 
+  int DEFAULT_COMPRESSION_LEVEL = Deflater.DEFAULT_COMPRESSION;
+  int DEFAULT_COMPRESSION_STRATEGY = Deflater.DEFAULT_STRATEGY;
+  int DEFAULT_COMPRESSION_THREADS = 4;
+
+  long DEFAULT_MAX_UPLOAD_SIZE = 10L * 1024 * 1024;
+
+  long DEFAULT_ARCHIVE_SEGMENT_MAX_SIZE = 8L * 1024 * 1024;
+
+  String DEFAULT_REDACTION_KEY_PATTERNS =
+      "password,passwd,passphrase,secret,token,credential,apikey,api_key,api-key,privatekey,"
+          + "private_key,private-key,authorization";
+  String DEFAULT_REDACTION_VALUE_PREFIXES =
+      "eyJ,AKIA,ASIA,ghp_,gho_,ghs_,ghu_,github_pat_,glpat-,xoxb-,xoxp-,sk-";
+
+  double DEFAULT_STARTUP_CPU_THRESHOLD = 0.3;
+  double DEFAULT_STARTUP_JIT_THRESHOLD = 0.1;
+
+  double DEFAULT_CPU_BUDGET_SHARE = 0.05;
+
+  int DEFAULT_TELEMETRY_SAMPLE_CAPACITY = 360;
+
+  int DEFAULT_THREAD_CONTENTION_TOP_K = 20;
+
+  double DEFAULT_HTTP_CLIENT_RETRY_BUDGET_RATIO = 0.2;
+
+  int DEFAULT_JAR_QUEUE_CAPACITY = 8192;
+  String DEFAULT_JAR_QUEUE_OVERFLOW = "drop-oldest";
+
+  int DEFAULT_UPDATE_FLUSH_JARS = 1000;
+  long DEFAULT_UPDATE_FLUSH_BYTES = 1024L * 1024;
+
+  String DEFAULT_HTTP_CLIENT_VERSION = "HTTP_1_1";
+
+  int DEFAULT_SHARED_SCHEDULER_CONCURRENCY = 2;
+
   /**
    * The insights client identification name, to be adjusted to allow each runtime to define what an
    * "application name" means for their domain.
@@ -106,6 +142,162 @@ public interface InsightsConfiguration {
     return Duration.ofMinutes(1);
   }
 
+  default int getCompressionLevel() {
+    return DEFAULT_COMPRESSION_LEVEL;
+  }
+
+  default int getCompressionStrategy() {
+    return DEFAULT_COMPRESSION_STRATEGY;
+  }
+
+  default int getCompressionThreads() {
+    return Math.min(DEFAULT_COMPRESSION_THREADS, Runtime.getRuntime().availableProcessors());
+  }
+
+  default long getMaxUploadSize() {
+    return DEFAULT_MAX_UPLOAD_SIZE;
+  }
+
+  default boolean isArchiveSegmented() {
+    return false;
+  }
+
+  default long getArchiveSegmentMaxSize() {
+    return DEFAULT_ARCHIVE_SEGMENT_MAX_SIZE;
+  }
+
+  default Duration getArchiveSegmentMaxAge() {
+    return Duration.ofHours(1);
+  }
+
+  default String getRedactionKeyPatterns() {
+    return DEFAULT_REDACTION_KEY_PATTERNS;
+  }
+
+  default String getRedactionValuePrefixes() {
+    return DEFAULT_REDACTION_VALUE_PREFIXES;
+  }
+
+  default String getRedactionAllowedKeys() {
+    return "";
+  }
+
+  default Duration getHostnameResolutionTimeout() {
+    return Duration.ofSeconds(2);
+  }
+
+  default Duration getHostnameRefreshPeriod() {
+    return Duration.ofHours(1);
+  }
+
+  default double getStartupCpuThreshold() {
+    return DEFAULT_STARTUP_CPU_THRESHOLD;
+  }
+
+  default double getStartupJitThreshold() {
+    return DEFAULT_STARTUP_JIT_THRESHOLD;
+  }
+
+  default Duration getStartupSettleWindow() {
+    return Duration.ofSeconds(10);
+  }
+
+  default Duration getStartupMaxDeferral() {
+    return Duration.ofMinutes(5);
+  }
+
+  default double getCpuBudgetShare() {
+    return DEFAULT_CPU_BUDGET_SHARE;
+  }
+
+  default Duration getCpuBudgetWindow() {
+    return Duration.ofMinutes(1);
+  }
+
+  default Duration getTelemetrySampleInterval() {
+    return Duration.ofSeconds(10);
+  }
+
+  default int getTelemetrySampleCapacity() {
+    return DEFAULT_TELEMETRY_SAMPLE_CAPACITY;
+  }
+
+  default Duration getNativeMemoryMinInterval() {
+    return Duration.ofMinutes(10);
+  }
+
+  default boolean isThreadContentionSamplingEnabled() {
+    return false;
+  }
+
+  default Duration getThreadContentionInterval() {
+    return Duration.ofMinutes(1);
+  }
+
+  default int getThreadContentionTopK() {
+    return DEFAULT_THREAD_CONTENTION_TOP_K;
+  }
+
+  default boolean isSchedulerShared() {
+    return false;
+  }
+
+  default Duration getConnectJitterWindow() {
+    return Duration.ZERO;
+  }
+
+  default Duration getUpdateJitterWindow() {
+    return Duration.ZERO;
+  }
+
+  default double getHttpClientRetryBudgetRatio() {
+    return DEFAULT_HTTP_CLIENT_RETRY_BUDGET_RATIO;
+  }
+
+  default int getJarQueueCapacity() {
+    return DEFAULT_JAR_QUEUE_CAPACITY;
+  }
+
+  default String getJarQueueOverflow() {
+    return DEFAULT_JAR_QUEUE_OVERFLOW;
+  }
+
+  default boolean isUpdateFlushAdaptive() {
+    return false;
+  }
+
+  default int getUpdateFlushJars() {
+    return DEFAULT_UPDATE_FLUSH_JARS;
+  }
+
+  default long getUpdateFlushBytes() {
+    return DEFAULT_UPDATE_FLUSH_BYTES;
+  }
+
+  default Duration getUpdateFlushMaxAge() {
+    return Duration.ofMinutes(5);
+  }
+
+  default Duration getUpdateFlushMinSpacing() {
+    return Duration.ofSeconds(30);
+  }
+
+  default Duration getShutdownTimeout() {
+    return Duration.ofSeconds(5);
+  }
+
+  default String getHttpClientVersion() {
+    return DEFAULT_HTTP_CLIENT_VERSION;
+  }
+
+  default String getReportMasking() {
+    return "DEFAULT";
+  }
+
+  default int getSharedSchedulerConcurrency() {
+    return DEFAULT_SHARED_SCHEDULER_CONCURRENCY;
+  }
+
   final class ProxyConfiguration {
 
     private final String host;
@@ -0,0 +1,201 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.http;
+
+import static com.redhat.insights.InsightsErrorCode.ERROR_CLIENT_BACKOFF_RETRIES_FAILED;
+import static com.redhat.insights.InsightsErrorCode.ERROR_HTTP_SEND_PAYLOAD;
+
+import com.redhat.insights.InsightsException;
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.metrics.InsightsMetrics;
+import com.redhat.insights.telemetry.BackoffEvent;
+import com.redhat.insights.telemetry.InsightsEvents;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Retries an asynchronous action, without holding a thread during or between attempts.
+ *
+ * <p>Each attempt only issues the action, such as a non-blocking HTTP request, and returns its
+ * future: no thread waits for it. The first attempt is issued by the caller; each retry is issued
+ * by a shared timer thread after a decorrelated jitter delay: a random delay between the initial
+ * delay and three times the previous one, capped at the longest exponential backoff delay of {@link
+ * BackoffWrapper}. Retries are drawn from the shared {@link RetryBudget}. As with {@link
+ * BackoffWrapper}, payloads rejected as too large are not retried, and the failure reports every
+ * attempt error as suppressed.
+ */
+@NullMarked
+public final class AsyncRetryExecutor {
+
+  // Only times the retries, which must not block it
+  private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+  private final InsightsLogger logger;
+  private final long initialDelay;
+  private final long maxDelay;
+  private final int maxAttempts;
+  private final RetryBudget budget;
+  private final ScheduledExecutorService executor;
+  private final DoubleSupplier random;
+
+  AsyncRetryExecutor(
+      InsightsLogger logger,
+      long initialDelay,
+      double factor,
+      int maxAttempts,
+      RetryBudget budget,
+      ScheduledExecutorService executor,
+      DoubleSupplier random) {
+    this.logger = logger;
+    this.initialDelay = Math.max(1L, initialDelay);
+    this.maxDelay =
+        Math.max(this.initialDelay, (long) (initialDelay * Math.pow(factor, maxAttempts - 1)));
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.budget = budget;
+    this.executor = executor;
+    this.random = random;
+  }
+
+  public AsyncRetryExecutor(InsightsLogger logger, InsightsConfiguration configuration) {
+    this(
+        logger,
+        configuration.getHttpClientRetryInitialDelay(),
+        configuration.getHttpClientRetryBackoffFactor(),
+        configuration.getHttpClientRetryMaxAttempts(),
+        RetryBudget.getInstance(),
+        TIMER,
+        () -> ThreadLocalRandom.current().nextDouble());
+  }
+
+  private static ScheduledThreadPoolExecutor createTimer() {
+    ScheduledThreadPoolExecutor timer =
+        new ScheduledThreadPoolExecutor(
+            1,
+            r -> {
+              Thread thread = new Thread(r, "insights-retry");
+              thread.setDaemon(true);
+              return thread;
+            });
+    timer.setKeepAliveTime(10L, TimeUnit.SECONDS);
+    timer.allowCoreThreadTimeOut(true);
+    return timer;
+  }
+
+  /**
+   * Issues the action until its future succeeds or the attempts are exhausted.
+   *
+   * @param action issues one attempt and returns its future, without waiting for it
+   * @return a future of the action result, completed with an {@link InsightsException} on failure
+   */
+  public <T> CompletableFuture<T> submit(Callable<? extends CompletionStage<T>> action) {
+    budget.deposit();
+    Retry<T> retry = new Retry<>(action);
+    retry.run();
+    return retry.result;
+  }
+
+  private final class Retry<T> implements Runnable {
+    private final Callable<? extends CompletionStage<T>> action;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private int attempts;
+    private long delay = initialDelay;
+    private @Nullable InsightsException failure;
+    private @Nullable BackoffEvent event;
+
+    private Retry(Callable<? extends CompletionStage<T>> action) {
+      this.action = action;
+    }
+
+    private void schedule(long delayMillis) {
+      try {
+        executor.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        result.completeExceptionally(e);
+      }
+    }
+
+    @Override
+    public void run() {
+      BackoffEvent backoff = event;
+      if (backoff != null && backoff.shouldCommit()) {
+        backoff.setRetry(attempts);
+        backoff.setDelayMillis(delay);
+        backoff.commit();
+      }
+      CompletionStage<T> attempt;
+      try {
+        attempt = action.call();
+      } catch (Throwable err) {
+        retryOrFail(unwrap(err));
+        return;
+      }
+      attempt.whenComplete(
+          (value, err) -> {
+            if (err == null) {
+              result.complete(value);
+            } else {
+              retryOrFail(unwrap(err));
+            }
+          });
+    }
+
+    private void retryOrFail(Throwable err) {
+      attempts++;
+      if (err instanceof InsightsException
+          && ((InsightsException) err).getError() == ERROR_HTTP_SEND_PAYLOAD) {
+        result.completeExceptionally(err);
+        return;
+      }
+      InsightsException retryFailure = failure;
+      if (retryFailure == null) {
+        retryFailure =
+            new InsightsException(
+                ERROR_CLIENT_BACKOFF_RETRIES_FAILED, "Exponential backoff retries have failed");
+        failure = retryFailure;
+      }
+      retryFailure.addSuppressed(err);
+      if (attempts >= maxAttempts) {
+        result.completeExceptionally(retryFailure);
+        return;
+      }
+      if (!budget.tryWithdraw()) {
+        logger.debug("Retry budget exhausted, not retrying", err);
+        InsightsMetrics.getInstance().retryDenied();
+        result.completeExceptionally(retryFailure);
+        return;
+      }
+
+      // Decorrelated jitter
+      long upper = Math.min(maxDelay, delay * 3);
+      delay =
+          Math.min(maxDelay, initialDelay + (long) (random.getAsDouble() * (upper - initialDelay)));
+      logger.debug(
+          "Backoff #" + attempts + "/" + maxAttempts + ", retrying in " + delay + "ms", err);
+      InsightsMetrics.getInstance().retry();
+      BackoffEvent backoff = InsightsEvents.backoff();
+      backoff.begin();
+      event = backoff;
+      schedule(delay);
+    }
+  }
+
+  static Throwable unwrap(Throwable err) {
+    Throwable cause = err;
+    while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+        && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause;
+  }
+}
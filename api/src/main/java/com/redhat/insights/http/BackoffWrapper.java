@@ -1,12 +1,17 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.http;
 
 import static com.redhat.insights.InsightsErrorCode.ERROR_CLIENT_BACKOFF_RETRIES_FAILED;
+import static com.redhat.insights.InsightsErrorCode.ERROR_HTTP_SEND_PAYLOAD;
 import static com.redhat.insights.InsightsErrorCode.ERROR_INTERRUPTED_THREAD;
 
+import com.redhat.insights.InsightsErrorCode;
 import com.redhat.insights.InsightsException;
 import com.redhat.insights.config.InsightsConfiguration;
 import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.metrics.InsightsMetrics;
+import com.redhat.insights.telemetry.BackoffEvent;
+import com.redhat.insights.telemetry.InsightsEvents;
 import org.jspecify.annotations.NullMarked;
 
 /**
@@ -14,6 +19,13 @@ import org.jspecify.annotations.NullMarked;
  *
  * <p>It wraps an execution that might throw an exception (see {@link Action}). In this case
  * attempts will be retried with the provided parameters (count, initial delay, factor).
+ *
+ * <p>Payloads rejected as too large ({@link InsightsErrorCode#ERROR_HTTP_SEND_PAYLOAD}) are not
+ * retried, since sending the same bytes again cannot succeed. Retries are drawn from the shared
+ * {@link RetryBudget}.
+ *
+ * <p>The calling thread sleeps between attempts; see {@link AsyncRetryExecutor} to retry without
+ * holding a thread.
  */
 @NullMarked
 public final class BackoffWrapper {
@@ -27,22 +39,36 @@ public final class BackoffWrapper {
   private final long initialDelay;
   private final double factor;
   private final int max;
+  private final RetryBudget budget;
   private final Action action;
 
-  BackoffWrapper(InsightsLogger logger, long initialDelay, double factor, int max, Action action) {
+  BackoffWrapper(
+      InsightsLogger logger,
+      long initialDelay,
+      double factor,
+      int max,
+      RetryBudget budget,
+      Action action) {
     this.logger = logger;
     this.initialDelay = initialDelay;
     this.factor = factor;
     this.max = max;
+    this.budget = budget;
     this.action = action;
   }
 
+  // With a budget of its own, for tests
+  BackoffWrapper(InsightsLogger logger, long initialDelay, double factor, int max, Action action) {
+    this(logger, initialDelay, factor, max, new RetryBudget(1.0), action);
+  }
+
   public BackoffWrapper(InsightsLogger logger, InsightsConfiguration configuration, Action action) {
     this(
         logger,
         configuration.getHttpClientRetryInitialDelay(),
         configuration.getHttpClientRetryBackoffFactor(),
         configuration.getHttpClientRetryMaxAttempts(),
+        RetryBudget.getInstance(),
         action);
   }
 
@@ -50,20 +76,38 @@ public final class BackoffWrapper {
     double delay = initialDelay;
     int count = 0;
     InsightsException retryFailure = null;
+    budget.deposit();
     while (true) {
       try {
         action.run();
         return count;
       } catch (Throwable err) {
+        if (err instanceof InsightsException
+            && ((InsightsException) err).getError() == ERROR_HTTP_SEND_PAYLOAD) {
+          throw (InsightsException) err;
+        }
         if (retryFailure == null) {
           retryFailure =
               new InsightsException(
                   ERROR_CLIENT_BACKOFF_RETRIES_FAILED, "Exponential backoff retries have failed");
         }
         retryFailure.addSuppressed(err);
+        if (count + 1 < max && !budget.tryWithdraw()) {
+          logger.debug("Retry budget exhausted, not retrying", err);
+          InsightsMetrics.getInstance().retryDenied();
+          throw retryFailure;
+        }
         logger.debug("Backoff #" + (count + 1) + "/" + max + ", sleeping " + delay + "ms", err);
+        InsightsMetrics.getInstance().retry();
+        BackoffEvent event = InsightsEvents.backoff();
+        event.begin();
         try {
           Thread.sleep((long) delay);
+          if (event.shouldCommit()) {
+            event.setRetry(count + 1);
+            event.setDelayMillis((long) delay);
+            event.commit();
+          }
         } catch (InterruptedException e) {
           Thread.currentThread().interrupt();
           throw new InsightsException(
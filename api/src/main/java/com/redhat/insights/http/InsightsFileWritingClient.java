@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.http;
 
 import static com.redhat.insights.InsightsErrorCode.ERROR_UPLOAD_DIR_CREATION;
@@ -8,24 +8,46 @@ import com.redhat.insights.InsightsException;
 import com.redhat.insights.config.InsightsConfiguration;
 import com.redhat.insights.logging.InsightsLogger;
 import com.redhat.insights.reports.InsightsReport;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.time.Clock;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 
-/** A client that writes the insights report to a file. */
+/**
+ * A client that writes the insights report to a file.
+ *
+ * <p>By default each report is written to its own {@code <name>.json} file. When {@link
+ * InsightsConfiguration#isArchiveSegmented()} is set, reports are instead appended to rolling
+ * gzip-compressed NDJSON segments, which only appear in the directory once complete. The client
+ * must then be closed to publish the last segment.
+ */
 @NullMarked
-public class InsightsFileWritingClient implements InsightsHttpClient {
+public class InsightsFileWritingClient implements InsightsHttpClient, Closeable {
   private final InsightsLogger logger;
   private final InsightsConfiguration config;
+  private final @Nullable RollingSegmentWriter segmentWriter;
 
   public InsightsFileWritingClient(InsightsLogger logger, InsightsConfiguration config) {
     this.logger = logger;
     this.config = config;
     ensureArchiveUploadDirExists();
+    if (config.isArchiveSegmented()) {
+      this.segmentWriter =
+          new RollingSegmentWriter(
+              logger,
+              Paths.get(config.getArchiveUploadDir()),
+              config.getArchiveSegmentMaxSize(),
+              config.getArchiveSegmentMaxAge(),
+              Clock.systemUTC());
+    } else {
+      this.segmentWriter = null;
+    }
   }
 
   private void ensureArchiveUploadDirExists() {
@@ -52,6 +74,18 @@ public class InsightsFileWritingClient implements InsightsHttpClient {
     }
     decorate(report);
 
+    if (segmentWriter != null) {
+      try {
+        segmentWriter.append(filename, report);
+      } catch (IOException iox) {
+        throw new InsightsException(
+            ERROR_WRITING_FILE,
+            "Could not write to segment in: " + config.getArchiveUploadDir(),
+            iox);
+      }
+      return;
+    }
+
     // Can't reuse upload path - as this may be called as part of fallback
     Path p = Paths.get(config.getArchiveUploadDir(), filename + ".json");
     try {
@@ -70,4 +104,12 @@ public class InsightsFileWritingClient implements InsightsHttpClient {
   public boolean isReadyToSend() {
     return new File(config.getMachineIdFilePath()).exists();
   }
+
+  /** Publishes the current segment, if reports are written to segments. */
+  @Override
+  public void close() throws IOException {
+    if (segmentWriter != null) {
+      segmentWriter.close();
+    }
+  }
 }
@@ -1,14 +1,16 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.http;
 
 import static com.redhat.insights.InsightsErrorCode.ERROR_GZIP_FILE;
 
 import com.redhat.insights.InsightsException;
+import com.redhat.insights.config.InsightsConfiguration;
 import com.redhat.insights.reports.InsightsReport;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.zip.GZIPOutputStream;
 import org.jspecify.annotations.NullMarked;
 
@@ -41,6 +43,26 @@ public interface InsightsHttpClient {
    */
   void sendInsightsReport(String reportName, InsightsReport report);
 
+  /**
+   * Send the report without waiting for the upload and its retries. By default, the report is sent
+   * synchronously.
+   *
+   * @param reportName the name of the report.
+   * @param report the report payload.
+   * @return a future completed once the report is sent, or with the send failure.
+   */
+  default CompletableFuture<Void> sendInsightsReportAsync(
+      String reportName, InsightsReport report) {
+    CompletableFuture<Void> sent = new CompletableFuture<>();
+    try {
+      sendInsightsReport(reportName, report);
+      sent.complete(null);
+    } catch (RuntimeException e) {
+      sent.completeExceptionally(e);
+    }
+    return sent;
+  }
+
   /**
    * Indicates if the HttpClient is ready to send the data.
    *
@@ -79,4 +101,17 @@ public interface InsightsHttpClient {
           ERROR_GZIP_FILE, "Failed to GZIP report: " + Arrays.toString(report), iox);
     }
   }
+
+  /**
+   * Static gzip helper method, compressing large reports in parallel with the configured level and
+   * strategy.
+   *
+   * @param report
+   * @param configuration
+   * @return gzipped bytes
+   * @see ParallelGzipCompressor
+   */
+  static byte[] gzipReport(final byte[] report, final InsightsConfiguration configuration) {
+    return new ParallelGzipCompressor(configuration).compress(report);
+  }
 }
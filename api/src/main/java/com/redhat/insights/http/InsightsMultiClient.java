@@ -1,21 +1,29 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.http;
 
 import static com.redhat.insights.InsightsErrorCode.ERROR_CLIENT_FAILED;
+import static com.redhat.insights.InsightsErrorCode.ERROR_HTTP_SEND_PAYLOAD;
 
 import com.redhat.insights.InsightsException;
 import com.redhat.insights.logging.InsightsLogger;
 import com.redhat.insights.reports.InsightsReport;
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.jspecify.annotations.NullMarked;
 
 /**
  * An implementation of the Insights client interface that can try multiple connection paths. This
  * includes the expected primary use case of HTTPS, then File.
+ *
+ * <p>A payload rejected as too large ({@link
+ * com.redhat.insights.InsightsErrorCode#ERROR_HTTP_SEND_PAYLOAD}) is not passed on to the next
+ * client but rethrown, so that the caller can split it and resend the parts.
  */
 @NullMarked
-public class InsightsMultiClient implements InsightsHttpClient {
+public class InsightsMultiClient implements InsightsHttpClient, Closeable {
   private final InsightsLogger logger;
   private final List<InsightsHttpClient> clients;
 
@@ -45,6 +53,9 @@ public class InsightsMultiClient implements InsightsHttpClient {
         client.sendInsightsReport(filename, report);
         return;
       } catch (InsightsException x) {
+        if (x.getError() == ERROR_HTTP_SEND_PAYLOAD) {
+          throw x;
+        }
         logger.debug("Client failed, trying next", x);
         previousExceptionMsg = x.getMessage();
       }
@@ -52,6 +63,62 @@ public class InsightsMultiClient implements InsightsHttpClient {
     throw new InsightsException(ERROR_CLIENT_FAILED, "All clients failed: " + clients);
   }
 
+  /**
+   * Tries the clients in turn without waiting for their uploads: the next client is only tried once
+   * the previous one has failed.
+   */
+  @Override
+  public CompletableFuture<Void> sendInsightsReportAsync(String filename, InsightsReport report) {
+    return sendAsync(0, filename, report, "");
+  }
+
+  private CompletableFuture<Void> sendAsync(
+      int index, String filename, InsightsReport report, String previousExceptionMsg) {
+    if (index >= clients.size()) {
+      return failed(new InsightsException(ERROR_CLIENT_FAILED, "All clients failed: " + clients));
+    }
+    if (!"".equals(previousExceptionMsg)) {
+      report.decorate("app.client.exception", previousExceptionMsg);
+    }
+    CompletableFuture<Void> sent;
+    try {
+      sent = clients.get(index).sendInsightsReportAsync(filename, report);
+    } catch (InsightsException x) {
+      sent = failed(x);
+    }
+    CompletableFuture<Void> result = new CompletableFuture<>();
+    sent.whenComplete(
+        (ok, err) -> {
+          if (err == null) {
+            result.complete(null);
+            return;
+          }
+          Throwable cause = AsyncRetryExecutor.unwrap(err);
+          if (!(cause instanceof InsightsException)
+              || ((InsightsException) cause).getError() == ERROR_HTTP_SEND_PAYLOAD) {
+            result.completeExceptionally(cause);
+            return;
+          }
+          logger.debug("Client failed, trying next", cause);
+          sendAsync(index + 1, filename, report, String.valueOf(cause.getMessage()))
+              .whenComplete(
+                  (next, nextErr) -> {
+                    if (nextErr == null) {
+                      result.complete(null);
+                    } else {
+                      result.completeExceptionally(nextErr);
+                    }
+                  });
+        });
+    return result;
+  }
+
+  private static CompletableFuture<Void> failed(Throwable err) {
+    CompletableFuture<Void> failed = new CompletableFuture<>();
+    failed.completeExceptionally(err);
+    return failed;
+  }
+
   @Override
   public boolean isReadyToSend() {
     boolean isReady = false;
@@ -60,4 +127,30 @@ public class InsightsMultiClient implements InsightsHttpClient {
     }
     return isReady;
   }
+
+  /**
+   * Closes the clients that hold resources, such as a file-writing client with an open segment.
+   *
+   * @throws IOException the first failure, once every client was closed
+   */
+  @Override
+  public void close() throws IOException {
+    IOException failure = null;
+    for (InsightsHttpClient client : clients) {
+      if (client instanceof Closeable) {
+        try {
+          ((Closeable) client).close();
+        } catch (IOException e) {
+          if (failure == null) {
+            failure = e;
+          } else {
+            failure.addSuppressed(e);
+          }
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
 }
@@ -0,0 +1,194 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.http;
+
+import static com.redhat.insights.InsightsErrorCode.ERROR_GZIP_FILE;
+import static com.redhat.insights.InsightsErrorCode.ERROR_INTERRUPTED_THREAD;
+
+import com.redhat.insights.InsightsException;
+import com.redhat.insights.config.InsightsConfiguration;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A pigz-style gzip compressor.
+ *
+ * <p>The input is split into fixed-size blocks that are deflated independently on a small pool of
+ * daemon threads, each block being primed with the last 32 KiB of the previous block as a preset
+ * dictionary. Every block but the last one ends with a sync flush, so that the raw deflate streams
+ * can simply be concatenated into a single, valid gzip member.
+ */
+@NullMarked
+public final class ParallelGzipCompressor {
+
+  static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+  private static final int DICTIONARY_SIZE = 32 * 1024;
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  // Same header as java.util.zip.GZIPOutputStream: magic, CM=deflate, no flags, no mtime
+  private static final byte[] GZIP_HEADER = {
+    0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0
+  };
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  // Shared across compressors, threads time out when idle so that nothing lingers between sends
+  private static final ThreadPoolExecutor POOL = createPool();
+
+  private final int level;
+  private final int strategy;
+  private final int threads;
+  private final int blockSize;
+
+  public ParallelGzipCompressor(int level, int strategy, int threads) {
+    this(level, strategy, threads, DEFAULT_BLOCK_SIZE);
+  }
+
+  public ParallelGzipCompressor(InsightsConfiguration configuration) {
+    this(
+        configuration.getCompressionLevel(),
+        configuration.getCompressionStrategy(),
+        configuration.getCompressionThreads());
+  }
+
+  ParallelGzipCompressor(int level, int strategy, int threads, int blockSize) {
+    this.level = level;
+    this.strategy = strategy;
+    this.threads = Math.max(1, threads);
+    this.blockSize = blockSize;
+  }
+
+  private static ThreadPoolExecutor createPool() {
+    ThreadPoolExecutor pool =
+        new ThreadPoolExecutor(
+            Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().availableProcessors(),
+            10L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+              Thread thread = new Thread(r, "insights-gzip-" + THREAD_COUNT.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * Compresses the input into a single gzip member.
+   *
+   * @param input the bytes to compress
+   * @return gzipped bytes
+   */
+  public byte[] compress(final byte[] input) {
+    int blocks = Math.max(1, (input.length + blockSize - 1) / blockSize);
+
+    List<byte[]> deflated = new ArrayList<>(blocks);
+    if (threads == 1 || blocks == 1) {
+      for (int i = 0; i < blocks; i++) {
+        deflated.add(deflateBlock(input, i, blocks));
+      }
+    } else {
+      deflated.addAll(deflateInParallel(input, blocks, POOL));
+    }
+
+    // CRC32 is cheap compared to deflate, so it is done sequentially
+    CRC32 crc = new CRC32();
+    crc.update(input, 0, input.length);
+
+    int size = GZIP_HEADER.length + 8;
+    for (byte[] block : deflated) {
+      size += block.length;
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+    out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+    for (byte[] block : deflated) {
+      out.write(block, 0, block.length);
+    }
+    writeIntLE(out, (int) crc.getValue());
+    writeIntLE(out, input.length);
+    return out.toByteArray();
+  }
+
+  private List<byte[]> deflateInParallel(byte[] input, int blocks, ExecutorService executor) {
+    // Allow at most `threads` blocks in flight, so that a single compression does not hog the pool
+    List<byte[]> deflated = new ArrayList<>(blocks);
+    List<Future<byte[]>> inFlight = new ArrayList<>(threads);
+    try {
+      for (int i = 0; i < blocks; i++) {
+        final int index = i;
+        inFlight.add(executor.submit(() -> deflateBlock(input, index, blocks)));
+        if (inFlight.size() == threads) {
+          deflated.add(inFlight.remove(0).get());
+        }
+      }
+      for (Future<byte[]> future : inFlight) {
+        deflated.add(future.get());
+      }
+      return deflated;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InsightsException(ERROR_INTERRUPTED_THREAD, "GZIP compression interrupted", e);
+    } catch (ExecutionException e) {
+      throw new InsightsException(ERROR_GZIP_FILE, "Failed to GZIP report", e);
+    } finally {
+      for (Future<byte[]> future : inFlight) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private byte[] deflateBlock(byte[] input, int index, int blocks) {
+    int offset = index * blockSize;
+    int length = Math.min(blockSize, input.length - offset);
+    boolean last = index == blocks - 1;
+
+    Deflater deflater = new Deflater(level, true);
+    try {
+      deflater.setStrategy(strategy);
+      if (offset > 0) {
+        int dictionaryLength = Math.min(DICTIONARY_SIZE, offset);
+        deflater.setDictionary(input, offset - dictionaryLength, dictionaryLength);
+      }
+      deflater.setInput(input, offset, length);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+      byte[] buffer = new byte[BUFFER_SIZE];
+      if (last) {
+        deflater.finish();
+        while (!deflater.finished()) {
+          int count = deflater.deflate(buffer);
+          out.write(buffer, 0, count);
+        }
+      } else {
+        // A full buffer means that there might be more pending output
+        int count;
+        do {
+          count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+          out.write(buffer, 0, count);
+        } while (count == buffer.length);
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static void writeIntLE(ByteArrayOutputStream out, int value) {
+    out.write(value & 0xff);
+    out.write((value >>> 8) & 0xff);
+    out.write((value >>> 16) & 0xff);
+    out.write((value >>> 24) & 0xff);
+  }
+}
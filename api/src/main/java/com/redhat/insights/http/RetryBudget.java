@@ -0,0 +1,72 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.http;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A token bucket of retries, shared by all uploads of the JVM, so that retries cannot multiply the
+ * load on an ingress that is already failing.
+ *
+ * <p>Each upload deposits {@link InsightsConfiguration#getHttpClientRetryBudgetRatio()} tokens, and
+ * each retry withdraws one. The bucket starts full, with {@link #CAPACITY} tokens, so that
+ * occasional failures are retried as usual; during a sustained outage, retries are throttled to the
+ * configured share of uploads. As the bucket is shared, the smallest ratio configured in the JVM
+ * applies.
+ */
+@NullMarked
+public final class RetryBudget {
+
+  static final double CAPACITY = 10.0;
+
+  private static final RetryBudget INSTANCE =
+      new RetryBudget(InsightsConfiguration.DEFAULT_HTTP_CLIENT_RETRY_BUDGET_RATIO);
+
+  private boolean configured;
+  private double ratio;
+  private double balance = CAPACITY;
+
+  RetryBudget(double ratio) {
+    this.ratio = ratio;
+  }
+
+  public static RetryBudget getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Applies the ratio of a controller, unless another controller configured a smaller one.
+   *
+   * @param configuration the configuration of the controller
+   */
+  public void configure(InsightsConfiguration configuration) {
+    configure(configuration.getHttpClientRetryBudgetRatio());
+  }
+
+  synchronized void configure(double ratio) {
+    if (!configured || ratio < this.ratio) {
+      this.ratio = ratio;
+    }
+    configured = true;
+  }
+
+  /** Records an upload, before its first attempt. */
+  public synchronized void deposit() {
+    balance = Math.min(CAPACITY, balance + ratio);
+  }
+
+  /**
+   * @return {@code true} if a retry may be attempted, {@code false} if the budget is exhausted
+   */
+  public synchronized boolean tryWithdraw() {
+    if (balance < 1.0) {
+      return false;
+    }
+    balance -= 1.0;
+    return true;
+  }
+
+  public synchronized double getBalance() {
+    return balance;
+  }
+}
@@ -0,0 +1,325 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.http;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.reports.InsightsReport;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Appends reports to gzip-compressed, newline-delimited JSON segment files.
+ *
+ * <p>Each line is a {@code {"name": ..., "report": ...}} object. The current segment is written to
+ * a hidden temporary file, and is only published under its final {@code *.ndjson.gz} name once it
+ * is complete: the file is synced to disk, then atomically renamed. A segment is rotated when its
+ * compressed size reaches the configured maximum, or once it is older than the configured maximum
+ * age, which a background timer checks even when no more reports are appended. Readers of the
+ * directory thus never see a partial segment.
+ */
+@NullMarked
+final class RollingSegmentWriter implements Closeable {
+
+  static final String SEGMENT_SUFFIX = ".ndjson.gz";
+  static final String TEMP_SUFFIX = ".tmp";
+
+  private static final DateTimeFormatter SEGMENT_TIME =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+  private static final byte[] NAME_PREFIX = "{\"name\":\"".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] REPORT_PREFIX = "\",\"report\":".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] REPORT_SUFFIX = "}".getBytes(StandardCharsets.UTF_8);
+
+  private static final long MIN_CHECK_MILLIS = 10L;
+  private static final long MAX_CHECK_MILLIS = 60_000L;
+
+  // Publishing is local and short, a single thread serves all the writers
+  private static final ScheduledThreadPoolExecutor ROTATION = createRotationTimer();
+
+  private final InsightsLogger logger;
+  private final Path dir;
+  private final long maxSize;
+  private final Duration maxAge;
+  private final Clock clock;
+
+  // Distinguishes segments of processes sharing the same directory
+  private final String writerId;
+  private long sequence;
+
+  private @Nullable Segment current;
+
+  private final ScheduledFuture<?> rotation;
+
+  RollingSegmentWriter(
+      InsightsLogger logger, Path dir, long maxSize, Duration maxAge, Clock clock) {
+    this(
+        logger,
+        dir,
+        maxSize,
+        maxAge,
+        clock,
+        Math.max(MIN_CHECK_MILLIS, Math.min(maxAge.toMillis() / 4, MAX_CHECK_MILLIS)));
+  }
+
+  RollingSegmentWriter(
+      InsightsLogger logger,
+      Path dir,
+      long maxSize,
+      Duration maxAge,
+      Clock clock,
+      long checkIntervalMillis) {
+    this.logger = logger;
+    this.dir = dir;
+    this.maxSize = maxSize;
+    this.maxAge = maxAge;
+    this.clock = clock;
+    this.writerId = String.format("%08x", ThreadLocalRandom.current().nextInt());
+    this.rotation =
+        ROTATION.scheduleWithFixedDelay(
+            this::rollIfExpired, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private static ScheduledThreadPoolExecutor createRotationTimer() {
+    ScheduledThreadPoolExecutor timer =
+        new ScheduledThreadPoolExecutor(
+            1,
+            r -> {
+              Thread thread = new Thread(r, "insights-segments");
+              thread.setDaemon(true);
+              return thread;
+            });
+    timer.setRemoveOnCancelPolicy(true);
+    timer.setKeepAliveTime(10L, TimeUnit.SECONDS);
+    timer.allowCoreThreadTimeOut(true);
+    return timer;
+  }
+
+  /**
+   * Appends a report to the current segment, opening or rotating segments as needed.
+   *
+   * <p>If the report cannot be written, the current segment is discarded, as it may end with a
+   * partial line.
+   *
+   * @param name the report name, such as {@code <idHash>_connect}
+   * @param report the report to append
+   * @throws IOException if the report cannot be written or a segment cannot be published
+   */
+  synchronized void append(String name, InsightsReport report) throws IOException {
+    Segment segment = current;
+    if (segment != null && isExpired(segment)) {
+      roll();
+      segment = null;
+    }
+    if (segment == null) {
+      segment = open();
+      current = segment;
+    }
+
+    try {
+      OutputStream out = segment.lines;
+      out.write(NAME_PREFIX);
+      out.write(JsonStringEncoder.getInstance().quoteAsUTF8(name));
+      out.write(REPORT_PREFIX);
+      report.serializeTo(out);
+      out.write(REPORT_SUFFIX);
+      // Written below the folding stream, so that it ends the line
+      segment.buffer.write('\n');
+      segment.buffer.flush();
+      segment.records++;
+    } catch (IOException | RuntimeException e) {
+      current = null;
+      discard(segment);
+      throw e;
+    }
+
+    if (segment.file.count >= maxSize) {
+      roll();
+    }
+  }
+
+  /**
+   * Publishes the current segment, if it holds any report.
+   *
+   * @throws IOException if the segment cannot be synced or renamed
+   */
+  synchronized void roll() throws IOException {
+    Segment segment = current;
+    if (segment == null) {
+      return;
+    }
+    current = null;
+    if (segment.records == 0) {
+      discard(segment);
+      return;
+    }
+
+    try {
+      segment.buffer.flush();
+      segment.gzip.finish();
+      segment.fos.getFD().sync();
+    } finally {
+      segment.lines.close();
+    }
+    Files.move(segment.tempPath, segment.path, StandardCopyOption.ATOMIC_MOVE);
+    syncDirectory();
+    logger.debug(
+        "Published Insights segment " + segment.path + " with " + segment.records + " reports");
+  }
+
+  /** Publishes the current segment once it is too old, even if no report is appended anymore. */
+  synchronized void rollIfExpired() {
+    Segment segment = current;
+    if (segment == null || !isExpired(segment)) {
+      return;
+    }
+    try {
+      roll();
+    } catch (IOException | RuntimeException e) {
+      logger.warning("Could not publish Insights segment " + segment.path, e);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    rotation.cancel(false);
+    roll();
+  }
+
+  private boolean isExpired(Segment segment) {
+    return Duration.between(segment.openedAt, clock.instant()).compareTo(maxAge) >= 0;
+  }
+
+  private Segment open() throws IOException {
+    String name =
+        "insights-"
+            + SEGMENT_TIME.format(clock.instant())
+            + "-"
+            + writerId
+            + "-"
+            + sequence++
+            + SEGMENT_SUFFIX;
+    return new Segment(dir.resolve(name), dir.resolve("." + name + TEMP_SUFFIX), clock);
+  }
+
+  private void discard(Segment segment) {
+    try {
+      segment.lines.close();
+    } catch (IOException | RuntimeException e) {
+      // The segment is dropped anyway
+    }
+    try {
+      Files.deleteIfExists(segment.tempPath);
+    } catch (IOException e) {
+      logger.warning("Could not delete Insights segment " + segment.tempPath, e);
+    }
+    if (segment.records > 0) {
+      logger.warning(
+          "Discarded Insights segment " + segment.path + " with " + segment.records + " reports");
+    }
+  }
+
+  // Makes the rename durable; not supported on every platform
+  private void syncDirectory() {
+    try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      logger.debug("Could not sync directory " + dir + ": " + e.getMessage());
+    }
+  }
+
+  private static final class Segment {
+    private final Path path;
+    private final Path tempPath;
+    private final Instant openedAt;
+    private final FileOutputStream fos;
+    private final CountingOutputStream file;
+    private final GZIPOutputStream gzip;
+    private final OutputStream buffer;
+    private final OutputStream lines;
+    private int records;
+
+    private Segment(Path path, Path tempPath, Clock clock) throws IOException {
+      this.path = path;
+      this.tempPath = tempPath;
+      this.openedAt = clock.instant();
+      this.fos = new FileOutputStream(tempPath.toFile());
+      this.file = new CountingOutputStream(fos);
+      this.gzip = new GZIPOutputStream(file, 64 * 1024);
+      this.buffer = new BufferedOutputStream(gzip, 64 * 1024);
+      this.lines = new LineFoldingOutputStream(buffer);
+    }
+  }
+
+  /** Counts the bytes written to the underlying stream. */
+  private static final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    private CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+
+  /**
+   * Replaces line breaks with spaces, so that a pretty-printed report stays on one line. This is
+   * safe for JSON, where line breaks can only appear as whitespace between tokens.
+   */
+  private static final class LineFoldingOutputStream extends FilterOutputStream {
+    private LineFoldingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b == '\n' || b == '\r' ? ' ' : b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      byte[] folded = null;
+      for (int i = off; i < off + len; i++) {
+        if (b[i] == '\n' || b[i] == '\r') {
+          if (folded == null) {
+            folded = new byte[len];
+            System.arraycopy(b, off, folded, 0, len);
+          }
+          folded[i - off] = ' ';
+        }
+      }
+      out.write(folded == null ? b : folded, folded == null ? off : 0, len);
+    }
+  }
+}
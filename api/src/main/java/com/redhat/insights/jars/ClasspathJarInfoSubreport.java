@@ -1,10 +1,11 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.jars;
 
 import static com.redhat.insights.InsightsErrorCode.ERROR_GENERATING_ARCHIVE_HASH;
 
 import com.redhat.insights.InsightsException;
 import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.reports.SectionVolatility;
 import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
@@ -34,6 +35,12 @@ public class ClasspathJarInfoSubreport extends JarInfoSubreport {
     }
   }
 
+  @Override
+  public SectionVolatility getVolatility() {
+    // The JVM class path is fixed for the lifetime of the process
+    return SectionVolatility.STATIC_FOR_PROCESS;
+  }
+
   private void addEntries(String[] entries) {
     JarAnalyzer analyzer = new JarAnalyzer(logger, true);
     String cwd = System.getProperty(USER_DIR);
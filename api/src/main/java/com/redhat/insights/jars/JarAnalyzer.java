@@ -1,9 +1,15 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.jars;
 
+import com.redhat.insights.CpuBudget;
 import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.metrics.InsightsMetrics;
+import com.redhat.insights.telemetry.InsightsEvents;
+import com.redhat.insights.telemetry.JarAnalysisEvent;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Paths;
@@ -105,9 +111,12 @@ public final class JarAnalyzer {
   }
 
   JarInfo getJarInfoSafe(String jarFile, URL url) {
+    long cpuStart = CpuBudget.threadCpuNanos();
+    JarAnalysisEvent event = InsightsEvents.jarAnalysis();
+    event.begin();
     Map<String, String> attributes = new HashMap<>();
 
-    setChecksumsPerf(attributes, url);
+    setChecksumsPerf(attributes, url, event);
 
     JarInfo jarInfo;
     try {
@@ -117,19 +126,59 @@ public final class JarAnalyzer {
       jarInfo = new JarInfo(jarFile, UNKNOWN_VERSION, attributes);
     }
 
+    if (event.shouldCommit()) {
+      event.setPath(url.toString());
+      event.commit();
+    }
+    CpuBudget.getInstance().charge(cpuStart);
     return jarInfo;
   }
 
   void setChecksumsPerf(Map<String, String> attributes, URL url) {
+    setChecksumsPerf(attributes, url, InsightsEvents.jarAnalysis());
+  }
 
-    try {
-      String[] shaChecksums = JarUtils.computeSha(url);
+  private void setChecksumsPerf(Map<String, String> attributes, URL url, JarAnalysisEvent event) {
+    long start = System.nanoTime();
+    try (InputStream inputStream = JarUtils.getInputStream(url);
+        CountingInputStream counting = new CountingInputStream(inputStream)) {
+      String[] shaChecksums = JarUtils.computeSha(counting);
       attributes.put(SHA1_CHECKSUM_KEY, shaChecksums[0]);
       attributes.put(SHA256_CHECKSUM_KEY, shaChecksums[1]);
       attributes.put(SHA512_CHECKSUM_KEY, shaChecksums[2]);
+      event.setBytes(counting.count);
+      InsightsMetrics.getInstance().jarAnalyzed(counting.count);
     } catch (Exception ex) {
       logger.error(url + " Error getting jar file sha checksum", ex);
     }
+    event.setDigestNanos(System.nanoTime() - start);
+  }
+
+  /** Counts the bytes read, for telemetry. */
+  private static final class CountingInputStream extends FilterInputStream {
+    private long count;
+
+    private CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = in.read();
+      if (b >= 0) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = in.read(b, off, len);
+      if (n > 0) {
+        count += n;
+      }
+      return n;
+    }
   }
 
   private JarInfo getJarInfo(String jarFilename, URL url, Map<String, String> attributes)
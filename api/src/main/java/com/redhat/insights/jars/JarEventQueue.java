@@ -0,0 +1,468 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jars;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A bounded queue of jars waiting for the next {@code UPDATE}, for many producers and a single
+ * consumer.
+ *
+ * <p>Jars are stored in a preallocated ring buffer, without locks or per-jar allocation. A jar with
+ * the same SHA-256 digest as one already waiting in the ring is coalesced into it. When the ring is
+ * full, the {@link OverflowPolicy} applies: by default, the oldest jar is dropped. With {@link
+ * OverflowPolicy#SPILL}, jars are appended to a temporary file instead, and handed out once the
+ * ring is drained.
+ *
+ * <p>The blocking methods of {@link BlockingQueue} only block consumers: {@link #put(JarInfo)}
+ * applies the overflow policy instead of waiting for space.
+ */
+@NullMarked
+public final class JarEventQueue extends AbstractQueue<JarInfo> implements BlockingQueue<JarInfo> {
+
+  /** What to do with a jar offered to a full queue. */
+  public enum OverflowPolicy {
+    DROP_OLDEST,
+    DROP_NEW,
+    SPILL;
+
+    /**
+     * @param value a policy name, such as {@code drop-oldest}
+     * @return the policy
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static OverflowPolicy parse(String value) {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+  }
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final TypeReference<Map<String, Object>> SPILLED_TYPE =
+      new TypeReference<Map<String, Object>>() {};
+
+  private final InsightsLogger logger;
+  private final OverflowPolicy policy;
+  private final Path spillDir;
+
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<@Nullable JarInfo> slots;
+  // Vyukov's sequences: a slot is writable at position p when its sequence is p, readable at p + 1
+  private final AtomicLongArray sequences;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+
+  // Digests of the jars in the ring
+  private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder spilled = new LongAdder();
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private volatile int waiters;
+
+  private final Object spillLock = new Object();
+  private volatile int spillCount;
+  private @Nullable Path spillFile;
+  private @Nullable BufferedWriter spillWriter;
+  private @Nullable BufferedReader spillReader;
+
+  public JarEventQueue(InsightsLogger logger, InsightsConfiguration configuration) {
+    this(
+        logger,
+        configuration.getJarQueueCapacity(),
+        OverflowPolicy.parse(configuration.getJarQueueOverflow()),
+        Paths.get(System.getProperty("java.io.tmpdir")));
+  }
+
+  JarEventQueue(InsightsLogger logger, int capacity, OverflowPolicy policy, Path spillDir) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive, not " + capacity);
+    }
+    this.logger = logger;
+    this.policy = policy;
+    this.spillDir = spillDir;
+    // Rounded up to a power of two, to index with a mask
+    this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.mask = this.capacity - 1;
+    this.slots = new AtomicReferenceArray<>(this.capacity);
+    this.sequences = new AtomicLongArray(this.capacity);
+    for (int i = 0; i < this.capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  static @Nullable String digestOf(JarInfo jar) {
+    return jar.attributes().get(JarAnalyzer.SHA256_CHECKSUM_KEY);
+  }
+
+  /**
+   * Enqueues a jar, unless an identical one is waiting, then applies the overflow policy if the
+   * ring is full.
+   *
+   * @return {@code false} if the jar was dropped or could not be spilled
+   */
+  @Override
+  public boolean offer(JarInfo jar) {
+    String digest = digestOf(jar);
+    if (digest != null && !queued.add(digest)) {
+      coalesced.increment();
+      return true;
+    }
+    while (!tryOffer(jar)) {
+      switch (policy) {
+        case DROP_OLDEST:
+          JarInfo oldest = tryPoll();
+          if (oldest != null) {
+            dropped.increment();
+          }
+          break;
+        case SPILL:
+          forget(digest);
+          return spill(jar);
+        case DROP_NEW:
+        default:
+          forget(digest);
+          dropped.increment();
+          return false;
+      }
+    }
+    signalNotEmpty();
+    return true;
+  }
+
+  private boolean tryOffer(JarInfo jar) {
+    long pos = tail.get();
+    while (true) {
+      int index = (int) (pos & mask);
+      long diff = sequences.get(index) - pos;
+      if (diff == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          slots.set(index, jar);
+          sequences.set(index, pos + 1);
+          return true;
+        }
+        pos = tail.get();
+      } else if (diff < 0) {
+        // Full
+        return false;
+      } else {
+        pos = tail.get();
+      }
+    }
+  }
+
+  // Also used by producers to drop the oldest jar
+  private @Nullable JarInfo tryPoll() {
+    long pos = head.get();
+    while (true) {
+      int index = (int) (pos & mask);
+      long diff = sequences.get(index) - (pos + 1);
+      if (diff == 0) {
+        if (head.compareAndSet(pos, pos + 1)) {
+          JarInfo jar = slots.getAndSet(index, null);
+          sequences.set(index, pos + capacity);
+          if (jar != null) {
+            forget(digestOf(jar));
+          }
+          return jar;
+        }
+        pos = head.get();
+      } else if (diff < 0) {
+        // Empty
+        return null;
+      } else {
+        pos = head.get();
+      }
+    }
+  }
+
+  private void forget(@Nullable String digest) {
+    if (digest != null) {
+      queued.remove(digest);
+    }
+  }
+
+  @Override
+  public @Nullable JarInfo poll() {
+    JarInfo jar = tryPoll();
+    if (jar == null && spillCount > 0) {
+      jar = unspill();
+    }
+    return jar;
+  }
+
+  @Override
+  public @Nullable JarInfo peek() {
+    long pos = head.get();
+    int index = (int) (pos & mask);
+    if (sequences.get(index) == pos + 1) {
+      return slots.get(index);
+    }
+    return null;
+  }
+
+  @Override
+  public void put(JarInfo jar) {
+    offer(jar);
+  }
+
+  @Override
+  public boolean offer(JarInfo jar, long timeout, TimeUnit unit) {
+    return offer(jar);
+  }
+
+  @Override
+  public JarInfo take() throws InterruptedException {
+    while (true) {
+      JarInfo jar = poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      if (jar != null) {
+        return jar;
+      }
+    }
+  }
+
+  @Override
+  public @Nullable JarInfo poll(long timeout, TimeUnit unit) throws InterruptedException {
+    JarInfo jar = poll();
+    if (jar != null) {
+      return jar;
+    }
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      waiters++;
+      try {
+        while ((jar = poll()) == null) {
+          if (nanos <= 0) {
+            return null;
+          }
+          nanos = notEmpty.awaitNanos(nanos);
+        }
+        return jar;
+      } finally {
+        waiters--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Only takes the lock when a consumer is waiting
+  private void signalNotEmpty() {
+    if (waiters > 0) {
+      lock.lock();
+      try {
+        notEmpty.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return capacity - ringSize();
+  }
+
+  @Override
+  public int drainTo(Collection<? super JarInfo> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super JarInfo> c, int maxElements) {
+    int count = 0;
+    JarInfo jar;
+    while (count < maxElements && (jar = poll()) != null) {
+      c.add(jar);
+      count++;
+    }
+    return count;
+  }
+
+  private int ringSize() {
+    // Read head first, so that the difference is never negative
+    long first = head.get();
+    long last = tail.get();
+    return (int) Math.max(0L, Math.min(capacity, last - first));
+  }
+
+  /**
+   * @return the number of waiting jars, including spilled ones
+   */
+  @Override
+  public int size() {
+    return ringSize() + spillCount;
+  }
+
+  /**
+   * @return a snapshot of the jars waiting in the ring, excluding spilled ones
+   */
+  @Override
+  public Iterator<JarInfo> iterator() {
+    List<JarInfo> snapshot = new ArrayList<>();
+    long last = tail.get();
+    for (long pos = head.get(); pos < last; pos++) {
+      int index = (int) (pos & mask);
+      JarInfo jar = slots.get(index);
+      if (jar != null && sequences.get(index) == pos + 1) {
+        snapshot.add(jar);
+      }
+    }
+    return Collections.unmodifiableList(snapshot).iterator();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return policy;
+  }
+
+  /**
+   * @return the number of jars coalesced into an identical waiting one
+   */
+  public long getCoalesced() {
+    return coalesced.sum();
+  }
+
+  /**
+   * @return the number of jars dropped because the queue was full
+   */
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return the number of jars spilled to disk because the ring was full
+   */
+  public long getSpilled() {
+    return spilled.sum();
+  }
+
+  private boolean spill(JarInfo jar) {
+    Map<String, Object> line = new LinkedHashMap<>();
+    line.put("name", jar.name());
+    line.put("version", jar.version());
+    line.put("attributes", jar.attributes());
+    synchronized (spillLock) {
+      try {
+        BufferedWriter writer = spillWriter;
+        if (writer == null) {
+          Path file = Files.createTempFile(spillDir, "insights-jars-", ".ndjson");
+          file.toFile().deleteOnExit();
+          writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+          spillFile = file;
+          spillWriter = writer;
+        }
+        writer.write(MAPPER.writeValueAsString(line));
+        writer.write('\n');
+        writer.flush();
+        spillCount++;
+        spilled.increment();
+      } catch (IOException e) {
+        logger.warning("Could not spill jar to disk, dropping it: " + jar.name(), e);
+        dropped.increment();
+        return false;
+      }
+    }
+    signalNotEmpty();
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private @Nullable JarInfo unspill() {
+    synchronized (spillLock) {
+      Path file = spillFile;
+      if (spillCount == 0 || file == null) {
+        return null;
+      }
+      try {
+        BufferedReader reader = spillReader;
+        if (reader == null) {
+          reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+          spillReader = reader;
+        }
+        String line = reader.readLine();
+        if (line == null) {
+          throw new IOException("Spill file " + file + " is truncated");
+        }
+        spillCount--;
+        if (spillCount == 0) {
+          closeSpill();
+        }
+        Map<String, Object> fields = MAPPER.readValue(line, SPILLED_TYPE);
+        Object attributes = fields.get("attributes");
+        return new JarInfo(
+            String.valueOf(fields.get("name")),
+            String.valueOf(fields.get("version")),
+            attributes instanceof Map
+                ? (Map<String, String>) attributes
+                : Collections.<String, String>emptyMap());
+      } catch (IOException | RuntimeException e) {
+        logger.warning("Could not read spilled jars, dropping " + spillCount + " of them", e);
+        dropped.add(spillCount);
+        spillCount = 0;
+        closeSpill();
+        return null;
+      }
+    }
+  }
+
+  // Starts a new file with the next spill
+  private void closeSpill() {
+    Path file = spillFile;
+    try {
+      if (spillWriter != null) {
+        spillWriter.close();
+      }
+      if (spillReader != null) {
+        spillReader.close();
+      }
+      if (file != null) {
+        Files.deleteIfExists(file);
+      }
+    } catch (IOException e) {
+      logger.debug("Could not delete spill file " + file + ": " + e.getMessage());
+    } finally {
+      spillWriter = null;
+      spillReader = null;
+      spillFile = null;
+    }
+  }
+}
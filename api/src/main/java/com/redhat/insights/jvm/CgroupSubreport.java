@@ -0,0 +1,340 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import com.redhat.insights.logging.InsightsLogger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Reports the container resource limits of the process, from cgroup v1 or v2: CPU quota, period,
+ * weight and cpuset, memory limits and high-water marks, and CPU throttling and memory pressure
+ * counters.
+ *
+ * <p>Each cgroup file is read in one go into a reused buffer, and numbers are parsed from its
+ * bytes. Unlimited values are reported as {@code -1}, and files that do not exist are omitted.
+ */
+@NullMarked
+public class CgroupSubreport implements SummarizedSubreport {
+
+  static final long UNLIMITED = -1L;
+
+  // Returned for missing files and keys
+  private static final long ABSENT = Long.MIN_VALUE;
+
+  // cgroup v1 reports "no limit" as the largest page-aligned long
+  private static final long V1_UNLIMITED_THRESHOLD = Long.MAX_VALUE / 2;
+
+  private final InsightsLogger logger;
+  private final Path procSelfCgroup;
+  private final Path root;
+
+  private final byte[] buffer = new byte[8192];
+  private int length;
+  private volatile Map<String, Object> summary = Collections.emptyMap();
+
+  public CgroupSubreport(InsightsLogger logger) {
+    this(logger, Paths.get("/proc/self/cgroup"), Paths.get("/sys/fs/cgroup"));
+  }
+
+  CgroupSubreport(InsightsLogger logger, Path procSelfCgroup, Path root) {
+    this.logger = logger;
+    this.procSelfCgroup = procSelfCgroup;
+    this.root = root;
+  }
+
+  @Override
+  public synchronized void generateReport() {
+    Map<String, Object> next = new LinkedHashMap<>();
+    Map<String, String> paths = readControllerPaths();
+    if (paths.isEmpty()) {
+      next.put("cgroup", "none");
+    } else if (Files.exists(root.resolve("cgroup.controllers"))) {
+      next.put("cgroup", "v2");
+      collectV2(next, groupDir(root, paths.get("")));
+    } else {
+      next.put("cgroup", "v1");
+      collectV1(next, paths);
+    }
+    summary = next;
+  }
+
+  // Controller name to cgroup path, the unified hierarchy having an empty name
+  private Map<String, String> readControllerPaths() {
+    Map<String, String> paths = new HashMap<>();
+    if (!read(procSelfCgroup)) {
+      return paths;
+    }
+    String content = new String(buffer, 0, length, StandardCharsets.UTF_8);
+    for (String line : content.split("\n")) {
+      int first = line.indexOf(':');
+      int second = line.indexOf(':', first + 1);
+      if (first < 0 || second < 0) {
+        continue;
+      }
+      String path = line.substring(second + 1);
+      for (String controller : line.substring(first + 1, second).split(",")) {
+        paths.put(controller, path);
+      }
+    }
+    return paths;
+  }
+
+  // Inside a cgroup namespace, the group of the process is the mount point itself
+  private static Path groupDir(Path mount, @Nullable String path) {
+    if (path == null) {
+      return mount;
+    }
+    String relative = path.startsWith("/") ? path.substring(1) : path;
+    Path dir = relative.isEmpty() ? mount : mount.resolve(relative);
+    return Files.isDirectory(dir) ? dir : mount;
+  }
+
+  private void collectV2(Map<String, Object> out, Path group) {
+    Map<String, Object> cpu = new LinkedHashMap<>();
+    if (read(group.resolve("cpu.max"))) {
+      int pos = skipSpaces(0);
+      long quota = parseLong(pos);
+      long period = parseLong(skipSpaces(skipToken(pos)));
+      putLimits(cpu, quota, period);
+    }
+    putIfPresent(cpu, "weight", readLong(group.resolve("cpu.weight")));
+    String cpuset = readString(group.resolve("cpuset.cpus.effective"));
+    if (cpuset == null) {
+      cpuset = readString(group.resolve("cpuset.cpus"));
+    }
+    putCpuset(cpu, cpuset);
+    if (read(group.resolve("cpu.stat"))) {
+      Map<String, Object> throttling = new LinkedHashMap<>();
+      putIfPresent(throttling, "periods", keyed("nr_periods"));
+      putIfPresent(throttling, "throttled_periods", keyed("nr_throttled"));
+      long throttledUsec = keyed("throttled_usec");
+      putIfPresent(
+          throttling, "throttled_ms", throttledUsec == ABSENT ? ABSENT : throttledUsec / 1000);
+      cpu.put("throttling", throttling);
+    }
+    out.put("cpu", cpu);
+
+    Map<String, Object> memory = new LinkedHashMap<>();
+    putIfPresent(memory, "limit", readLong(group.resolve("memory.max")));
+    putIfPresent(memory, "high", readLong(group.resolve("memory.high")));
+    putIfPresent(memory, "current", readLong(group.resolve("memory.current")));
+    putIfPresent(memory, "peak", readLong(group.resolve("memory.peak")));
+    putIfPresent(memory, "swap_limit", readLong(group.resolve("memory.swap.max")));
+    if (read(group.resolve("memory.events"))) {
+      Map<String, Object> events = new LinkedHashMap<>();
+      putIfPresent(events, "high", keyed("high"));
+      putIfPresent(events, "max", keyed("max"));
+      putIfPresent(events, "oom", keyed("oom"));
+      putIfPresent(events, "oom_kill", keyed("oom_kill"));
+      memory.put("events", events);
+    }
+    out.put("memory", memory);
+  }
+
+  private void collectV1(Map<String, Object> out, Map<String, String> paths) {
+    Path cpuGroup = groupDir(root.resolve("cpu"), paths.get("cpu"));
+    Map<String, Object> cpu = new LinkedHashMap<>();
+    long quota = readLong(cpuGroup.resolve("cpu.cfs_quota_us"));
+    long period = readLong(cpuGroup.resolve("cpu.cfs_period_us"));
+    if (quota != ABSENT) {
+      putLimits(cpu, quota, period);
+    }
+    putIfPresent(cpu, "shares", readLong(cpuGroup.resolve("cpu.shares")));
+    putCpuset(
+        cpu,
+        readString(groupDir(root.resolve("cpuset"), paths.get("cpuset")).resolve("cpuset.cpus")));
+    if (read(cpuGroup.resolve("cpu.stat"))) {
+      Map<String, Object> throttling = new LinkedHashMap<>();
+      putIfPresent(throttling, "periods", keyed("nr_periods"));
+      putIfPresent(throttling, "throttled_periods", keyed("nr_throttled"));
+      long throttledNanos = keyed("throttled_time");
+      putIfPresent(
+          throttling,
+          "throttled_ms",
+          throttledNanos == ABSENT ? ABSENT : throttledNanos / 1_000_000);
+      cpu.put("throttling", throttling);
+    }
+    out.put("cpu", cpu);
+
+    Path memoryGroup = groupDir(root.resolve("memory"), paths.get("memory"));
+    Map<String, Object> memory = new LinkedHashMap<>();
+    putIfPresent(memory, "limit", v1Limit(readLong(memoryGroup.resolve("memory.limit_in_bytes"))));
+    putIfPresent(
+        memory, "soft_limit", v1Limit(readLong(memoryGroup.resolve("memory.soft_limit_in_bytes"))));
+    putIfPresent(memory, "current", readLong(memoryGroup.resolve("memory.usage_in_bytes")));
+    putIfPresent(memory, "peak", readLong(memoryGroup.resolve("memory.max_usage_in_bytes")));
+    putIfPresent(
+        memory,
+        "swap_limit",
+        v1Limit(readLong(memoryGroup.resolve("memory.memsw.limit_in_bytes"))));
+    putIfPresent(memory, "failcnt", readLong(memoryGroup.resolve("memory.failcnt")));
+    out.put("memory", memory);
+  }
+
+  private static long v1Limit(long value) {
+    return value >= V1_UNLIMITED_THRESHOLD ? UNLIMITED : value;
+  }
+
+  private static void putLimits(Map<String, Object> cpu, long quota, long period) {
+    // cgroup v1 uses -1 for no quota, v2 uses "max"
+    long effectiveQuota = quota < 0 ? UNLIMITED : quota;
+    cpu.put("quota_us", effectiveQuota);
+    putIfPresent(cpu, "period_us", period);
+    if (effectiveQuota > 0 && period > 0) {
+      cpu.put("limit_cores", (double) effectiveQuota / period);
+    }
+  }
+
+  private static void putCpuset(Map<String, Object> cpu, @Nullable String cpuset) {
+    if (cpuset != null && !cpuset.isEmpty()) {
+      cpu.put("cpuset", cpuset);
+      cpu.put("cpuset_count", countCpus(cpuset));
+    }
+  }
+
+  /**
+   * Counts the CPUs of a cpuset list, such as {@code 0-3,8,10-11}.
+   *
+   * @param list the cpuset list
+   * @return the number of CPUs
+   */
+  static int countCpus(String list) {
+    int count = 0;
+    int start = -1;
+    int value = -1;
+    for (int i = 0; i <= list.length(); i++) {
+      char c = i < list.length() ? list.charAt(i) : ',';
+      if (c >= '0' && c <= '9') {
+        value = (value < 0 ? 0 : value * 10) + (c - '0');
+      } else if (c == '-') {
+        start = value;
+        value = -1;
+      } else if (c == ',') {
+        if (value >= 0) {
+          count += start >= 0 ? value - start + 1 : 1;
+        }
+        start = -1;
+        value = -1;
+      }
+    }
+    return count;
+  }
+
+  private static void putIfPresent(Map<String, Object> out, String key, long value) {
+    if (value != ABSENT) {
+      out.put(key, value);
+    }
+  }
+
+  // Reads a whole file into the buffer
+  private boolean read(Path file) {
+    length = 0;
+    if (!Files.isReadable(file)) {
+      return false;
+    }
+    try (InputStream in = Files.newInputStream(file)) {
+      int n;
+      while (length < buffer.length && (n = in.read(buffer, length, buffer.length - length)) > 0) {
+        length += n;
+      }
+      return true;
+    } catch (IOException e) {
+      logger.debug("Could not read " + file + ": " + e.getMessage());
+      length = 0;
+      return false;
+    }
+  }
+
+  private long readLong(Path file) {
+    return read(file) ? parseLong(skipSpaces(0)) : ABSENT;
+  }
+
+  private @Nullable String readString(Path file) {
+    return read(file) ? new String(buffer, 0, length, StandardCharsets.US_ASCII).trim() : null;
+  }
+
+  // Parses "max" as unlimited
+  private long parseLong(int pos) {
+    if (pos + 3 <= length
+        && buffer[pos] == 'm'
+        && buffer[pos + 1] == 'a'
+        && buffer[pos + 2] == 'x') {
+      return UNLIMITED;
+    }
+    boolean negative = pos < length && buffer[pos] == '-';
+    int i = negative ? pos + 1 : pos;
+    long value = 0;
+    int digits = 0;
+    while (i < length && buffer[i] >= '0' && buffer[i] <= '9') {
+      value = value * 10 + (buffer[i] - '0');
+      i++;
+      digits++;
+    }
+    if (digits == 0) {
+      return ABSENT;
+    }
+    return negative ? -value : value;
+  }
+
+  // The value of a "key value" line of the buffer
+  private long keyed(String key) {
+    int pos = 0;
+    while (pos < length) {
+      if (matches(pos, key)) {
+        return parseLong(skipSpaces(pos + key.length()));
+      }
+      while (pos < length && buffer[pos] != '\n') {
+        pos++;
+      }
+      pos++;
+    }
+    return ABSENT;
+  }
+
+  private boolean matches(int pos, String key) {
+    int end = pos + key.length();
+    if (end >= length || buffer[end] != ' ') {
+      return false;
+    }
+    for (int i = 0; i < key.length(); i++) {
+      if (buffer[pos + i] != key.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int skipSpaces(int pos) {
+    while (pos < length && (buffer[pos] == ' ' || buffer[pos] == '\t')) {
+      pos++;
+    }
+    return pos;
+  }
+
+  private int skipToken(int pos) {
+    while (pos < length && buffer[pos] != ' ' && buffer[pos] != '\n') {
+      pos++;
+    }
+    return pos;
+  }
+
+  @Override
+  public Map<String, Object> getSummary() {
+    return summary;
+  }
+
+  @Override
+  public String getVersion() {
+    return "1.0.0";
+  }
+}
@@ -0,0 +1,182 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import com.redhat.insights.logging.InsightsLogger;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.VMOption;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Reports JIT compilation time, code cache occupancy, and the VM options that drive them.
+ *
+ * <p>The VM options cannot change at runtime and are read once per process. The compilation time
+ * and code cache usage are read on every report. The management beans do not count code cache
+ * flushes: a decrease of a code heap occupancy between two reports is counted as a flush instead,
+ * since only the sweeper frees compiled code.
+ */
+@NullMarked
+public class JitSubreport implements SummarizedSubreport {
+
+  static final List<String> FLAGS =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              "TieredCompilation",
+              "TieredStopAtLevel",
+              "CICompilerCount",
+              "UseJVMCICompiler",
+              "Inline",
+              "MaxInlineSize",
+              "FreqInlineSize",
+              "MaxInlineLevel",
+              "InlineSmallCode",
+              "ReservedCodeCacheSize",
+              "InitialCodeCacheSize",
+              "SegmentedCodeCache",
+              "UseCodeCacheFlushing"));
+
+  // Occupancy above which a code heap is reported as nearly full
+  static final double NEARLY_FULL = 0.9;
+
+  private final InsightsLogger logger;
+  private final @Nullable CompilationMXBean compilation;
+  private final List<MemoryPoolMXBean> codeHeaps;
+  private final Function<String, @Nullable VMOption> vmOptions;
+
+  private final long[] lastUsed;
+  private final long[] flushes;
+  private @Nullable Map<String, Object> flags;
+  private volatile Map<String, Object> summary = Collections.emptyMap();
+
+  public JitSubreport(InsightsLogger logger) {
+    this(
+        logger,
+        ManagementFactory.getCompilationMXBean(),
+        ManagementFactory.getMemoryPoolMXBeans(),
+        JitSubreport::readVmOption);
+  }
+
+  JitSubreport(
+      InsightsLogger logger,
+      @Nullable CompilationMXBean compilation,
+      List<MemoryPoolMXBean> pools,
+      Function<String, @Nullable VMOption> vmOptions) {
+    this.logger = logger;
+    this.compilation = compilation;
+    this.vmOptions = vmOptions;
+    List<MemoryPoolMXBean> heaps = new ArrayList<>();
+    for (MemoryPoolMXBean pool : pools) {
+      if (isCodeHeap(pool)) {
+        heaps.add(pool);
+      }
+    }
+    this.codeHeaps = heaps;
+    this.lastUsed = new long[heaps.size()];
+    this.flushes = new long[heaps.size()];
+  }
+
+  // "CodeHeap '...'" since JDK 9, "Code Cache" before
+  static boolean isCodeHeap(MemoryPoolMXBean pool) {
+    String name = pool.getName();
+    return pool.getType() == MemoryType.NON_HEAP
+        && (name.startsWith("CodeHeap") || name.equals("Code Cache"));
+  }
+
+  private static @Nullable VMOption readVmOption(String name) {
+    try {
+      return ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).getVMOption(name);
+    } catch (IllegalArgumentException e) {
+      // Not a flag of this JVM
+      return null;
+    }
+  }
+
+  @Override
+  public synchronized void generateReport() {
+    Map<String, Object> next = new LinkedHashMap<>();
+    CompilationMXBean compiler = compilation;
+    if (compiler != null) {
+      next.put("compiler", compiler.getName());
+      if (compiler.isCompilationTimeMonitoringSupported()) {
+        next.put("compilation_time_ms", compiler.getTotalCompilationTime());
+      }
+    }
+
+    Map<String, Object> heaps = new LinkedHashMap<>();
+    for (int i = 0; i < codeHeaps.size(); i++) {
+      MemoryPoolMXBean pool = codeHeaps.get(i);
+      MemoryUsage usage = pool.getUsage();
+      if (usage == null) {
+        continue;
+      }
+      long used = usage.getUsed();
+      if (used < lastUsed[i]) {
+        flushes[i]++;
+      }
+      lastUsed[i] = used;
+
+      Map<String, Object> heap = new LinkedHashMap<>();
+      heap.put("used", used);
+      heap.put("committed", usage.getCommitted());
+      heap.put("max", usage.getMax());
+      MemoryUsage peak = pool.getPeakUsage();
+      if (peak != null) {
+        heap.put("peak_used", peak.getUsed());
+      }
+      if (usage.getMax() > 0) {
+        double occupancy = (double) used / usage.getMax();
+        heap.put("occupancy", occupancy);
+        heap.put("nearly_full", occupancy >= NEARLY_FULL);
+      }
+      heap.put("flushes_observed", flushes[i]);
+      heaps.put(pool.getName(), heap);
+    }
+    next.put("code_cache", heaps);
+    next.put("flags", getFlags());
+    summary = next;
+  }
+
+  private Map<String, Object> getFlags() {
+    Map<String, Object> cached = flags;
+    if (cached == null) {
+      cached = new LinkedHashMap<>();
+      for (String name : FLAGS) {
+        try {
+          VMOption option = vmOptions.apply(name);
+          if (option != null) {
+            Map<String, Object> flag = new LinkedHashMap<>();
+            flag.put("value", option.getValue());
+            flag.put("origin", option.getOrigin().name());
+            cached.put(name, flag);
+          }
+        } catch (RuntimeException e) {
+          logger.debug("Could not read VM option " + name + ": " + e);
+        }
+      }
+      flags = cached;
+    }
+    return cached;
+  }
+
+  @Override
+  public Map<String, Object> getSummary() {
+    return summary;
+  }
+
+  @Override
+  public String getVersion() {
+    return "1.0.0";
+  }
+}
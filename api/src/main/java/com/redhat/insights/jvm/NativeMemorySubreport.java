@@ -0,0 +1,226 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.management.ObjectName;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Reports off-heap memory: the direct and mapped buffer pools, metaspace and compressed class
+ * space, and the Native Memory Tracking summary when it is enabled with {@code
+ * -XX:NativeMemoryTracking}.
+ *
+ * <p>The NMT summary is obtained with the {@code VM.native_memory summary} diagnostic command,
+ * which walks the JVM's memory records. It is only run when a report is generated, and at most once
+ * per {@link InsightsConfiguration#getNativeMemoryMinInterval()}: reports in between reuse the last
+ * summary.
+ */
+@NullMarked
+public class NativeMemorySubreport implements SummarizedSubreport {
+
+  static final List<String> METASPACE_POOLS =
+      Collections.unmodifiableList(Arrays.asList("Metaspace", "Compressed Class Space"));
+
+  private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+
+  private static final Pattern TOTAL =
+      Pattern.compile("^Total: reserved=(\\d+)([KMG]?B)?, committed=(\\d+)([KMG]?B)?");
+  private static final Pattern CATEGORY =
+      Pattern.compile("^-\\s+(.+?) \\(reserved=(\\d+)([KMG]?B)?, committed=(\\d+)([KMG]?B)?\\)");
+
+  private final InsightsLogger logger;
+  private final List<BufferPoolMXBean> bufferPools;
+  private final List<MemoryPoolMXBean> memoryPools;
+  private final @Nullable Callable<String> nmtSummary;
+  private final long minIntervalNanos;
+  private final LongSupplier clock;
+
+  private @Nullable Map<String, Object> nmt;
+  private boolean nmtRead;
+  private long nmtReadAt;
+  private volatile Map<String, Object> summary = Collections.emptyMap();
+
+  public NativeMemorySubreport(InsightsLogger logger, InsightsConfiguration configuration) {
+    this(
+        logger,
+        ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class),
+        ManagementFactory.getMemoryPoolMXBeans(),
+        isNmtEnabled() ? NativeMemorySubreport::readNmtSummary : null,
+        configuration.getNativeMemoryMinInterval(),
+        System::nanoTime);
+  }
+
+  NativeMemorySubreport(
+      InsightsLogger logger,
+      List<BufferPoolMXBean> bufferPools,
+      List<MemoryPoolMXBean> memoryPools,
+      @Nullable Callable<String> nmtSummary,
+      Duration minInterval,
+      LongSupplier clock) {
+    this.logger = logger;
+    this.bufferPools = bufferPools;
+    this.memoryPools = memoryPools;
+    this.nmtSummary = nmtSummary;
+    this.minIntervalNanos = minInterval.toNanos();
+    this.clock = clock;
+  }
+
+  private static boolean isNmtEnabled() {
+    try {
+      String mode =
+          ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+              .getVMOption("NativeMemoryTracking")
+              .getValue();
+      return !"off".equalsIgnoreCase(mode);
+    } catch (RuntimeException e) {
+      // Not a HotSpot JVM
+      return false;
+    }
+  }
+
+  private static String readNmtSummary() throws Exception {
+    Object result =
+        ManagementFactory.getPlatformMBeanServer()
+            .invoke(
+                new ObjectName(DIAGNOSTIC_COMMAND),
+                "vmNativeMemory",
+                new Object[] {new String[] {"summary"}},
+                new String[] {String[].class.getName()});
+    return String.valueOf(result);
+  }
+
+  @Override
+  public synchronized void generateReport() {
+    Map<String, Object> next = new LinkedHashMap<>();
+
+    Map<String, Object> buffers = new LinkedHashMap<>();
+    for (BufferPoolMXBean pool : bufferPools) {
+      Map<String, Object> buffer = new LinkedHashMap<>();
+      buffer.put("count", pool.getCount());
+      buffer.put("capacity", pool.getTotalCapacity());
+      buffer.put("used", pool.getMemoryUsed());
+      buffers.put(pool.getName(), buffer);
+    }
+    next.put("buffer_pools", buffers);
+
+    Map<String, Object> metaspace = new LinkedHashMap<>();
+    for (MemoryPoolMXBean pool : memoryPools) {
+      if (!METASPACE_POOLS.contains(pool.getName())) {
+        continue;
+      }
+      MemoryUsage usage = pool.getUsage();
+      if (usage != null) {
+        Map<String, Object> space = new LinkedHashMap<>();
+        space.put("used", usage.getUsed());
+        space.put("committed", usage.getCommitted());
+        space.put("max", usage.getMax());
+        metaspace.put(pool.getName(), space);
+      }
+    }
+    next.put("metaspace", metaspace);
+
+    Map<String, Object> nativeMemory = readNmt();
+    if (nativeMemory != null) {
+      next.put("native_memory", nativeMemory);
+    }
+    summary = next;
+  }
+
+  private @Nullable Map<String, Object> readNmt() {
+    Callable<String> command = nmtSummary;
+    if (command == null) {
+      return null;
+    }
+    long now = clock.getAsLong();
+    // Failures are rate-limited too
+    if (nmtRead && now - nmtReadAt < minIntervalNanos) {
+      return nmt;
+    }
+    nmtRead = true;
+    nmtReadAt = now;
+    try {
+      nmt = parseNmtSummary(command.call());
+    } catch (Exception e) {
+      logger.debug("Could not read the native memory summary: " + e);
+      nmt = null;
+    }
+    return nmt;
+  }
+
+  /**
+   * Parses the output of {@code VM.native_memory summary}.
+   *
+   * @param output the command output
+   * @return the total and per-category reserved and committed bytes
+   */
+  static Map<String, Object> parseNmtSummary(String output) {
+    Map<String, Object> parsed = new LinkedHashMap<>();
+    Map<String, Object> categories = new LinkedHashMap<>();
+    for (String line : output.split("\\R")) {
+      String trimmed = line.trim();
+      Matcher total = TOTAL.matcher(trimmed);
+      if (total.find()) {
+        parsed.put("total", amounts(total, 1));
+        continue;
+      }
+      Matcher category = CATEGORY.matcher(trimmed);
+      if (category.find()) {
+        categories.put(category.group(1).trim(), amounts(category, 2));
+      }
+    }
+    parsed.put("categories", categories);
+    return parsed;
+  }
+
+  private static Map<String, Object> amounts(Matcher matcher, int first) {
+    Map<String, Object> amounts = new LinkedHashMap<>();
+    amounts.put("reserved", toBytes(matcher.group(first), matcher.group(first + 1)));
+    amounts.put("committed", toBytes(matcher.group(first + 2), matcher.group(first + 3)));
+    return amounts;
+  }
+
+  private static long toBytes(String value, @Nullable String unit) {
+    long amount = Long.parseLong(value);
+    if (unit == null) {
+      return amount;
+    }
+    switch (unit.toUpperCase(Locale.ROOT)) {
+      case "KB":
+        return amount * 1024;
+      case "MB":
+        return amount * 1024 * 1024;
+      case "GB":
+        return amount * 1024 * 1024 * 1024;
+      default:
+        return amount;
+    }
+  }
+
+  @Override
+  public Map<String, Object> getSummary() {
+    return summary;
+  }
+
+  @Override
+  public String getVersion() {
+    return "1.0.0";
+  }
+}
@@ -0,0 +1,57 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import java.util.Arrays;
+import org.jspecify.annotations.NullMarked;
+
+/** Nearest-rank percentiles of a series of values, serialized as {@code p50}, {@code p90}... */
+@NullMarked
+public final class Percentiles {
+
+  private final long p50;
+  private final long p90;
+  private final long p99;
+  private final long max;
+
+  Percentiles(long p50, long p90, long p99, long max) {
+    this.p50 = p50;
+    this.p90 = p90;
+    this.p99 = p99;
+    this.max = max;
+  }
+
+  /**
+   * @param values the values, sorted in place
+   * @param count the number of values to consider, at least 1
+   * @return the percentiles
+   */
+  static Percentiles of(long[] values, int count) {
+    Arrays.sort(values, 0, count);
+    return new Percentiles(
+        rank(values, count, 50),
+        rank(values, count, 90),
+        rank(values, count, 99),
+        values[count - 1]);
+  }
+
+  private static long rank(long[] sorted, int count, int percentile) {
+    int rank = (int) Math.ceil(count * percentile / 100.0);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  public long getP50() {
+    return p50;
+  }
+
+  public long getP90() {
+    return p90;
+  }
+
+  public long getP99() {
+    return p99;
+  }
+
+  public long getMax() {
+    return max;
+  }
+}
@@ -0,0 +1,130 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Samples garbage collection, memory and thread activity, and reports their percentiles over the
+ * sampled period.
+ *
+ * <p>The standard management beans do not expose safepoint statistics. The time spent in each
+ * collector is reported instead, both per sampling interval and as a share of the sampled period,
+ * since collections are the main source of safepoint pauses.
+ */
+@NullMarked
+public class RuntimeTelemetrySubreport extends SampledSubreport {
+
+  private static final int TIME = 0;
+  private static final int HEAP_USED = 1;
+  private static final int HEAP_COMMITTED = 2;
+  private static final int NON_HEAP_USED = 3;
+  private static final int NON_HEAP_COMMITTED = 4;
+  private static final int THREADS = 5;
+  private static final int DAEMON_THREADS = 6;
+  private static final int FIRST_GC = 7;
+
+  private final MemoryMXBean memory;
+  private final ThreadMXBean threads;
+  private final List<GarbageCollectorMXBean> collectors;
+  private final List<MemoryPoolMXBean> pools;
+  private final int firstPool;
+
+  public RuntimeTelemetrySubreport(InsightsLogger logger, InsightsConfiguration configuration) {
+    this(
+        logger,
+        configuration,
+        ManagementFactory.getGarbageCollectorMXBeans(),
+        ManagementFactory.getMemoryPoolMXBeans());
+  }
+
+  private RuntimeTelemetrySubreport(
+      InsightsLogger logger,
+      InsightsConfiguration configuration,
+      List<GarbageCollectorMXBean> collectors,
+      List<MemoryPoolMXBean> pools) {
+    super(logger, configuration, FIRST_GC + 2 * collectors.size() + pools.size());
+    this.memory = ManagementFactory.getMemoryMXBean();
+    this.threads = ManagementFactory.getThreadMXBean();
+    this.collectors = collectors;
+    this.pools = pools;
+    this.firstPool = FIRST_GC + 2 * collectors.size();
+  }
+
+  @Override
+  protected void collect(long[] sample) {
+    sample[TIME] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    MemoryUsage heap = memory.getHeapMemoryUsage();
+    sample[HEAP_USED] = heap.getUsed();
+    sample[HEAP_COMMITTED] = heap.getCommitted();
+    MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+    sample[NON_HEAP_USED] = nonHeap.getUsed();
+    sample[NON_HEAP_COMMITTED] = nonHeap.getCommitted();
+    sample[THREADS] = threads.getThreadCount();
+    sample[DAEMON_THREADS] = threads.getDaemonThreadCount();
+    for (int i = 0; i < collectors.size(); i++) {
+      GarbageCollectorMXBean collector = collectors.get(i);
+      // Both are -1 when undefined
+      sample[FIRST_GC + 2 * i] = Math.max(0L, collector.getCollectionCount());
+      sample[FIRST_GC + 2 * i + 1] = Math.max(0L, collector.getCollectionTime());
+    }
+    for (int i = 0; i < pools.size(); i++) {
+      MemoryUsage usage = pools.get(i).getUsage();
+      sample[firstPool + i] = usage != null ? usage.getUsed() : 0L;
+    }
+  }
+
+  @Override
+  protected void summarize(Map<String, Object> summary) {
+    int last = getSampleCount() - 1;
+    long periodMillis = getSample(last, TIME) - getSample(0, TIME);
+    summary.put("period_ms", periodMillis);
+
+    putIfPresent(summary, "heap_used_bytes", percentiles(HEAP_USED));
+    putIfPresent(summary, "heap_committed_bytes", percentiles(HEAP_COMMITTED));
+    putIfPresent(summary, "non_heap_used_bytes", percentiles(NON_HEAP_USED));
+    putIfPresent(summary, "non_heap_committed_bytes", percentiles(NON_HEAP_COMMITTED));
+    putIfPresent(summary, "threads_live", percentiles(THREADS));
+    putIfPresent(summary, "threads_daemon", percentiles(DAEMON_THREADS));
+    summary.put("threads_peak", threads.getPeakThreadCount());
+
+    Map<String, Object> gc = new LinkedHashMap<>();
+    for (int i = 0; i < collectors.size(); i++) {
+      int countColumn = FIRST_GC + 2 * i;
+      int timeColumn = countColumn + 1;
+      long collections = getSample(last, countColumn) - getSample(0, countColumn);
+      long timeMillis = getSample(last, timeColumn) - getSample(0, timeColumn);
+
+      Map<String, Object> collector = new LinkedHashMap<>();
+      collector.put("collections", collections);
+      collector.put("time_ms", timeMillis);
+      if (collections > 0) {
+        collector.put("average_pause_ms", (double) timeMillis / collections);
+      }
+      if (periodMillis > 0) {
+        collector.put("time_share", (double) timeMillis / periodMillis);
+      }
+      putIfPresent(collector, "collections_per_interval", deltaPercentiles(countColumn));
+      putIfPresent(collector, "time_per_interval_ms", deltaPercentiles(timeColumn));
+      gc.put(collectors.get(i).getName(), collector);
+    }
+    summary.put("gc", gc);
+
+    Map<String, Object> poolsUsed = new LinkedHashMap<>();
+    for (int i = 0; i < pools.size(); i++) {
+      putIfPresent(poolsUsed, pools.get(i).getName(), percentiles(firstPool + i));
+    }
+    summary.put("memory_pools_used_bytes", poolsUsed);
+  }
+}
@@ -0,0 +1,88 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A fixed-size ring of samples, each made of {@code width} {@code long} values, stored in a single
+ * preallocated array. Once full, each new sample replaces the oldest one.
+ */
+@NullMarked
+final class SampleRing {
+
+  private final int capacity;
+  private final int width;
+  private final long[] values;
+  private long written;
+
+  SampleRing(int capacity, int width) {
+    if (capacity < 2) {
+      throw new IllegalArgumentException("At least 2 samples are needed, not " + capacity);
+    }
+    this.capacity = capacity;
+    this.width = width;
+    this.values = new long[capacity * width];
+  }
+
+  int capacity() {
+    return capacity;
+  }
+
+  /**
+   * @param sample the sample values, copied into the ring
+   */
+  synchronized void add(long[] sample) {
+    int slot = (int) (written % capacity);
+    System.arraycopy(sample, 0, values, slot * width, width);
+    written++;
+  }
+
+  synchronized int size() {
+    return (int) Math.min(written, capacity);
+  }
+
+  /**
+   * @param index the sample index, 0 being the oldest one
+   * @param column the value index within the sample
+   * @return the value
+   */
+  synchronized long get(int index, int column) {
+    return values[offset(index) + column];
+  }
+
+  /**
+   * Copies a column, from the oldest sample to the newest one.
+   *
+   * @param column the value index within each sample
+   * @param dest the destination, at least {@link #capacity()} long
+   * @return the number of values copied
+   */
+  synchronized int copyColumn(int column, long[] dest) {
+    int size = size();
+    for (int i = 0; i < size; i++) {
+      dest[i] = values[offset(i) + column];
+    }
+    return size;
+  }
+
+  /**
+   * Copies the differences between consecutive samples of a column, such as the increments of a
+   * cumulative counter.
+   *
+   * @param column the value index within each sample
+   * @param dest the destination, at least {@link #capacity()} long
+   * @return the number of differences copied, one less than the number of samples
+   */
+  synchronized int copyDeltas(int column, long[] dest) {
+    int size = size();
+    for (int i = 1; i < size; i++) {
+      dest[i - 1] = values[offset(i) + column] - values[offset(i - 1) + column];
+    }
+    return Math.max(0, size - 1);
+  }
+
+  private int offset(int index) {
+    long oldest = written <= capacity ? 0 : written - capacity;
+    return (int) ((oldest + index) % capacity) * width;
+  }
+}
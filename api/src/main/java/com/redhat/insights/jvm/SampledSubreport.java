@@ -0,0 +1,158 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Base class of subreports that periodically sample the JVM in the background, and summarize the
+ * samples when the report is generated.
+ *
+ * <p>Samples are {@code long} values written into a preallocated {@link SampleRing}, which holds
+ * the last {@link InsightsConfiguration#getTelemetrySampleCapacity()} samples taken every {@link
+ * InsightsConfiguration#getTelemetrySampleInterval()}. Sampling runs on a daemon thread shared by
+ * all subreports, from {@link #start()} until {@link #close()}, which the controller calls on
+ * shutdown.
+ */
+@NullMarked
+public abstract class SampledSubreport implements SummarizedSubreport, Closeable {
+
+  protected final InsightsLogger logger;
+
+  private final Duration interval;
+  private final SampleRing samples;
+  private final long[] sample;
+  private final long[] scratch;
+  private @Nullable ScheduledFuture<?> task;
+  private volatile Map<String, Object> summary = Collections.emptyMap();
+
+  /**
+   * @param logger the logger
+   * @param configuration the configuration, for the sampling interval and capacity
+   * @param width the number of values in each sample
+   */
+  protected SampledSubreport(
+      InsightsLogger logger, InsightsConfiguration configuration, int width) {
+    this.logger = logger;
+    this.interval = configuration.getTelemetrySampleInterval();
+    this.samples = new SampleRing(Math.max(2, configuration.getTelemetrySampleCapacity()), width);
+    this.sample = new long[width];
+    this.scratch = new long[samples.capacity()];
+  }
+
+  /** Starts sampling in the background, unless already started. */
+  public synchronized void start() {
+    if (task == null) {
+      task = TelemetrySampler.schedule(this::sample, interval);
+    }
+  }
+
+  /** Stops sampling. */
+  @Override
+  public synchronized void close() {
+    ScheduledFuture<?> running = task;
+    if (running != null) {
+      running.cancel(false);
+      task = null;
+    }
+  }
+
+  /** Takes a sample, logging instead of throwing so that sampling goes on. */
+  final void sample() {
+    try {
+      synchronized (sample) {
+        Arrays.fill(sample, 0L);
+        collect(sample);
+        samples.add(sample);
+      }
+    } catch (RuntimeException e) {
+      logger.debug("Could not sample " + getClass().getSimpleName() + ": " + e);
+    }
+  }
+
+  /**
+   * Fills a sample. Called on the sampling thread, it should not allocate when avoidable.
+   *
+   * @param sample the sample to fill, zeroed
+   */
+  protected abstract void collect(long[] sample);
+
+  /**
+   * Summarizes the samples taken so far.
+   *
+   * @param summary the summary to fill, serialized in insertion order
+   */
+  protected abstract void summarize(Map<String, Object> summary);
+
+  @Override
+  public void generateReport() {
+    Map<String, Object> next = new LinkedHashMap<>();
+    next.put("sample_interval_ms", interval.toMillis());
+    next.put("samples", samples.size());
+    if (samples.size() > 0) {
+      synchronized (scratch) {
+        summarize(next);
+      }
+    }
+    summary = next;
+  }
+
+  @Override
+  public Map<String, Object> getSummary() {
+    return summary;
+  }
+
+  @Override
+  public String getVersion() {
+    return "1.0.0";
+  }
+
+  protected int getSampleCount() {
+    return samples.size();
+  }
+
+  /**
+   * @param index the sample index, 0 being the oldest one
+   * @param column the value index within the sample
+   * @return the value
+   */
+  protected long getSample(int index, int column) {
+    return samples.get(index, column);
+  }
+
+  /**
+   * @param column the value index within each sample
+   * @return the percentiles of the column, or {@code null} without samples
+   */
+  protected @Nullable Percentiles percentiles(int column) {
+    int count = samples.copyColumn(column, scratch);
+    return count == 0 ? null : Percentiles.of(scratch, count);
+  }
+
+  /**
+   * @param column the value index of a cumulative counter within each sample
+   * @return the percentiles of the counter increments between samples, or {@code null} with less
+   *     than two samples
+   */
+  protected @Nullable Percentiles deltaPercentiles(int column) {
+    int count = samples.copyDeltas(column, scratch);
+    return count == 0 ? null : Percentiles.of(scratch, count);
+  }
+
+  /** Puts a value in a summary, unless it is {@code null}. */
+  protected static void putIfPresent(
+      Map<String, Object> summary, String key, @Nullable Object value) {
+    if (value != null) {
+      summary.put(key, value);
+    }
+  }
+}
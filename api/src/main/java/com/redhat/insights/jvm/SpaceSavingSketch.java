@@ -0,0 +1,120 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A Space-Saving top-K sketch of blocked and waiting thread counts, in bounded memory.
+ *
+ * <p>At most {@code capacity} keys are tracked. A new key replaces the one with the lowest count,
+ * inheriting that count as its error: counts are thus over-estimated by at most their {@link
+ * Entry#getError()}, and any key more frequent than {@code total / capacity} is guaranteed to be
+ * tracked.
+ */
+@NullMarked
+final class SpaceSavingSketch {
+
+  private final int capacity;
+  private final Map<String, Entry> entries;
+
+  SpaceSavingSketch(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive, not " + capacity);
+    }
+    this.capacity = capacity;
+    this.entries = new HashMap<>(capacity * 2);
+  }
+
+  /**
+   * @param key the contention point
+   * @param blocked {@code true} for a blocked thread, {@code false} for a waiting one
+   */
+  synchronized void add(String key, boolean blocked) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      if (entries.size() < capacity) {
+        entry = new Entry(key, 0L);
+      } else {
+        Entry min = findMin();
+        entries.remove(min.key);
+        entry = new Entry(key, min.getCount());
+      }
+      entries.put(key, entry);
+    }
+    if (blocked) {
+      entry.blocked++;
+    } else {
+      entry.waiting++;
+    }
+  }
+
+  private Entry findMin() {
+    Entry min = null;
+    for (Entry entry : entries.values()) {
+      if (min == null || entry.getCount() < min.getCount()) {
+        min = entry;
+      }
+    }
+    if (min == null) {
+      throw new IllegalStateException("Empty sketch");
+    }
+    return min;
+  }
+
+  /**
+   * @return copies of the tracked entries, the most frequent first
+   */
+  synchronized List<Entry> top() {
+    List<Entry> top = new ArrayList<>(entries.size());
+    for (Entry entry : entries.values()) {
+      top.add(new Entry(entry));
+    }
+    top.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+    return top;
+  }
+
+  /** A tracked contention point, serialized through its getters. */
+  public static final class Entry {
+    private final String key;
+    // Count inherited from the evicted entry, attributed to neither state
+    private final long error;
+    private long blocked;
+    private long waiting;
+
+    private Entry(String key, long error) {
+      this.key = key;
+      this.error = error;
+    }
+
+    private Entry(Entry other) {
+      this.key = other.key;
+      this.error = other.error;
+      this.blocked = other.blocked;
+      this.waiting = other.waiting;
+    }
+
+    public String getKey() {
+      return key;
+    }
+
+    public long getBlocked() {
+      return blocked;
+    }
+
+    public long getWaiting() {
+      return waiting;
+    }
+
+    public long getError() {
+      return error;
+    }
+
+    long getCount() {
+      return error + blocked + waiting;
+    }
+  }
+}
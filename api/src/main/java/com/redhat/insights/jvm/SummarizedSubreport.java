@@ -0,0 +1,20 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.redhat.insights.reports.InsightsSubreport;
+import java.util.Map;
+
+/** A subreport serialized as its version followed by the entries of a summary. */
+public interface SummarizedSubreport extends InsightsSubreport {
+
+  /**
+   * @return the entries of the subreport, keyed by field name
+   */
+  Map<String, Object> getSummary();
+
+  @Override
+  default JsonSerializer<InsightsSubreport> getSerializer() {
+    return new SummarizedSubreportSerializer();
+  }
+}
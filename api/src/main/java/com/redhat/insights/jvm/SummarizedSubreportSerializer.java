@@ -0,0 +1,27 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.redhat.insights.reports.InsightsSubreport;
+import java.io.IOException;
+import java.util.Map;
+
+/** JSON serializer of a {@link SummarizedSubreport}. */
+public class SummarizedSubreportSerializer extends JsonSerializer<InsightsSubreport> {
+
+  @Override
+  public void serialize(
+      InsightsSubreport subreport, JsonGenerator generator, SerializerProvider serializerProvider)
+      throws IOException {
+    SummarizedSubreport summarized = (SummarizedSubreport) subreport;
+    generator.writeStartObject();
+    generator.writeStringField("version", summarized.getVersion());
+    for (Map.Entry<String, Object> entry : summarized.getSummary().entrySet()) {
+      generator.writeObjectField(entry.getKey(), entry.getValue());
+    }
+    generator.writeEndObject();
+    generator.flush();
+  }
+}
@@ -0,0 +1,34 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullMarked;
+
+/** The daemon thread shared by all the sampled subreports of a process. */
+@NullMarked
+final class TelemetrySampler {
+
+  private static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+
+  private TelemetrySampler() {}
+
+  private static ScheduledThreadPoolExecutor createExecutor() {
+    ScheduledThreadPoolExecutor executor =
+        new ScheduledThreadPoolExecutor(
+            1,
+            r -> {
+              Thread thread = new Thread(r, "insights-telemetry");
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.setRemoveOnCancelPolicy(true);
+    return executor;
+  }
+
+  static ScheduledFuture<?> schedule(Runnable sample, Duration interval) {
+    return EXECUTOR.scheduleWithFixedDelay(sample, 0L, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+}
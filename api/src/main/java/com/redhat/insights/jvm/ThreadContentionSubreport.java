@@ -0,0 +1,195 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import com.redhat.insights.CpuBudget;
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import java.io.Closeable;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Samples thread dumps to find the hottest lock contention points, by lock class and by top
+ * application frame. Counts are kept in bounded {@link SpaceSavingSketch}es of {@link
+ * InsightsConfiguration#getThreadContentionTopK()} entries.
+ *
+ * <p>A thread dump pauses the JVM, so this subreport is off by default (see {@link
+ * InsightsConfiguration#isThreadContentionSamplingEnabled()}), samples every {@link
+ * InsightsConfiguration#getThreadContentionInterval()}, and measures its own cost. When a dump
+ * takes more than {@link #MAX_OVERHEAD} of the interval, the following samples are skipped
+ * accordingly. Sampling runs from {@link #start()} until {@link #close()}, which the controller
+ * calls on shutdown.
+ */
+@NullMarked
+public class ThreadContentionSubreport implements SummarizedSubreport, Closeable {
+
+  static final double MAX_OVERHEAD = 0.01;
+
+  // Frames of the blocking primitives themselves, skipped to find the contended code
+  private static final String[] PARKING_CLASSES = {
+    "java.lang.Object",
+    "java.lang.Thread",
+    "jdk.internal.misc.Unsafe",
+    "sun.misc.Unsafe",
+    "java.util.concurrent.locks."
+  };
+
+  private final InsightsLogger logger;
+  private final Duration interval;
+  private final Supplier<ThreadInfo[]> dump;
+  private final SpaceSavingSketch locks;
+  private final SpaceSavingSketch frames;
+
+  private long samples;
+  private long skipped;
+  private long skipNext;
+  private long totalNanos;
+  private long maxNanos;
+  private @Nullable ScheduledFuture<?> task;
+  private volatile Map<String, Object> summary = Collections.emptyMap();
+
+  public ThreadContentionSubreport(InsightsLogger logger, InsightsConfiguration configuration) {
+    this(logger, configuration, ThreadContentionSubreport::dumpAllThreads);
+  }
+
+  ThreadContentionSubreport(
+      InsightsLogger logger, InsightsConfiguration configuration, Supplier<ThreadInfo[]> dump) {
+    this.logger = logger;
+    this.interval = configuration.getThreadContentionInterval();
+    this.dump = dump;
+    this.locks = new SpaceSavingSketch(configuration.getThreadContentionTopK());
+    this.frames = new SpaceSavingSketch(configuration.getThreadContentionTopK());
+  }
+
+  private static ThreadInfo[] dumpAllThreads() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    return threads.dumpAllThreads(
+        threads.isObjectMonitorUsageSupported(), threads.isSynchronizerUsageSupported());
+  }
+
+  /** Starts sampling in the background, unless already started. */
+  public synchronized void start() {
+    if (task == null) {
+      task = TelemetrySampler.schedule(this::sample, interval);
+    }
+  }
+
+  /** Stops sampling. */
+  @Override
+  public synchronized void close() {
+    ScheduledFuture<?> running = task;
+    if (running != null) {
+      running.cancel(false);
+      task = null;
+    }
+  }
+
+  /** Takes a sample, unless skipped to bound the overhead. */
+  synchronized void sample() {
+    if (skipNext > 0) {
+      skipNext--;
+      skipped++;
+      return;
+    }
+    long cpuStart = CpuBudget.threadCpuNanos();
+    long start = System.nanoTime();
+    try {
+      for (ThreadInfo info : dump.get()) {
+        if (info != null) {
+          record(info);
+        }
+      }
+    } catch (RuntimeException e) {
+      logger.debug("Could not sample thread contention: " + e);
+    }
+    long elapsed = System.nanoTime() - start;
+    samples++;
+    totalNanos += elapsed;
+    maxNanos = Math.max(maxNanos, elapsed);
+    // Spread the cost of a slow dump over enough intervals
+    long allowed = (long) (interval.toNanos() * MAX_OVERHEAD);
+    skipNext = allowed > 0 ? (elapsed - 1) / allowed : 0;
+    CpuBudget.getInstance().charge(cpuStart);
+  }
+
+  private void record(ThreadInfo info) {
+    boolean blocked;
+    switch (info.getThreadState()) {
+      case BLOCKED:
+        blocked = true;
+        break;
+      case WAITING:
+      case TIMED_WAITING:
+        blocked = false;
+        break;
+      default:
+        return;
+    }
+    LockInfo lock = info.getLockInfo();
+    if (lock == null || info.getThreadName().startsWith("insights-")) {
+      // Sleeping, or our own threads
+      return;
+    }
+    locks.add(lock.getClassName(), blocked);
+    String frame = topFrame(info.getStackTrace());
+    if (frame != null) {
+      frames.add(frame, blocked);
+    }
+  }
+
+  static @Nullable String topFrame(StackTraceElement[] stack) {
+    for (StackTraceElement element : stack) {
+      if (!isParking(element.getClassName())) {
+        return element.getClassName() + "." + element.getMethodName();
+      }
+    }
+    return null;
+  }
+
+  private static boolean isParking(String className) {
+    for (String parking : PARKING_CLASSES) {
+      if (parking.endsWith(".") ? className.startsWith(parking) : className.equals(parking)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized void generateReport() {
+    Map<String, Object> next = new LinkedHashMap<>();
+    next.put("sample_interval_ms", interval.toMillis());
+    next.put("samples", samples);
+
+    Map<String, Object> overhead = new LinkedHashMap<>();
+    overhead.put("total_ms", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+    overhead.put("max_ms", TimeUnit.NANOSECONDS.toMillis(maxNanos));
+    overhead.put("skipped_samples", skipped);
+    next.put("overhead", overhead);
+
+    next.put("locks", locks.top());
+    next.put("frames", frames.top());
+    summary = next;
+  }
+
+  @Override
+  public Map<String, Object> getSummary() {
+    return summary;
+  }
+
+  @Override
+  public String getVersion() {
+    return "1.0.0";
+  }
+}
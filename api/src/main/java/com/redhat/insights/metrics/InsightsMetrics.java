@@ -0,0 +1,229 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.metrics;
+
+import com.redhat.insights.InsightsErrorCode;
+import com.redhat.insights.jars.JarEventQueue;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Process-wide counters of the client's own work, to keep an eye on its overhead.
+ *
+ * <p>Counters are {@link LongAdder}s, so that recording from concurrent threads does not contend.
+ * The metrics are exposed over JMX once {@link #registerMBean()} has been called, which the {@link
+ * com.redhat.insights.InsightsReportController} does.
+ */
+@NullMarked
+public final class InsightsMetrics implements InsightsMetricsMXBean {
+
+  public static final String OBJECT_NAME = "com.redhat.insights:type=Metrics";
+
+  private static final InsightsMetrics INSTANCE = new InsightsMetrics();
+
+  private final LongAdder jarsAnalyzed = new LongAdder();
+  private final LongAdder bytesHashed = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder retriesDenied = new LongAdder();
+  private final LatencyHistogram uploadLatency = new LatencyHistogram();
+  // Indexed by error code ordinal
+  private final LongAdder[] failures = new LongAdder[InsightsErrorCode.values().length];
+  private final Map<String, AtomicLong> sectionBytes = new ConcurrentHashMap<>();
+  private final List<Collection<?>> jarQueues = new CopyOnWriteArrayList<>();
+  private final AtomicBoolean registered = new AtomicBoolean();
+
+  InsightsMetrics() {
+    for (int i = 0; i < failures.length; i++) {
+      failures[i] = new LongAdder();
+    }
+  }
+
+  public static InsightsMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Registers these metrics with the platform MBean server, unless already done.
+   *
+   * @return {@code false} if the registration failed
+   */
+  public boolean registerMBean() {
+    if (registered.getAndSet(true)) {
+      return true;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+      return true;
+    } catch (JMException | SecurityException e) {
+      registered.set(false);
+      return false;
+    }
+  }
+
+  public void jarAnalyzed(long hashedBytes) {
+    jarsAnalyzed.increment();
+    bytesHashed.add(hashedBytes);
+  }
+
+  public void cacheHit() {
+    cacheHits.increment();
+  }
+
+  public void cacheMiss() {
+    cacheMisses.increment();
+  }
+
+  public void retry() {
+    retries.increment();
+  }
+
+  public void retryDenied() {
+    retriesDenied.increment();
+  }
+
+  public void uploaded(long latencyMillis) {
+    uploadLatency.record(latencyMillis);
+  }
+
+  public void failed(InsightsErrorCode code) {
+    failures[code.ordinal()].increment();
+  }
+
+  /**
+   * @param section the section name
+   * @param bytes its serialized size
+   */
+  public void sectionSerialized(String section, long bytes) {
+    sectionBytes.computeIfAbsent(section, k -> new AtomicLong()).set(bytes);
+  }
+
+  /**
+   * Includes a queue of jars waiting to be sent in {@link #getJarQueueDepth()}.
+   *
+   * @param queue the queue, which is not copied
+   */
+  public void addJarQueue(Collection<?> queue) {
+    jarQueues.add(queue);
+  }
+
+  public void removeJarQueue(Collection<?> queue) {
+    jarQueues.remove(queue);
+  }
+
+  @Override
+  public long getJarsAnalyzed() {
+    return jarsAnalyzed.sum();
+  }
+
+  @Override
+  public long getBytesHashed() {
+    return bytesHashed.sum();
+  }
+
+  @Override
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  @Override
+  public long getCacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  @Override
+  public int getJarQueueDepth() {
+    int depth = 0;
+    for (Collection<?> queue : jarQueues) {
+      depth += queue.size();
+    }
+    return depth;
+  }
+
+  @Override
+  public long getJarQueueCoalesced() {
+    long count = 0;
+    for (Collection<?> queue : jarQueues) {
+      if (queue instanceof JarEventQueue) {
+        count += ((JarEventQueue) queue).getCoalesced();
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public long getJarQueueDropped() {
+    long count = 0;
+    for (Collection<?> queue : jarQueues) {
+      if (queue instanceof JarEventQueue) {
+        count += ((JarEventQueue) queue).getDropped();
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public Map<String, Long> getReportSectionBytes() {
+    Map<String, Long> out = new TreeMap<>();
+    sectionBytes.forEach((section, bytes) -> out.put(section, bytes.get()));
+    return out;
+  }
+
+  @Override
+  public long getUploads() {
+    return uploadLatency.getCount();
+  }
+
+  @Override
+  public long getUploadLatencySumMillis() {
+    return uploadLatency.getSumMillis();
+  }
+
+  @Override
+  public long getUploadLatencyP50Millis() {
+    return uploadLatency.getPercentileMillis(50);
+  }
+
+  @Override
+  public long getUploadLatencyP99Millis() {
+    return uploadLatency.getPercentileMillis(99);
+  }
+
+  @Override
+  public Map<String, Long> getUploadLatencyBuckets() {
+    return uploadLatency.getBuckets();
+  }
+
+  @Override
+  public long getRetries() {
+    return retries.sum();
+  }
+
+  @Override
+  public long getRetriesDenied() {
+    return retriesDenied.sum();
+  }
+
+  @Override
+  public Map<String, Long> getFailures() {
+    Map<String, Long> out = new TreeMap<>();
+    for (InsightsErrorCode code : InsightsErrorCode.values()) {
+      long sum = failures[code.ordinal()].sum();
+      if (sum > 0) {
+        out.put(code.name(), sum);
+      }
+    }
+    return out;
+  }
+}
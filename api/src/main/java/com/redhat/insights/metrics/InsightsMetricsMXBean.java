@@ -0,0 +1,62 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.metrics;
+
+import java.util.Map;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Management interface of {@link InsightsMetrics}, registered as {@value
+ * InsightsMetrics#OBJECT_NAME}.
+ */
+@NullMarked
+public interface InsightsMetricsMXBean {
+
+  long getJarsAnalyzed();
+
+  long getBytesHashed();
+
+  long getCacheHits();
+
+  long getCacheMisses();
+
+  int getJarQueueDepth();
+
+  /**
+   * @return the number of jars coalesced into an identical waiting one, in {@link
+   *     com.redhat.insights.jars.JarEventQueue}s
+   */
+  long getJarQueueCoalesced();
+
+  /**
+   * @return the number of jars dropped by full {@link com.redhat.insights.jars.JarEventQueue}s
+   */
+  long getJarQueueDropped();
+
+  /**
+   * @return the size in bytes of each report section, as last serialized
+   */
+  Map<String, Long> getReportSectionBytes();
+
+  long getUploads();
+
+  long getUploadLatencySumMillis();
+
+  long getUploadLatencyP50Millis();
+
+  long getUploadLatencyP99Millis();
+
+  Map<String, Long> getUploadLatencyBuckets();
+
+  long getRetries();
+
+  /**
+   * @return the number of retries skipped because the shared retry budget was exhausted
+   */
+  long getRetriesDenied();
+
+  /**
+   * @return the number of failures of each {@link com.redhat.insights.InsightsErrorCode} that
+   *     occurred at least once
+   */
+  Map<String, Long> getFailures();
+}
@@ -0,0 +1,104 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A latency histogram with fixed millisecond buckets, safe for concurrent recording.
+ *
+ * <p>Recording is allocation-free: it increments a {@link LongAdder} per bucket. Percentiles are
+ * approximated by the upper bound of the bucket they fall in.
+ */
+@NullMarked
+public final class LatencyHistogram {
+
+  static final long[] BOUNDS_MILLIS = {
+    1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 30_000, 60_000
+  };
+
+  // The last bucket counts the values above the largest bound
+  private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+  private final LongAdder sumMillis = new LongAdder();
+
+  public LatencyHistogram() {
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * @param millis the latency to record, in milliseconds
+   */
+  public void record(long millis) {
+    int i = 0;
+    while (i < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[i]) {
+      i++;
+    }
+    buckets[i].increment();
+    sumMillis.add(millis);
+  }
+
+  public long getCount() {
+    long count = 0;
+    for (LongAdder bucket : buckets) {
+      count += bucket.sum();
+    }
+    return count;
+  }
+
+  public long getSumMillis() {
+    return sumMillis.sum();
+  }
+
+  /**
+   * Approximates a percentile of the recorded latencies.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the upper bound of the bucket holding the percentile, {@link Long#MAX_VALUE} when above
+   *     the largest bound, or 0 when nothing was recorded
+   */
+  public long getPercentileMillis(double percentile) {
+    long[] counts = snapshot();
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    if (total == 0) {
+      return 0L;
+    }
+    long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return BOUNDS_MILLIS[i];
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  /**
+   * @return the count of each bucket, keyed by its upper bound such as {@code le_100ms}, in
+   *     increasing order
+   */
+  public Map<String, Long> getBuckets() {
+    long[] counts = snapshot();
+    Map<String, Long> out = new LinkedHashMap<>();
+    for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+      out.put("le_" + BOUNDS_MILLIS[i] + "ms", counts[i]);
+    }
+    out.put("gt_" + BOUNDS_MILLIS[BOUNDS_MILLIS.length - 1] + "ms", counts[BOUNDS_MILLIS.length]);
+    return out;
+  }
+
+  private long[] snapshot() {
+    long[] counts = new long[buckets.length];
+    for (int i = 0; i < buckets.length; i++) {
+      counts[i] = buckets[i].sum();
+    }
+    return counts;
+  }
+}
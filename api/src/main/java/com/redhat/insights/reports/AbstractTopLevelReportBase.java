@@ -1,15 +1,20 @@
-/* Copyright (C) Red Hat 2022-2024 */
+/* Copyright (C) Red Hat 2022-2026 */
 package com.redhat.insights.reports;
 
+import static com.redhat.insights.reports.SectionVolatility.ALWAYS_FRESH;
+import static com.redhat.insights.reports.SectionVolatility.STATIC_FOR_PROCESS;
+
 import com.fasterxml.jackson.databind.JsonSerializer;
+import com.redhat.insights.CpuBudget;
 import com.redhat.insights.Filtering;
 import com.redhat.insights.config.InsightsConfiguration;
 import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.telemetry.InsightsEvents;
+import com.redhat.insights.telemetry.SubreportEvent;
 import java.io.IOException;
 import java.lang.management.*;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -85,6 +90,10 @@ public abstract class AbstractTopLevelReportBase implements InsightsReport {
   private final JsonSerializer<InsightsReport> serializer;
   private final InsightsLogger logger;
   private final InsightsConfiguration config;
+  private final ReportSectionCache sectionCache = new ReportSectionCache();
+  private final HostnameProvider hostnameProvider;
+  // Compiled from the configuration on the first redacted report
+  private @Nullable Function<Map<String, Object>, Map<String, Object>> redaction;
   private byte @Nullable [] subReport;
 
   // Can't be set properly until after report has been generated
@@ -98,6 +107,7 @@ public abstract class AbstractTopLevelReportBase implements InsightsReport {
     this.logger = logger;
     this.subReports = subReports;
     this.serializer = new InsightsReportSerializer();
+    this.hostnameProvider = new HostnameProvider(logger, config);
   }
 
   @Override
@@ -133,8 +143,86 @@ public abstract class AbstractTopLevelReportBase implements InsightsReport {
 
     ///////////////// Core Java Properties Details
 
+    options.putAll(
+        sectionCache.get("properties", STATIC_FOR_PROCESS, this::collectSystemProperties));
+
+    ///////////////// App and System Details
+
+    // This is the top-level name - implementors that may have to care about multi-tenancy
+    // should handle that in product-specific code.
+    final String name = getIdentificationName();
+    options.put("app.name", name);
+
+    options.putAll(sectionCache.get("system", STATIC_FOR_PROCESS, this::collectSystemDetails));
+    // Cached by the provider, which may replace a fallback name once DNS answers
+    options.put("system.hostname", hostnameProvider.getHostname());
+
+    ///////////////// JVM Details
+
+    options.put("jvm.report_time", System.currentTimeMillis());
+
+    List<String> inputArguments =
+        sectionCache.get(
+            "jvm.input_arguments",
+            STATIC_FOR_PROCESS,
+            () -> fixInputArguments(ManagementFactory.getRuntimeMXBean().getInputArguments()));
+    options.putAll(
+        sectionCache.get("jvm", STATIC_FOR_PROCESS, () -> collectJvmDetails(inputArguments)));
+    options.putAll(
+        sectionCache.get("jvm.heap", ALWAYS_FRESH, () -> collectHeapDetails(inputArguments)));
+
+    // New packages get defined as classes are loaded, so the package count is a cheap way to
+    // notice class loader changes
+    Package[] packages = getPackages();
+    options.put(
+        "jvm.packages",
+        sectionCache.get(
+            "jvm.packages",
+            STATIC_FOR_PROCESS,
+            packages.length,
+            () -> new PackageInventory(packages)));
+
+    for (Map.Entry<String, InsightsSubreport> entry : subReports.entrySet()) {
+      InsightsSubreport subReport = entry.getValue();
+      sectionCache.get(
+          "subreport." + entry.getKey(),
+          subReport.getVolatility(),
+          () -> {
+            long cpuStart = CpuBudget.threadCpuNanos();
+            SubreportEvent event = InsightsEvents.subreport();
+            event.begin();
+            subReport.generateReport();
+            if (event.shouldCommit()) {
+              event.setName(entry.getKey());
+              event.commit();
+            }
+            CpuBudget.getInstance().charge(cpuStart);
+            return Boolean.TRUE;
+          });
+    }
+
+    // Proves the client overhead, so never cached
+    options.putAll(CpuBudget.getInstance().getUsage());
+
+    // Final step - apply filtering
+    options = filterFor(masking).apply(options);
+  }
+
+  private Function<Map<String, Object>, Map<String, Object>> filterFor(Filtering masking) {
+    if (masking != Filtering.REDACT) {
+      return masking;
+    }
+    Function<Map<String, Object>, Map<String, Object>> filter = redaction;
+    if (filter == null) {
+      filter = masking.withConfiguration(config);
+      redaction = filter;
+    }
+    return filter;
+  }
+
+  private Map<String, Object> collectSystemProperties() {
     Properties properties = System.getProperties();
-    Map<String, String> stringProperties = new HashMap<>();
+    Map<String, Object> stringProperties = new HashMap<>();
     properties.forEach(
         (k, v) -> {
           String key = k.toString();
@@ -146,41 +234,34 @@ public abstract class AbstractTopLevelReportBase implements InsightsReport {
             }
           }
         });
-    options.putAll(stringProperties);
-
-    ///////////////// App and System Details
-
-    // This is the top-level name - implementors that may have to care about multi-tenancy
-    // should handle that in product-specific code.
-    final String name = getIdentificationName();
-    options.put("app.name", name);
-
-    String defaultHost = "localhost";
-    try {
-      InetAddress host = InetAddress.getLocalHost();
-      if (host != null) {
-        defaultHost = host.getHostName();
-      }
-    } catch (UnknownHostException e) {
-      logger.error("Unknown Host in lookup, continuing with localhost", e);
-    }
-    options.put("system.hostname", defaultHost);
+    return stringProperties;
+  }
 
+  private Map<String, Object> collectSystemDetails() {
+    Map<String, Object> details = new HashMap<>();
     OperatingSystemMXBean systemMXBean = ManagementFactory.getOperatingSystemMXBean();
-    options.put("system.cores.logical", systemMXBean.getAvailableProcessors());
-    options.put("system.arch", systemMXBean.getArch());
-    options.put("system.os.version", systemMXBean.getVersion());
-    options.put("system.os.name", systemMXBean.getName());
-
-    ///////////////// JVM Details
+    details.put("system.cores.logical", systemMXBean.getAvailableProcessors());
+    details.put("system.arch", systemMXBean.getArch());
+    details.put("system.os.version", systemMXBean.getVersion());
+    details.put("system.os.name", systemMXBean.getName());
+    return details;
+  }
 
-    options.put("jvm.report_time", System.currentTimeMillis());
-    options.put("jvm.pid", getProcessPID());
+  private Map<String, Object> collectJvmDetails(List<String> inputArguments) {
+    Map<String, Object> details = new HashMap<>();
+    details.put("jvm.pid", getProcessPID());
+    details.put("jvm.args", String.join(" ", inputArguments));
 
-    RuntimeMXBean runtimeMXBean = ManagementFactory.getRuntimeMXBean();
-    List<String> inputArguments = fixInputArguments(runtimeMXBean.getInputArguments());
-    options.put("jvm.args", String.join(" ", inputArguments));
+    List<GarbageCollectorMXBean> gcMxBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    StringBuilder gcDetails = new StringBuilder("gc");
+    for (GarbageCollectorMXBean gcMxBean : gcMxBeans) {
+      gcDetails.append("::").append(gcMxBean.getName()); // gcMxBean.getObjectName()
+    }
+    details.put("jvm.heap.gc.details", gcDetails.toString());
+    return details;
+  }
 
+  private Map<String, Object> collectHeapDetails(List<String> inputArguments) {
     MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
     MemoryUsage heapMemoryUsage = memoryMXBean.getHeapMemoryUsage();
     long heapMin = heapMemoryUsage.getInit();
@@ -195,27 +276,23 @@ public abstract class AbstractTopLevelReportBase implements InsightsReport {
       }
     }
 
-    options.put("jvm.heap.min", heapMin / BYTES_PER_MB);
-    options.put("jvm.heap.max", heapMax / BYTES_PER_MB);
-
-    List<GarbageCollectorMXBean> gcMxBeans = ManagementFactory.getGarbageCollectorMXBeans();
-    StringBuilder gcDetails = new StringBuilder("gc");
-    for (GarbageCollectorMXBean gcMxBean : gcMxBeans) {
-      gcDetails.append("::").append(gcMxBean.getName()); // gcMxBean.getObjectName()
-    }
-    options.put("jvm.heap.gc.details", gcDetails.toString());
-
-    Package[] packages = getPackages();
-    // This is Object[], not String[] b/c toArray() is not a generic method
-    Object[] out = Arrays.stream(packages).map(Package::toString).toArray();
-    options.put("jvm.packages", Arrays.toString(out));
+    Map<String, Object> details = new HashMap<>();
+    details.put("jvm.heap.min", heapMin / BYTES_PER_MB);
+    details.put("jvm.heap.max", heapMax / BYTES_PER_MB);
+    return details;
+  }
 
-    for (InsightsSubreport subReport : subReports.values()) {
-      subReport.generateReport();
-    }
+  /**
+   * Invalidates all cached report sections, so that they get recomputed on the next report
+   * generation. Products should call this when they know that otherwise static data has changed,
+   * e.g. on class loader changes.
+   */
+  public void invalidateCachedSections() {
+    sectionCache.invalidateAll();
+  }
 
-    // Final step - apply filtering
-    options = masking.apply(options);
+  protected ReportSectionCache getSectionCache() {
+    return sectionCache;
   }
 
   protected abstract long getProcessPID();
@@ -233,6 +310,7 @@ public abstract class AbstractTopLevelReportBase implements InsightsReport {
   @Override
   public void close() throws IOException {
     subReport = null;
+    sectionCache.endCycle();
   }
 
   /**
@@ -284,6 +362,6 @@ public abstract class AbstractTopLevelReportBase implements InsightsReport {
 
   @Override
   public String getVersion() {
-    return "1.0.1";
+    return "1.1.0";
   }
 }
@@ -0,0 +1,171 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.reports;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.logging.InsightsLogger;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Resolves the local hostname without blocking report generation on slow DNS.
+ *
+ * <p>The lookup runs on a background daemon thread of this provider. The first call waits for it up
+ * to {@link InsightsConfiguration#getHostnameResolutionTimeout()}, then falls back to {@code
+ * /etc/hostname} or {@code /proc/sys/kernel/hostname}. The result is cached for the process
+ * lifetime, and is refreshed in the background once older than {@link
+ * InsightsConfiguration#getHostnameRefreshPeriod()}: a lookup that completes late replaces the
+ * fallback name.
+ */
+public final class HostnameProvider {
+
+  static final String DEFAULT_HOSTNAME = "localhost";
+
+  private static final List<Path> FALLBACK_FILES =
+      Arrays.asList(Paths.get("/etc/hostname"), Paths.get("/proc/sys/kernel/hostname"));
+
+  private final InsightsLogger logger;
+  private final Callable<String> lookup;
+  private final List<Path> fallbackFiles;
+  private final Duration timeout;
+  private final Duration refreshPeriod;
+  // Owned by this provider, so that a hung lookup never delays the other reports of the JVM. A
+  // single thread is enough: a hung lookup is never submitted twice, and the idle thread exits
+  private final ThreadPoolExecutor resolver = createResolver();
+
+  private final AtomicReference<@Nullable String> hostname = new AtomicReference<>();
+  private volatile long resolvedAt;
+  private @Nullable Future<String> pending;
+
+  public HostnameProvider(InsightsLogger logger, InsightsConfiguration configuration) {
+    this(
+        logger,
+        () -> InetAddress.getLocalHost().getHostName(),
+        FALLBACK_FILES,
+        configuration.getHostnameResolutionTimeout(),
+        configuration.getHostnameRefreshPeriod());
+  }
+
+  HostnameProvider(
+      InsightsLogger logger,
+      Callable<String> lookup,
+      List<Path> fallbackFiles,
+      Duration timeout,
+      Duration refreshPeriod) {
+    this.logger = logger;
+    this.lookup = lookup;
+    this.fallbackFiles = fallbackFiles;
+    this.timeout = timeout;
+    this.refreshPeriod = refreshPeriod;
+  }
+
+  private static ThreadPoolExecutor createResolver() {
+    ThreadPoolExecutor pool =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            10L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+              Thread thread = new Thread(r, "insights-hostname");
+              thread.setDaemon(true);
+              return thread;
+            });
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * Returns the cached hostname, only waiting for a lookup on the first call.
+   *
+   * @return the hostname, or {@code localhost} when it cannot be determined
+   */
+  public String getHostname() {
+    String cached = hostname.get();
+    if (cached == null) {
+      return resolve();
+    }
+    if (System.nanoTime() - resolvedAt >= refreshPeriod.toNanos()) {
+      refresh();
+    }
+    return cached;
+  }
+
+  private synchronized String resolve() {
+    String cached = hostname.get();
+    if (cached != null) {
+      return cached;
+    }
+    Future<String> lookupResult = refresh();
+    try {
+      return lookupResult.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      logger.warning(
+          "Hostname lookup did not complete within " + timeout + ", continuing with fallback");
+    } catch (ExecutionException e) {
+      logger.error("Unknown Host in lookup, continuing with fallback", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    String fallback = readFallback();
+    resolvedAt = System.nanoTime();
+    // The lookup may have completed in the meantime
+    if (!hostname.compareAndSet(null, fallback)) {
+      String resolved = hostname.get();
+      return resolved != null ? resolved : fallback;
+    }
+    return fallback;
+  }
+
+  private synchronized Future<String> refresh() {
+    Future<String> inFlight = pending;
+    if (inFlight != null && !inFlight.isDone()) {
+      return inFlight;
+    }
+    Future<String> lookupResult =
+        resolver.submit(
+            () -> {
+              String name = lookup.call();
+              hostname.set(name);
+              resolvedAt = System.nanoTime();
+              return name;
+            });
+    pending = lookupResult;
+    return lookupResult;
+  }
+
+  private String readFallback() {
+    for (Path file : fallbackFiles) {
+      if (!Files.isReadable(file)) {
+        continue;
+      }
+      try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        String line = reader.readLine();
+        if (line != null && !line.trim().isEmpty()) {
+          return line.trim();
+        }
+      } catch (IOException e) {
+        logger.debug("Could not read hostname from " + file + ": " + e.getMessage());
+      }
+    }
+    return DEFAULT_HOSTNAME;
+  }
+}
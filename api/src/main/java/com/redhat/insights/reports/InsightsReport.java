@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2022-2023 */
+/* Copyright (C) Red Hat 2022-2026 */
 package com.redhat.insights.reports;
 
 import static com.redhat.insights.InsightsErrorCode.ERROR_SERIALIZING_TO_JSON;
@@ -6,11 +6,14 @@ import static com.redhat.insights.InsightsErrorCode.ERROR_SERIALIZING_TO_JSON;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.insights.CpuBudget;
 import com.redhat.insights.Filtering;
 import com.redhat.insights.InsightsException;
+import com.redhat.insights.metrics.InsightsMetrics;
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 /**
@@ -51,10 +54,33 @@ public interface InsightsReport extends Closeable {
   default byte[] serializeRaw() {
     ObjectMapper mapper = ObjectMappers.createFor(this);
 
+    long cpuStart = CpuBudget.threadCpuNanos();
     try {
-      return mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(this);
+      byte[] json = mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(this);
+      InsightsMetrics.getInstance().sectionSerialized("report", json.length);
+      return json;
     } catch (IOException e) {
       throw new InsightsException(ERROR_SERIALIZING_TO_JSON, "JSON serialization exception", e);
+    } finally {
+      CpuBudget.getInstance().charge(cpuStart);
+    }
+  }
+
+  /**
+   * Streams this report as compact JSON to the given stream, which is left open. Subreports may
+   * still be pretty-printed.
+   *
+   * @param out the stream to write the UTF-8 encoded JSON to
+   * @throws IOException if writing to the stream fails
+   */
+  default void serializeTo(OutputStream out) throws IOException {
+    ObjectMapper mapper = ObjectMappers.createFor(this);
+    mapper.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    long cpuStart = CpuBudget.threadCpuNanos();
+    try {
+      mapper.writeValue(out, this);
+    } finally {
+      CpuBudget.getInstance().charge(cpuStart);
     }
   }
 
@@ -86,8 +112,13 @@ public interface InsightsReport extends Closeable {
     try (ByteArrayOutputStream out = new ByteArrayOutputStream();
         JsonGenerator generator = mapper.writerWithDefaultPrettyPrinter().createGenerator(out)) {
       generator.writeStartObject();
+      InsightsMetrics metrics = InsightsMetrics.getInstance();
       for (Map.Entry<String, InsightsSubreport> entry : getSubreports().entrySet()) {
+        generator.flush();
+        int start = out.size();
         generator.writeObjectField(entry.getKey(), entry.getValue());
+        generator.flush();
+        metrics.sectionSerialized(entry.getKey(), out.size() - start);
       }
       generator.writeEndObject();
       generator.flush();
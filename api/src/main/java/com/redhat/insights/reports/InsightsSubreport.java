@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2022-2023 */
+/* Copyright (C) Red Hat 2022-2026 */
 package com.redhat.insights.reports;
 
 import com.fasterxml.jackson.databind.JsonSerializer;
@@ -16,5 +16,15 @@ public interface InsightsSubreport {
 
   JsonSerializer<InsightsSubreport> getSerializer();
 
+  /**
+   * How long the data generated by {@link #generateReport()} stays valid. Subreports are
+   * regenerated once per report cycle by default.
+   *
+   * @return the subreport volatility
+   */
+  default SectionVolatility getVolatility() {
+    return SectionVolatility.REFRESH_PER_CYCLE;
+  }
+
   // add filtering
 }
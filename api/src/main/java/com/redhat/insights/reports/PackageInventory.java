@@ -0,0 +1,123 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.reports;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A compact inventory of the packages defined by a class loader, as reported in {@code
+ * jvm.packages}.
+ *
+ * <p>Package names are sorted and front-coded: each entry only carries the number of characters it
+ * shares with the previous name, followed by the remaining suffix. Specification and implementation
+ * versions are deduplicated into a table and referenced by index. An entry is therefore either
+ * {@code <shared>:<suffix>} or {@code <shared>:<suffix>:<spec>:<impl>}, where a version index of
+ * {@code 0} means that no version is defined.
+ */
+public final class PackageInventory {
+
+  public static final String ENCODING = "front-coded";
+
+  private static final char SEPARATOR = ':';
+
+  private final List<String> versions;
+  private final List<String> packages;
+
+  public PackageInventory(Package[] definedPackages) {
+    Package[] sorted = definedPackages.clone();
+    Arrays.sort(sorted, Comparator.comparing(Package::getName));
+
+    Map<String, Integer> versionIndexes = new HashMap<>();
+    List<String> versionTable = new ArrayList<>();
+    versionTable.add("");
+    versionIndexes.put("", 0);
+
+    List<String> entries = new ArrayList<>(sorted.length);
+    StringBuilder entry = new StringBuilder();
+    String previous = "";
+    for (Package pkg : sorted) {
+      String name = pkg.getName();
+      int shared = sharedPrefixLength(previous, name);
+      entry.setLength(0);
+      entry.append(shared).append(SEPARATOR).append(name, shared, name.length());
+      int spec = versionIndex(pkg.getSpecificationVersion(), versionIndexes, versionTable);
+      int impl = versionIndex(pkg.getImplementationVersion(), versionIndexes, versionTable);
+      if (spec != 0 || impl != 0) {
+        entry.append(SEPARATOR).append(spec).append(SEPARATOR).append(impl);
+      }
+      entries.add(entry.toString());
+      previous = name;
+    }
+    this.versions = Collections.unmodifiableList(versionTable);
+    this.packages = Collections.unmodifiableList(entries);
+  }
+
+  private static int sharedPrefixLength(String previous, String name) {
+    int max = Math.min(previous.length(), name.length());
+    int i = 0;
+    while (i < max && previous.charAt(i) == name.charAt(i)) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int versionIndex(
+      @Nullable String version, Map<String, Integer> indexes, List<String> table) {
+    if (version == null || version.isEmpty()) {
+      return 0;
+    }
+    Integer index = indexes.get(version);
+    if (index == null) {
+      index = table.size();
+      table.add(version);
+      indexes.put(version, index);
+    }
+    return index;
+  }
+
+  public String getEncoding() {
+    return ENCODING;
+  }
+
+  public List<String> getVersions() {
+    return versions;
+  }
+
+  public List<String> getPackages() {
+    return packages;
+  }
+
+  /**
+   * Expands the front-coded entries back to full package names.
+   *
+   * @param entries the front-coded entries, as returned by {@link #getPackages()}
+   * @return the sorted package names
+   */
+  public static List<String> decodeNames(List<String> entries) {
+    List<String> names = new ArrayList<>(entries.size());
+    String previous = "";
+    for (String entry : entries) {
+      int prefixEnd = entry.indexOf(SEPARATOR);
+      int suffixEnd = entry.indexOf(SEPARATOR, prefixEnd + 1);
+      if (suffixEnd < 0) {
+        suffixEnd = entry.length();
+      }
+      int shared = Integer.parseInt(entry.substring(0, prefixEnd));
+      String name = previous.substring(0, shared) + entry.substring(prefixEnd + 1, suffixEnd);
+      names.add(name);
+      previous = name;
+    }
+    return names;
+  }
+
+  @Override
+  public String toString() {
+    return "PackageInventory{" + "versions=" + versions + ", packages=" + packages + '}';
+  }
+}
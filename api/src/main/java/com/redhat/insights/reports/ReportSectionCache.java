@@ -0,0 +1,102 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.reports;
+
+import com.redhat.insights.metrics.InsightsMetrics;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A cache of report sections keyed by name, where each section declares its {@link
+ * SectionVolatility}.
+ *
+ * <p>A section can also carry a validity key (e.g. the number of defined packages): a cached value
+ * is only reused when its key is equal to the current one, which lets callers invalidate sections
+ * on events such as class loader changes without having to track them explicitly.
+ */
+public final class ReportSectionCache {
+
+  private static final Object NO_KEY = new Object();
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the cached value of a section, computing it if needed.
+   *
+   * @param section the section name
+   * @param volatility the section volatility
+   * @param supplier computes the section value
+   * @return the section value
+   */
+  public <T> T get(String section, SectionVolatility volatility, Supplier<T> supplier) {
+    return get(section, volatility, NO_KEY, supplier);
+  }
+
+  /**
+   * Returns the cached value of a section, computing it if needed or if the validity key changed.
+   *
+   * @param section the section name
+   * @param volatility the section volatility
+   * @param validityKey the current validity key of the section
+   * @param supplier computes the section value
+   * @return the section value
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(
+      String section, SectionVolatility volatility, Object validityKey, Supplier<T> supplier) {
+    if (volatility == SectionVolatility.ALWAYS_FRESH) {
+      return supplier.get();
+    }
+    Entry entry = entries.get(section);
+    if (entry != null && Objects.equals(entry.validityKey, validityKey)) {
+      InsightsMetrics.getInstance().cacheHit();
+      return (T) entry.value;
+    }
+    InsightsMetrics.getInstance().cacheMiss();
+    T value = supplier.get();
+    entries.put(section, new Entry(volatility, validityKey, value));
+    return value;
+  }
+
+  /**
+   * Checks whether a section currently holds a cached value.
+   *
+   * @param section the section name
+   * @return {@code true} when the section is cached
+   */
+  public boolean isCached(String section) {
+    return entries.containsKey(section);
+  }
+
+  /** Ends the current report cycle: all {@link SectionVolatility#REFRESH_PER_CYCLE} are dropped. */
+  public void endCycle() {
+    entries.values().removeIf(e -> e.volatility == SectionVolatility.REFRESH_PER_CYCLE);
+  }
+
+  /**
+   * Invalidates a single section, regardless of its volatility.
+   *
+   * @param section the section name
+   */
+  public void invalidate(String section) {
+    entries.remove(section);
+  }
+
+  /** Invalidates all sections, regardless of their volatility. */
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  private static final class Entry {
+    private final SectionVolatility volatility;
+    private final Object validityKey;
+    private final Object value;
+
+    private Entry(SectionVolatility volatility, Object validityKey, Object value) {
+      this.volatility = volatility;
+      this.validityKey = validityKey;
+      this.value = value;
+    }
+  }
+}
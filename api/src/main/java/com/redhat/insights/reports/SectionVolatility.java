@@ -0,0 +1,22 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.reports;
+
+/**
+ * How long a section of a report stays valid once it has been computed.
+ *
+ * @see ReportSectionCache
+ */
+public enum SectionVolatility {
+  /** Computed once and reused for the lifetime of the process, unless explicitly invalidated. */
+  STATIC_FOR_PROCESS,
+
+  /**
+   * Computed once per report cycle, i.e. reused until the report is closed after being sent.
+   *
+   * @see InsightsReport#close()
+   */
+  REFRESH_PER_CYCLE,
+
+  /** Recomputed every time the report is generated. */
+  ALWAYS_FRESH
+}
@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.reports;
 
 import com.fasterxml.jackson.databind.JsonSerializer;
@@ -9,6 +9,7 @@ import com.redhat.insights.logging.InsightsLogger;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +23,7 @@ public class UpdateReportImpl implements InsightsReport {
   private final InsightsLogger logger;
   private Optional<JarInfoSubreport> subreport = Optional.empty();
   private final InsightsReportSerializer serializer;
+  private Map<String, Object> batch = Collections.emptyMap();
 
   public UpdateReportImpl(BlockingQueue<JarInfo> updatedJars, InsightsLogger logger) {
     this.updatedJars = updatedJars;
@@ -54,9 +56,25 @@ public class UpdateReportImpl implements InsightsReport {
     }
   }
 
+  /**
+   * Marks this report as one part of a batch of correlated uploads, used when the pending jars do
+   * not fit in a single upload.
+   *
+   * @param batchId the identifier shared by all the parts of the batch
+   * @param part the 1-based index of this part
+   * @param last whether this is the last part of the batch
+   */
+  public void setBatch(String batchId, int part, boolean last) {
+    Map<String, Object> tmp = new HashMap<>();
+    tmp.put("update.batch.id", batchId);
+    tmp.put("update.batch.part", part);
+    tmp.put("update.batch.last", last);
+    this.batch = Collections.unmodifiableMap(tmp);
+  }
+
   @Override
   public Map<String, Object> getBasic() {
-    return Collections.emptyMap();
+    return batch;
   }
 
   @Override
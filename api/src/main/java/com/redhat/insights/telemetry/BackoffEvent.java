@@ -0,0 +1,19 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import org.jspecify.annotations.NullMarked;
+
+/** A wait between two HTTP upload attempts. */
+@NullMarked
+public interface BackoffEvent extends InsightsEvent {
+
+  /**
+   * @param retry the number of attempts so far
+   */
+  void setRetry(int retry);
+
+  /**
+   * @param delayMillis the planned wait, in milliseconds
+   */
+  void setDelayMillis(long delayMillis);
+}
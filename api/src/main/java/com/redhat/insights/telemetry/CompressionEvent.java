@@ -0,0 +1,19 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import org.jspecify.annotations.NullMarked;
+
+/** Compression of a serialized report. */
+@NullMarked
+public interface CompressionEvent extends InsightsEvent {
+
+  /**
+   * @param inputBytes the uncompressed size
+   */
+  void setInputBytes(long inputBytes);
+
+  /**
+   * @param outputBytes the compressed size
+   */
+  void setOutputBytes(long outputBytes);
+}
@@ -0,0 +1,24 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import org.jspecify.annotations.NullMarked;
+
+/** A single HTTP upload attempt, its duration being the request latency. */
+@NullMarked
+public interface HttpAttemptEvent extends InsightsEvent {
+
+  /**
+   * @param reportName the uploaded file name
+   */
+  void setReportName(String reportName);
+
+  /**
+   * @param status the HTTP status code, 0 when no response was received
+   */
+  void setStatus(int status);
+
+  /**
+   * @param retry the number of previous attempts for the same upload
+   */
+  void setRetry(int retry);
+}
@@ -0,0 +1,14 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import org.jspecify.annotations.NullMarked;
+
+/** Computation of the report identifying hash, which serializes and compresses the report. */
+@NullMarked
+public interface IdHashEvent extends InsightsEvent {
+
+  /**
+   * @param bytes the size of the compressed report that is hashed
+   */
+  void setBytes(long bytes);
+}
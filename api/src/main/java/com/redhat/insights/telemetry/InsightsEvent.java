@@ -0,0 +1,34 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A timed event of the client's work, modelled after {@code jdk.jfr.Event} so that flight recorder
+ * events can implement it directly.
+ *
+ * <p>Events are obtained from {@link InsightsEvents}. Typical use is:
+ *
+ * <pre>{@code
+ * JarAnalysisEvent event = InsightsEvents.jarAnalysis();
+ * event.begin();
+ * // ... do the work ...
+ * if (event.shouldCommit()) {
+ *   event.setPath(path);
+ *   event.commit();
+ * }
+ * }</pre>
+ */
+@NullMarked
+public interface InsightsEvent {
+
+  void begin();
+
+  void end();
+
+  void commit();
+
+  boolean isEnabled();
+
+  boolean shouldCommit();
+}
@@ -0,0 +1,26 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Creates {@link InsightsEvent} instances. Implementations are discovered with {@link
+ * java.util.ServiceLoader}, see {@link InsightsEvents}.
+ */
+@NullMarked
+public interface InsightsEventFactory {
+
+  JarAnalysisEvent jarAnalysis();
+
+  SubreportEvent subreport();
+
+  SerializationEvent serialization();
+
+  CompressionEvent compression();
+
+  IdHashEvent idHash();
+
+  HttpAttemptEvent httpAttempt();
+
+  BackoffEvent backoff();
+}
@@ -0,0 +1,78 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Entry point for the client's telemetry events.
+ *
+ * <p>The first {@link InsightsEventFactory} found by {@link ServiceLoader} is used, such as the
+ * flight recorder one of the core runtime module. Without one, events are no-ops that are never
+ * enabled.
+ */
+@NullMarked
+public final class InsightsEvents {
+
+  private static volatile InsightsEventFactory factory = loadFactory();
+
+  private InsightsEvents() {}
+
+  private static InsightsEventFactory loadFactory() {
+    try {
+      Iterator<InsightsEventFactory> factories =
+          ServiceLoader.load(InsightsEventFactory.class, InsightsEvents.class.getClassLoader())
+              .iterator();
+      if (factories.hasNext()) {
+        return factories.next();
+      }
+    } catch (ServiceConfigurationError | LinkageError e) {
+      // For instance the flight recorder is not available in this JVM
+    }
+    return NoopEvent.FACTORY;
+  }
+
+  /**
+   * Replaces the discovered factory.
+   *
+   * @param eventFactory the factory to use from now on
+   */
+  public static void setFactory(InsightsEventFactory eventFactory) {
+    factory = eventFactory;
+  }
+
+  /** Restores the no-op factory. */
+  public static void disable() {
+    factory = NoopEvent.FACTORY;
+  }
+
+  public static JarAnalysisEvent jarAnalysis() {
+    return factory.jarAnalysis();
+  }
+
+  public static SubreportEvent subreport() {
+    return factory.subreport();
+  }
+
+  public static SerializationEvent serialization() {
+    return factory.serialization();
+  }
+
+  public static CompressionEvent compression() {
+    return factory.compression();
+  }
+
+  public static IdHashEvent idHash() {
+    return factory.idHash();
+  }
+
+  public static HttpAttemptEvent httpAttempt() {
+    return factory.httpAttempt();
+  }
+
+  public static BackoffEvent backoff() {
+    return factory.backoff();
+  }
+}
@@ -0,0 +1,24 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import org.jspecify.annotations.NullMarked;
+
+/** Analysis of a single jar: reading it, computing its digests and parsing its metadata. */
+@NullMarked
+public interface JarAnalysisEvent extends InsightsEvent {
+
+  /**
+   * @param path the jar location
+   */
+  void setPath(String path);
+
+  /**
+   * @param bytes the number of bytes digested
+   */
+  void setBytes(long bytes);
+
+  /**
+   * @param digestNanos the time spent computing digests, in nanoseconds
+   */
+  void setDigestNanos(long digestNanos);
+}
@@ -0,0 +1,107 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import org.jspecify.annotations.NullMarked;
+
+/** A stateless event that is never enabled, shared for all event types. */
+@NullMarked
+final class NoopEvent
+    implements JarAnalysisEvent,
+        SubreportEvent,
+        SerializationEvent,
+        CompressionEvent,
+        IdHashEvent,
+        HttpAttemptEvent,
+        BackoffEvent {
+
+  static final NoopEvent INSTANCE = new NoopEvent();
+
+  static final InsightsEventFactory FACTORY =
+      new InsightsEventFactory() {
+        @Override
+        public JarAnalysisEvent jarAnalysis() {
+          return INSTANCE;
+        }
+
+        @Override
+        public SubreportEvent subreport() {
+          return INSTANCE;
+        }
+
+        @Override
+        public SerializationEvent serialization() {
+          return INSTANCE;
+        }
+
+        @Override
+        public CompressionEvent compression() {
+          return INSTANCE;
+        }
+
+        @Override
+        public IdHashEvent idHash() {
+          return INSTANCE;
+        }
+
+        @Override
+        public HttpAttemptEvent httpAttempt() {
+          return INSTANCE;
+        }
+
+        @Override
+        public BackoffEvent backoff() {
+          return INSTANCE;
+        }
+      };
+
+  private NoopEvent() {}
+
+  @Override
+  public void begin() {}
+
+  @Override
+  public void end() {}
+
+  @Override
+  public void commit() {}
+
+  @Override
+  public boolean isEnabled() {
+    return false;
+  }
+
+  @Override
+  public boolean shouldCommit() {
+    return false;
+  }
+
+  @Override
+  public void setPath(String path) {}
+
+  @Override
+  public void setBytes(long bytes) {}
+
+  @Override
+  public void setDigestNanos(long digestNanos) {}
+
+  @Override
+  public void setName(String name) {}
+
+  @Override
+  public void setReportName(String reportName) {}
+
+  @Override
+  public void setInputBytes(long inputBytes) {}
+
+  @Override
+  public void setOutputBytes(long outputBytes) {}
+
+  @Override
+  public void setStatus(int status) {}
+
+  @Override
+  public void setRetry(int retry) {}
+
+  @Override
+  public void setDelayMillis(long delayMillis) {}
+}
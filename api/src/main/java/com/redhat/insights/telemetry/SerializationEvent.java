@@ -0,0 +1,19 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import org.jspecify.annotations.NullMarked;
+
+/** Serialization of a report to JSON. */
+@NullMarked
+public interface SerializationEvent extends InsightsEvent {
+
+  /**
+   * @param reportName the report name
+   */
+  void setReportName(String reportName);
+
+  /**
+   * @param bytes the size of the JSON document
+   */
+  void setBytes(long bytes);
+}
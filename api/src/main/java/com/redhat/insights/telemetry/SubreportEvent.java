@@ -0,0 +1,14 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.telemetry;
+
+import org.jspecify.annotations.NullMarked;
+
+/** Generation of a subreport. */
+@NullMarked
+public interface SubreportEvent extends InsightsEvent {
+
+  /**
+   * @param name the subreport name
+   */
+  void setName(String name);
+}
@@ -0,0 +1,153 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jspecify.annotations.NullUnmarked;
+import org.junit.jupiter.api.Test;
+
+@NullUnmarked
+public class CpuBudgetTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  /** A budget on a fake clock, where pausing advances the clock. */
+  private static final class FakeClockBudget extends CpuBudget {
+    private final AtomicLong now;
+    private long paused;
+
+    private FakeClockBudget(AtomicLong now, int processors) {
+      super(now::get, processors);
+      this.now = now;
+    }
+
+    // Consumes from a client task, which may pause
+    private void consumeInTask(long cpuNanos) {
+      throttling(() -> consume(cpuNanos)).run();
+    }
+
+    @Override
+    void pause(long nanos) {
+      paused += nanos;
+      now.addAndGet(nanos);
+    }
+  }
+
+  @Test
+  public void testNotEnforcedUntilConfigured() {
+    FakeClockBudget budget = new FakeClockBudget(new AtomicLong(), 1);
+    budget.consumeInTask(100 * SECOND);
+    assertEquals(0L, budget.paused);
+    assertEquals(100_000L, budget.getUsage().get("app.client.cpu.total_ms"));
+  }
+
+  @Test
+  public void testUnderBudgetDoesNotPause() {
+    FakeClockBudget budget = new FakeClockBudget(new AtomicLong(), 2);
+    // 10% of 2 processors over 10 seconds: 2 seconds of CPU
+    budget.configure(0.1, Duration.ofSeconds(10));
+    budget.consumeInTask(SECOND);
+    budget.consumeInTask(SECOND);
+    assertEquals(0L, budget.paused);
+  }
+
+  @Test
+  public void testOverBudgetPausesUntilWindowSlides() {
+    AtomicLong now = new AtomicLong();
+    FakeClockBudget budget = new FakeClockBudget(now, 1);
+    // 1 second of CPU per 10 seconds, in buckets of 1 second
+    budget.configure(0.1, Duration.ofSeconds(10));
+
+    budget.consumeInTask(SECOND / 2);
+    now.addAndGet(3 * SECOND);
+    budget.consumeInTask(SECOND);
+    // The first half second expires with its bucket, at 10 seconds
+    assertEquals(10 * SECOND, now.get());
+    assertEquals(7 * SECOND, budget.paused);
+
+    Map<String, Object> usage = budget.getUsage();
+    assertEquals(1L, usage.get("app.client.cpu.throttle_count"));
+    assertEquals(7_000L, usage.get("app.client.cpu.throttled_ms"));
+    assertEquals(1_500L, usage.get("app.client.cpu.total_ms"));
+    assertEquals(0.15, (Double) usage.get("app.client.cpu.capacity_share"), 1e-9);
+  }
+
+  @Test
+  public void testControllersShareTheStrictestBudget() {
+    AtomicLong now = new AtomicLong();
+    FakeClockBudget budget = new FakeClockBudget(now, 1);
+    budget.configure(0.1, Duration.ofSeconds(10));
+    budget.consume(SECOND / 2);
+
+    // Another controller, with a laxer share and another window
+    budget.configure(0.5, Duration.ofMinutes(1));
+    budget.configure(0.0, Duration.ofMinutes(1));
+    Map<String, Object> usage = budget.getUsage();
+    assertEquals(0.1, usage.get("app.client.cpu.budget_share"));
+    assertEquals(10_000L, usage.get("app.client.cpu.budget_window_ms"));
+
+    // A stricter share applies, to the CPU time already charged
+    budget.configure(0.04, Duration.ofSeconds(1));
+    assertEquals(0.04, budget.getUsage().get("app.client.cpu.budget_share"));
+    budget.consumeInTask(SECOND / 10);
+    assertTrue(budget.paused > 0);
+  }
+
+  @Test
+  public void testProductThreadsAreNeverPaused() {
+    AtomicLong now = new AtomicLong();
+    FakeClockBudget budget = new FakeClockBudget(now, 1);
+    budget.configure(0.1, Duration.ofSeconds(10));
+
+    budget.consume(5 * SECOND);
+    assertEquals(0L, budget.paused);
+    assertEquals(5_000L, budget.getUsage().get("app.client.cpu.total_ms"));
+
+    // The client's own work still waits for the product's share to expire
+    budget.consumeInTask(SECOND / 10);
+    assertTrue(budget.paused > 0);
+  }
+
+  @Test
+  public void testPauseIsBoundedByWindow() {
+    AtomicLong now = new AtomicLong();
+    FakeClockBudget budget = new FakeClockBudget(now, 1);
+    budget.configure(0.1, Duration.ofSeconds(10));
+    // Cannot fit in any window: pause at most one window
+    budget.consumeInTask(60 * SECOND);
+    assertTrue(budget.paused <= 10 * SECOND);
+  }
+
+  @Test
+  public void testNestedChargesAreCountedOnce() {
+    CpuBudget budget = new CpuBudget(System::nanoTime, 1);
+    long outer = CpuBudget.threadCpuNanos();
+    assumeCpuTime(outer);
+    long inner = CpuBudget.threadCpuNanos();
+    burn();
+    budget.charge(inner);
+    long afterInner = (Long) budget.getUsage().get("app.client.cpu.total_ms");
+    budget.charge(outer);
+    long afterOuter = (Long) budget.getUsage().get("app.client.cpu.total_ms");
+    // The outer charge only adds what ran after the inner one
+    assertTrue(afterOuter - afterInner <= 1L, afterInner + " then " + afterOuter);
+  }
+
+  private static void assumeCpuTime(long reading) {
+    assumeTrue(reading >= 0, "Thread CPU time not supported");
+  }
+
+  private static void burn() {
+    long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+    double x = 0;
+    while (System.nanoTime() < end) {
+      x += Math.sqrt(x + 1);
+    }
+    assertTrue(x > 0);
+  }
+}
@@ -0,0 +1,70 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class HashedTimerWheelTest {
+
+  @Test
+  public void testTimeoutsExpireAcrossRounds() {
+    // 8 buckets of 5 ms: a 100 ms delay needs several rounds
+    HashedTimerWheel wheel =
+        new HashedTimerWheel("test-timer", 5, TimeUnit.MILLISECONDS, 8, th -> {});
+    try {
+      long start = System.nanoTime();
+      AtomicLong firedAfter = new AtomicLong(-1L);
+      wheel.newTimeout(() -> firedAfter.set(System.nanoTime() - start), 100, TimeUnit.MILLISECONDS);
+      await().atMost(Duration.ofSeconds(5)).until(() -> firedAfter.get() >= 0);
+      assertTrue(firedAfter.get() >= TimeUnit.MILLISECONDS.toNanos(100), "Fired too early");
+    } finally {
+      wheel.stop();
+    }
+  }
+
+  @Test
+  public void testCancelledTimeoutDoesNotRun() throws InterruptedException {
+    HashedTimerWheel wheel =
+        new HashedTimerWheel("test-timer", 5, TimeUnit.MILLISECONDS, 8, th -> {});
+    try {
+      AtomicInteger runs = new AtomicInteger();
+      HashedTimerWheel.Timeout timeout =
+          wheel.newTimeout(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+      timeout.cancel();
+      wheel.newTimeout(runs::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+      await().atMost(Duration.ofSeconds(5)).until(() -> runs.get() == 1);
+      Thread.sleep(100);
+      assertEquals(1, runs.get());
+    } finally {
+      wheel.stop();
+    }
+  }
+
+  @Test
+  public void testFailuresAreReported() {
+    AtomicInteger failures = new AtomicInteger();
+    HashedTimerWheel wheel =
+        new HashedTimerWheel(
+            "test-timer", 5, TimeUnit.MILLISECONDS, 8, th -> failures.incrementAndGet());
+    try {
+      wheel.newTimeout(
+          () -> {
+            throw new IllegalStateException();
+          },
+          0,
+          TimeUnit.MILLISECONDS);
+      AtomicInteger runs = new AtomicInteger();
+      wheel.newTimeout(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+      await().atMost(Duration.ofSeconds(5)).until(() -> runs.get() == 1);
+      assertEquals(1, failures.get());
+    } finally {
+      wheel.stop();
+    }
+  }
+}
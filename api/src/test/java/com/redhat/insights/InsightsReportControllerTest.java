@@ -1,24 +1,51 @@
-/* Copyright (C) Red Hat 2022-2023 */
+/* Copyright (C) Red Hat 2022-2026 */
 package com.redhat.insights;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
 import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.doubles.DefaultConfiguration;
 import com.redhat.insights.doubles.DummyTopLevelReport;
 import com.redhat.insights.doubles.MockInsightsConfiguration;
 import com.redhat.insights.doubles.NoopInsightsHttpClient;
 import com.redhat.insights.doubles.NoopInsightsLogger;
+import com.redhat.insights.doubles.StoringInsightsHttpClient;
 import com.redhat.insights.http.InsightsHttpClient;
+import com.redhat.insights.jars.JarInfo;
+import com.redhat.insights.jvm.RuntimeTelemetrySubreport;
+import com.redhat.insights.jvm.SampledSubreport;
+import com.redhat.insights.jvm.ThreadContentionSubreport;
 import com.redhat.insights.logging.InsightsLogger;
 import com.redhat.insights.reports.InsightsReport;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.jspecify.annotations.NullUnmarked;
+import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * @author Emmanuel Hugonnet (c) 2022 Red Hat, Inc.
  * @author Martin Ocenas
  */
+@NullUnmarked
 public class InsightsReportControllerTest {
   private static final InsightsLogger logger = new NoopInsightsLogger();
 
@@ -51,4 +78,355 @@ public class InsightsReportControllerTest {
     assertEquals(1, count.get());
     //    verify(report, times(1)).setIdHash(anyString());
   }
+
+  // A controller that has sent its CONNECT, with one jar to send
+  private static InsightsReportController connectedController(
+      InsightsConfiguration config, InsightsHttpClient httpClient) {
+    ManualScheduler scheduler = new ManualScheduler();
+    InsightsReportController instance =
+        InsightsReportController.of(
+            logger,
+            config,
+            DummyTopLevelReport.of(logger),
+            () -> httpClient,
+            scheduler,
+            new LinkedBlockingQueue<>());
+    instance.generate();
+    scheduler.connect.run();
+    instance.getJarsToSend().add(new JarInfo("pending.jar", "1.0", Collections.emptyMap()));
+    return instance;
+  }
+
+  @Test
+  public void testShutdownFlushesPendingJars() throws Exception {
+    StoringInsightsHttpClient httpClient = new StoringInsightsHttpClient();
+    InsightsReportController instance = connectedController(new DefaultConfiguration(), httpClient);
+
+    instance.shutdown(Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+    // The CONNECT and the last UPDATE
+    assertEquals(2, httpClient.getReportsSent());
+    assertTrue(instance.isShutdown());
+    assertTrue(instance.getJarsToSend().isEmpty());
+  }
+
+  @Test
+  public void testShutdownBeforeConnectIsSent(@TempDir Path uploadDir) throws Exception {
+    StoringInsightsHttpClient httpClient = new StoringInsightsHttpClient();
+    InsightsReportController instance =
+        InsightsReportController.of(
+            logger, spoolingConfig(uploadDir), DummyTopLevelReport.of(logger), () -> httpClient);
+    instance.generateAndSetReportIdHash();
+    instance.getJarsToSend().add(new JarInfo("pending.jar", "1.0", Collections.emptyMap()));
+
+    instance.shutdown(Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+    assertEquals(0, httpClient.getReportsSent());
+    assertEquals(1, countFiles(uploadDir));
+  }
+
+  @Test
+  public void testShutdownBeforeConnectIsGenerated(@TempDir Path uploadDir) throws Exception {
+    StoringInsightsHttpClient httpClient = new StoringInsightsHttpClient();
+    InsightsReportController instance =
+        InsightsReportController.of(
+            logger, spoolingConfig(uploadDir), DummyTopLevelReport.of(logger), () -> httpClient);
+    instance.getJarsToSend().add(new JarInfo("pending.jar", "1.0", Collections.emptyMap()));
+
+    instance.shutdown(Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+    assertEquals(0, httpClient.getReportsSent());
+    assertEquals(0, countFiles(uploadDir));
+  }
+
+  private static InsightsConfiguration spoolingConfig(Path uploadDir) {
+    return new DefaultConfiguration() {
+      @Override
+      public String getArchiveUploadDir() {
+        return uploadDir.toString();
+      }
+    };
+  }
+
+  // A connected controller with one jar to send, through a client that blocks its UPDATE until
+  // released
+  private static InsightsReportController blockedController(
+      Path uploadDir, CountDownLatch release, boolean failing) {
+    InsightsHttpClient httpClient =
+        new StoringInsightsHttpClient() {
+          @Override
+          public void sendInsightsReport(String filename, InsightsReport report) {
+            if (filename.endsWith("_connect")) {
+              return;
+            }
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            if (failing) {
+              throw new InsightsException("Failing on purpose");
+            }
+          }
+        };
+    return connectedController(spoolingConfig(uploadDir), httpClient);
+  }
+
+  @Test
+  public void testShutdownSpoolsFailedUploads(@TempDir Path uploadDir) throws Exception {
+    CountDownLatch release = new CountDownLatch(0);
+    InsightsReportController instance = blockedController(uploadDir, release, true);
+
+    instance.shutdown(Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+    assertEquals(1, countFiles(uploadDir));
+  }
+
+  @Test
+  public void testShutdownLeavesUploadsInProgress(@TempDir Path uploadDir) throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    InsightsReportController instance = blockedController(uploadDir, release, false);
+
+    try {
+      instance.shutdown(Duration.ofMillis(200)).get(5, TimeUnit.SECONDS);
+      // The upload may still succeed, spooling it could send the jars twice
+      assertEquals(0, countFiles(uploadDir));
+    } finally {
+      release.countDown();
+    }
+    Thread.sleep(100);
+    assertEquals(0, countFiles(uploadDir));
+  }
+
+  @Test
+  public void testShutdownSpoolsUploadsFailingPastDeadline(@TempDir Path uploadDir)
+      throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    InsightsReportController instance = blockedController(uploadDir, release, true);
+
+    try {
+      instance.shutdown(Duration.ofMillis(200)).get(5, TimeUnit.SECONDS);
+      assertEquals(0, countFiles(uploadDir));
+    } finally {
+      release.countDown();
+    }
+    await().atMost(Duration.ofSeconds(5)).until(() -> countFiles(uploadDir) == 1);
+  }
+
+  private static class ClosingHttpClient extends StoringInsightsHttpClient implements Closeable {
+    private final AtomicInteger closed = new AtomicInteger();
+
+    @Override
+    public void close() {
+      closed.incrementAndGet();
+    }
+  }
+
+  @Test
+  public void testShutdownClosesClient() throws Exception {
+    ClosingHttpClient httpClient = new ClosingHttpClient();
+    InsightsReportController instance =
+        InsightsReportController.of(
+            logger, new DefaultConfiguration(), DummyTopLevelReport.of(logger), () -> httpClient);
+    instance.shutdown();
+    assertEquals(1, httpClient.closed.get());
+  }
+
+  // The number of samples summarized by a sampled subreport
+  private static Object samplesOf(SampledSubreport subreport) {
+    subreport.generateReport();
+    return subreport.getSummary().get("samples");
+  }
+
+  @Test
+  public void testShutdownStopsTelemetrySampling() throws Exception {
+    InsightsConfiguration config =
+        new DefaultConfiguration() {
+          @Override
+          public Duration getTelemetrySampleInterval() {
+            return Duration.ofMillis(5);
+          }
+
+          @Override
+          public int getTelemetrySampleCapacity() {
+            return 100_000;
+          }
+        };
+    RuntimeTelemetrySubreport telemetry = new RuntimeTelemetrySubreport(logger, config);
+    telemetry.start();
+    InsightsReportController instance =
+        InsightsReportController.of(
+            logger,
+            config,
+            new DummyTopLevelReport(logger, Collections.singletonMap("runtime", telemetry)),
+            NoopInsightsHttpClient::new);
+    await().until(() -> ((Integer) samplesOf(telemetry)) > 0);
+
+    instance.shutdown();
+    Thread.sleep(50);
+    Object stopped = samplesOf(telemetry);
+    Thread.sleep(100);
+    assertEquals(stopped, samplesOf(telemetry));
+  }
+
+  private static Object samplesOf(ThreadContentionSubreport subreport) {
+    subreport.generateReport();
+    return subreport.getSummary().get("samples");
+  }
+
+  @Test
+  public void testShutdownStopsContentionSampling() throws Exception {
+    InsightsConfiguration config =
+        new DefaultConfiguration() {
+          @Override
+          public Duration getThreadContentionInterval() {
+            return Duration.ofMillis(10);
+          }
+        };
+    ThreadContentionSubreport contention = new ThreadContentionSubreport(logger, config);
+    contention.start();
+    InsightsReportController instance =
+        InsightsReportController.of(
+            logger,
+            config,
+            new DummyTopLevelReport(logger, Collections.singletonMap("contention", contention)),
+            NoopInsightsHttpClient::new);
+    await().until(() -> ((Long) samplesOf(contention)) > 0L);
+
+    instance.shutdown();
+    Thread.sleep(50);
+    Object stopped = samplesOf(contention);
+    Thread.sleep(100);
+    assertEquals(stopped, samplesOf(contention));
+  }
+
+  @Test
+  public void testGracefulShutdownClosesClientAfterLastUpdate() throws Exception {
+    ClosingHttpClient httpClient = new ClosingHttpClient();
+    InsightsReportController instance = connectedController(new DefaultConfiguration(), httpClient);
+
+    instance.shutdown(Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS);
+    assertEquals(2, httpClient.getReportsSent());
+    assertEquals(1, httpClient.closed.get());
+  }
+
+  private static long countFiles(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.count();
+    }
+  }
+
+  /** Runs the scheduled commands on demand, on the test thread. */
+  private static final class ManualScheduler implements InsightsScheduler {
+    private @Nullable Runnable connect;
+    private @Nullable Runnable update;
+    private boolean shutdown;
+
+    @Override
+    public ScheduledFuture<?> scheduleConnect(Runnable command) {
+      connect = command;
+      return mock(ScheduledFuture.class);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleJarUpdate(Runnable command) {
+      update = command;
+      return mock(ScheduledFuture.class);
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public void shutdown() {
+      shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      shutdown = true;
+      return new ArrayList<>();
+    }
+  }
+
+  @Test
+  public void testUpdateBeforeConnectDoesNotBlock() {
+    StoringInsightsHttpClient httpClient = new StoringInsightsHttpClient();
+    ManualScheduler scheduler = new ManualScheduler();
+    InsightsReportController instance =
+        InsightsReportController.of(
+            logger,
+            new DefaultConfiguration(),
+            DummyTopLevelReport.of(logger),
+            () -> httpClient,
+            scheduler,
+            new LinkedBlockingQueue<>());
+    instance.generate();
+    try {
+      instance.getJarsToSend().add(new JarInfo("early.jar", "1.0", Collections.emptyMap()));
+
+      assertTimeoutPreemptively(Duration.ofSeconds(5), () -> scheduler.update.run());
+      assertEquals(0, httpClient.getReportsSent());
+      assertEquals(1, instance.getJarsToSend().size());
+
+      scheduler.connect.run();
+      scheduler.update.run();
+      assertEquals(2, httpClient.getReportsSent());
+      assertTrue(instance.getJarsToSend().isEmpty());
+    } finally {
+      instance.shutdown();
+    }
+  }
+
+  @Test
+  public void testUpdateWaitsForConnectUpload() {
+    CompletableFuture<Void> connectUpload = new CompletableFuture<>();
+    AtomicInteger uploads = new AtomicInteger();
+    InsightsHttpClient httpClient =
+        new StoringInsightsHttpClient() {
+          @Override
+          public CompletableFuture<Void> sendInsightsReportAsync(
+              String filename, InsightsReport report) {
+            return uploads.getAndIncrement() == 0
+                ? connectUpload
+                : CompletableFuture.completedFuture(null);
+          }
+        };
+    InsightsConfiguration config =
+        new DefaultConfiguration() {
+          @Override
+          public boolean isUpdateFlushAdaptive() {
+            return true;
+          }
+
+          @Override
+          public int getUpdateFlushJars() {
+            return 1;
+          }
+        };
+    ManualScheduler scheduler = new ManualScheduler();
+    InsightsReportController instance =
+        InsightsReportController.of(
+            logger,
+            config,
+            DummyTopLevelReport.of(logger),
+            () -> httpClient,
+            scheduler,
+            new LinkedBlockingQueue<>());
+    instance.generate();
+    try {
+      instance.getJarsToSend().add(new JarInfo("early.jar", "1.0", Collections.emptyMap()));
+      scheduler.connect.run();
+
+      // The id hash is known, but the CONNECT is still being uploaded
+      scheduler.update.run();
+      assertEquals(1, uploads.get());
+      assertEquals(1, instance.getJarsToSend().size());
+
+      connectUpload.complete(null);
+      scheduler.update.run();
+      assertEquals(2, uploads.get());
+      assertTrue(instance.getJarsToSend().isEmpty());
+    } finally {
+      instance.shutdown();
+    }
+  }
 }
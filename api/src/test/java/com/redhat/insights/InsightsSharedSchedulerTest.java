@@ -0,0 +1,174 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.doubles.DefaultConfiguration;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class InsightsSharedSchedulerTest {
+
+  private static InsightsSharedScheduler newService(int concurrency) {
+    return new InsightsSharedScheduler(concurrency, 5, TimeUnit.MILLISECONDS);
+  }
+
+  private static InsightsScheduler register(InsightsSharedScheduler service) {
+    return register(service, 1);
+  }
+
+  private static InsightsScheduler register(InsightsSharedScheduler service, int concurrency) {
+    return service.register(
+        new NoopInsightsLogger(),
+        new DefaultConfiguration() {
+          @Override
+          public int getSharedSchedulerConcurrency() {
+            return concurrency;
+          }
+        });
+  }
+
+  @Test
+  public void testConcurrencyIsLimitedAcrossRegistrations() throws InterruptedException {
+    InsightsSharedScheduler service = newService(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger started = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    AtomicInteger running = new AtomicInteger();
+    Runnable heavy =
+        () -> {
+          started.incrementAndGet();
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            running.decrementAndGet();
+          }
+        };
+
+    InsightsScheduler first = register(service);
+    InsightsScheduler second = register(service);
+    first.scheduleConnect(heavy);
+    second.scheduleConnect(heavy);
+    await().atMost(Duration.ofSeconds(5)).until(() -> started.get() == 1);
+    Thread.sleep(100);
+    assertEquals(1, started.get(), "Second CONNECT must wait for a worker");
+
+    release.countDown();
+    await().atMost(Duration.ofSeconds(5)).until(() -> started.get() == 2);
+    assertEquals(1, maxRunning.get());
+    first.shutdown();
+    second.shutdown();
+  }
+
+  @Test
+  public void testRoundRobinBetweenRegistrations() throws InterruptedException {
+    InsightsSharedScheduler service = newService(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+    InsightsScheduler blocker = register(service);
+    blocker.scheduleConnect(
+        () -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    await().atMost(Duration.ofSeconds(5)).until(() -> service.getRunningCount() == 1);
+
+    InsightsScheduler busy = register(service);
+    InsightsScheduler quiet = register(service);
+    busy.scheduleConnect(() -> order.add("busy"));
+    busy.scheduleConnect(() -> order.add("busy"));
+    Thread.sleep(50);
+    quiet.scheduleConnect(() -> order.add("quiet"));
+    Thread.sleep(50);
+
+    release.countDown();
+    await().atMost(Duration.ofSeconds(5)).until(() -> order.size() == 3);
+    assertEquals("quiet", order.get(1), order.toString());
+    blocker.shutdown();
+    busy.shutdown();
+    quiet.shutdown();
+  }
+
+  @Test
+  public void testShutdownUnregisters() {
+    InsightsSharedScheduler service = newService(2);
+    InsightsScheduler scheduler = register(service);
+    ScheduledFuture<?> future = scheduler.scheduleJarUpdate(() -> {});
+    assertEquals(1, service.getRegistrationCount());
+
+    scheduler.shutdown();
+    assertTrue(scheduler.isShutdown());
+    assertTrue(future.isCancelled());
+    assertEquals(0, service.getRegistrationCount());
+    assertThrows(IllegalStateException.class, () -> scheduler.scheduleConnect(() -> {}));
+  }
+
+  @Test
+  public void testFailureOnlyShutsDownItsRegistration() {
+    InsightsSharedScheduler service = newService(2);
+    InsightsScheduler failing = register(service);
+    InsightsScheduler other = register(service);
+    failing.scheduleConnect(
+        () -> {
+          throw new InsightsException("failed");
+        });
+
+    await().atMost(Duration.ofSeconds(5)).until(failing::isShutdown);
+    assertFalse(other.isShutdown());
+    AtomicInteger runs = new AtomicInteger();
+    other.scheduleConnect(runs::incrementAndGet);
+    await().atMost(Duration.ofSeconds(5)).until(() -> runs.get() == 1);
+    other.shutdown();
+  }
+
+  @Test
+  public void testConcurrencyGrowsWithRegistrations() throws InterruptedException {
+    InsightsSharedScheduler service = newService(1);
+    InsightsScheduler first = register(service);
+    InsightsScheduler second = register(service, 3);
+    assertEquals(3, service.getConcurrency());
+    // Never shrinks, the other registrations may rely on it
+    InsightsScheduler third = register(service, 2);
+    assertEquals(3, service.getConcurrency());
+    assertThrows(IllegalArgumentException.class, () -> register(service, 0));
+
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger started = new AtomicInteger();
+    for (InsightsScheduler scheduler : new InsightsScheduler[] {first, second, third}) {
+      scheduler.scheduleConnect(
+          () -> {
+            started.incrementAndGet();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+    }
+    try {
+      await().atMost(Duration.ofSeconds(5)).until(() -> started.get() == 3);
+      assertEquals(3, service.getRunningCount());
+    } finally {
+      release.countDown();
+      first.shutdown();
+      second.shutdown();
+      third.shutdown();
+    }
+  }
+}
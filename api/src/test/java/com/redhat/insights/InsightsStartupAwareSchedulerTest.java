@@ -0,0 +1,143 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.doubles.DefaultConfiguration;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+public class InsightsStartupAwareSchedulerTest {
+
+  private static InsightsConfiguration config(Duration settleWindow, Duration maxDeferral) {
+    return new DefaultConfiguration() {
+      @Override
+      public Duration getStartupSettleWindow() {
+        return settleWindow;
+      }
+
+      @Override
+      public Duration getStartupMaxDeferral() {
+        return maxDeferral;
+      }
+    };
+  }
+
+  @Test
+  public void testConnectWaitsForCpuToSettle() throws InterruptedException {
+    AtomicReference<Double> cpu = new AtomicReference<>(0.9);
+    AtomicInteger connects = new AtomicInteger();
+    InsightsStartupAwareScheduler scheduler =
+        InsightsStartupAwareScheduler.of(
+            new NoopInsightsLogger(),
+            config(Duration.ofMillis(50), Duration.ofMinutes(1)),
+            cpu::get,
+            () -> -1L,
+            5L);
+    try {
+      scheduler.scheduleConnect(connects::incrementAndGet);
+      Thread.sleep(200);
+      assertEquals(0, connects.get(), "CONNECT must wait while the CPU is busy");
+
+      cpu.set(0.1);
+      await().atMost(Duration.ofSeconds(5)).until(() -> connects.get() == 1);
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testConnectWaitsForJitToSettle() throws InterruptedException {
+    AtomicLong compiled = new AtomicLong();
+    AtomicBoolean compiling = new AtomicBoolean(true);
+    AtomicInteger connects = new AtomicInteger();
+    InsightsStartupAwareScheduler scheduler =
+        InsightsStartupAwareScheduler.of(
+            new NoopInsightsLogger(),
+            config(Duration.ofMillis(50), Duration.ofMinutes(1)),
+            () -> 0.0,
+            () -> compiling.get() ? compiled.addAndGet(100) : compiled.get(),
+            5L);
+    try {
+      scheduler.scheduleConnect(connects::incrementAndGet);
+      Thread.sleep(200);
+      assertEquals(0, connects.get(), "CONNECT must wait while the JIT is busy");
+
+      compiling.set(false);
+      await().atMost(Duration.ofSeconds(5)).until(() -> connects.get() == 1);
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testConnectIsSentAfterMaxDeferral() {
+    AtomicInteger connects = new AtomicInteger();
+    InsightsStartupAwareScheduler scheduler =
+        InsightsStartupAwareScheduler.of(
+            new NoopInsightsLogger(),
+            config(Duration.ofMillis(50), Duration.ofMillis(100)),
+            () -> 1.0,
+            () -> -1L,
+            5L);
+    try {
+      ScheduledFuture<?> future = scheduler.scheduleConnect(connects::incrementAndGet);
+      await().atMost(Duration.ofSeconds(5)).until(() -> connects.get() == 1);
+      assertFalse(future.isDone(), "CONNECT is periodic");
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testDeferralIsCappedBelowFirstUpdate() {
+    AtomicInteger connects = new AtomicInteger();
+    InsightsConfiguration config =
+        new DefaultConfiguration() {
+          @Override
+          public Duration getUpdatePeriod() {
+            return Duration.ofSeconds(2);
+          }
+        };
+    InsightsStartupAwareScheduler scheduler =
+        InsightsStartupAwareScheduler.of(
+            new NoopInsightsLogger(), config, () -> 1.0, () -> -1L, 5L);
+    try {
+      long start = System.nanoTime();
+      scheduler.scheduleConnect(connects::incrementAndGet);
+      await().atMost(Duration.ofSeconds(5)).until(() -> connects.get() == 1);
+      assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testCancelledConnectIsNeverSent() throws InterruptedException {
+    AtomicInteger connects = new AtomicInteger();
+    InsightsStartupAwareScheduler scheduler =
+        InsightsStartupAwareScheduler.of(
+            new NoopInsightsLogger(),
+            config(Duration.ofMillis(50), Duration.ofMillis(100)),
+            () -> 1.0,
+            () -> -1L,
+            5L);
+    try {
+      ScheduledFuture<?> future = scheduler.scheduleConnect(connects::incrementAndGet);
+      assertTrue(future.cancel(false));
+      assertTrue(future.isCancelled());
+      Thread.sleep(300);
+      assertEquals(0, connects.get());
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.doubles.DefaultConfiguration;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class InsightsVirtualThreadSchedulerTest {
+
+  @Test
+  public void testFallsBackBeforeJava21() {
+    InsightsVirtualThreadScheduler scheduler =
+        InsightsVirtualThreadScheduler.of(new NoopInsightsLogger(), new DefaultConfiguration());
+    try {
+      boolean available = InsightsVirtualThreadScheduler.newVirtualThreadPerTaskExecutor() != null;
+      assertEquals(available, scheduler.isVirtual());
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testBlockedRunDoesNotDelayOthers() throws InterruptedException {
+    InsightsVirtualThreadScheduler scheduler = newScheduler();
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger updates = new AtomicInteger();
+    try {
+      scheduler.scheduleConnect(
+          () -> {
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      scheduler.schedule(updates::incrementAndGet, 0, 1000);
+      await().atMost(Duration.ofSeconds(5)).until(() -> updates.get() >= 1);
+    } finally {
+      release.countDown();
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testOverlappingPeriodsAreSkipped() throws InterruptedException {
+    InsightsVirtualThreadScheduler scheduler = newScheduler();
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger runs = new AtomicInteger();
+    try {
+      scheduler.schedule(
+          () -> {
+            runs.incrementAndGet();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          },
+          0,
+          1000);
+      Thread.sleep(2500);
+      assertEquals(1, runs.get());
+      release.countDown();
+      await().atMost(Duration.ofSeconds(5)).until(() -> runs.get() >= 2);
+    } finally {
+      release.countDown();
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testFailureShutsDown() throws InterruptedException {
+    InsightsVirtualThreadScheduler scheduler = newScheduler();
+    scheduler.schedule(
+        () -> {
+          throw new InsightsException("failed");
+        },
+        0,
+        1000);
+    await().atMost(Duration.ofSeconds(5)).until(scheduler::isShutdown);
+  }
+
+  private static InsightsVirtualThreadScheduler newScheduler() {
+    return new InsightsVirtualThreadScheduler(
+        new NoopInsightsLogger(),
+        new DefaultConfiguration(),
+        Executors.newCachedThreadPool(),
+        false);
+  }
+}
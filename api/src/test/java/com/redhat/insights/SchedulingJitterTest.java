@@ -0,0 +1,99 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.doubles.DefaultConfiguration;
+import java.time.Duration;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+public class SchedulingJitterTest {
+
+  private static InsightsConfiguration config(String name, Duration window) {
+    return new DefaultConfiguration() {
+      @Override
+      public String getIdentificationName() {
+        return name;
+      }
+
+      @Override
+      public Duration getConnectJitterWindow() {
+        return window;
+      }
+
+      @Override
+      public Duration getUpdateJitterWindow() {
+        return window;
+      }
+    };
+  }
+
+  @Test
+  public void testNoWindowNoDelay() {
+    SchedulingJitter jitter = new SchedulingJitter(config("app", Duration.ZERO), "host");
+    assertEquals(0L, jitter.getConnectDelayMillis());
+    assertEquals(Duration.ofMinutes(5).toMillis(), jitter.getUpdateDelayMillis());
+  }
+
+  @Test
+  public void testStableAcrossRestarts() {
+    Duration window = Duration.ofHours(1);
+    SchedulingJitter first = new SchedulingJitter(config("app", window), "host");
+    SchedulingJitter second = new SchedulingJitter(config("app", window), "host");
+    assertEquals(first.getConnectDelayMillis(), second.getConnectDelayMillis());
+    assertEquals(first.getUpdateDelayMillis(), second.getUpdateDelayMillis());
+
+    assertTrue(first.getConnectDelayMillis() < window.toMillis());
+    assertNotEquals(
+        first.getConnectDelayMillis(),
+        new SchedulingJitter(config("other-app", window), "host").getConnectDelayMillis());
+  }
+
+  @Test
+  public void testSpreadIsUniformAcrossHosts() {
+    InsightsConfiguration config = config("app", Duration.ofHours(1));
+    int hosts = 10_000;
+    int buckets = 10;
+    int[] counts = new int[buckets];
+    for (int i = 0; i < hosts; i++) {
+      SchedulingJitter jitter = new SchedulingJitter(config, "machine-" + i);
+      counts[(int) (jitter.getConnectDelayMillis() / Duration.ofMinutes(6).toMillis())]++;
+    }
+    for (int count : counts) {
+      // Expected 1000 per bucket, binomial standard deviation of 30
+      assertTrue(Math.abs(count - hosts / buckets) < 150, Arrays.toString(counts));
+    }
+  }
+
+  @Test
+  public void testConnectWindowWiderThanUpdatePeriod() {
+    InsightsConfiguration config =
+        new DefaultConfiguration() {
+          @Override
+          public Duration getConnectJitterWindow() {
+            return Duration.ofSeconds(2);
+          }
+
+          @Override
+          public Duration getUpdatePeriod() {
+            return Duration.ofMillis(300);
+          }
+        };
+    int afterUpdate = 0;
+    long latest = 0L;
+    for (int i = 0; i < 1000; i++) {
+      SchedulingJitter jitter = new SchedulingJitter(config, "machine-" + i);
+      long connect = jitter.getConnectDelayMillis();
+      assertTrue(connect < 2000L);
+      latest = Math.max(latest, connect);
+      if (connect > jitter.getUpdateDelayMillis()) {
+        afterUpdate++;
+      }
+    }
+    // Spread across the whole window, not bunched before the first UPDATE
+    assertTrue(latest > 1800L, "latest " + latest);
+    assertTrue(afterUpdate > 700, "after UPDATE " + afterUpdate);
+  }
+}
@@ -0,0 +1,197 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static com.redhat.insights.InsightsErrorCode.ERROR_HTTP_SEND_PAYLOAD;
+import static com.redhat.insights.InsightsErrorCode.ERROR_HTTP_SEND_SERVER_ERROR;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.doubles.DefaultConfiguration;
+import com.redhat.insights.doubles.DummyTopLevelReport;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import com.redhat.insights.http.InsightsHttpClient;
+import com.redhat.insights.jars.JarInfo;
+import com.redhat.insights.jars.JarInfoSubreport;
+import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.reports.InsightsReport;
+import com.redhat.insights.reports.InsightsSubreport;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class SplittingUploaderTest {
+
+  private final InsightsLogger logger = new NoopInsightsLogger();
+
+  @Test
+  public void testSmallUpdateIsSentAtOnce() {
+    RejectingClient client = new RejectingClient(100);
+    uploader(10L * 1024 * 1024).sendUpdate(client, "hash", jars(10));
+
+    assertEquals(Collections.singletonList("hash_update"), client.names);
+    assertEquals(10, client.jarCounts.get(0));
+    assertTrue(client.reports.get(0).getBasic().isEmpty());
+  }
+
+  @Test
+  public void testUpdateIsSplitByEstimatedSize() {
+    List<JarInfo> jars = jars(100);
+    long jarSize = SplittingUploader.estimateCompressedSize(jars.get(0));
+    RejectingClient client = new RejectingClient(100);
+    uploader(1024 + 30 * jarSize).sendUpdate(client, "hash", jars);
+
+    assertEquals(4, client.names.size());
+    assertEquals("hash_update-1", client.names.get(0));
+    assertEquals("hash_update-4", client.names.get(3));
+    assertEquals(100, client.jarCounts.stream().mapToInt(Integer::intValue).sum());
+    assertBatch(client.reports);
+  }
+
+  @Test
+  public void testRejectedUpdateIsHalvedUntilAccepted() {
+    RejectingClient client = new RejectingClient(10);
+    uploader(10L * 1024 * 1024).sendUpdate(client, "hash", jars(64));
+
+    assertEquals(64, client.jarCounts.stream().mapToInt(Integer::intValue).sum());
+    assertTrue(client.jarCounts.stream().allMatch(count -> count <= 10));
+    assertEquals(1 + 2 + 4, client.rejected);
+    assertBatch(client.reports);
+  }
+
+  @Test
+  public void testUnsplittableJarIsDropped() {
+    RejectingClient client = new RejectingClient(0);
+    uploader(10L * 1024 * 1024).sendUpdate(client, "hash", jars(2));
+
+    assertTrue(client.names.isEmpty());
+    assertEquals(3, client.rejected);
+  }
+
+  @Test
+  public void testBatchIsClosedWhenItsLastJarIsDropped() {
+    RejectingClient client =
+        new RejectingClient(100) {
+          @Override
+          public void sendInsightsReport(String reportName, InsightsReport report) {
+            for (InsightsSubreport subreport : report.getSubreports().values()) {
+              if (subreport instanceof JarInfoSubreport
+                  && ((JarInfoSubreport) subreport)
+                      .getJarInfos().stream().anyMatch(jar -> jar.name().equals("jar-1.jar"))) {
+                throw new InsightsException(ERROR_HTTP_SEND_PAYLOAD, "Payload too large");
+              }
+            }
+            super.sendInsightsReport(reportName, report);
+          }
+        };
+    uploader(10L * 1024 * 1024).sendUpdate(client, "hash", jars(2));
+
+    assertEquals(Arrays.asList("hash_update-1", "hash_update-2"), client.names);
+    assertEquals(Arrays.asList(1, 0), client.jarCounts);
+    assertBatch(client.reports);
+  }
+
+  @Test
+  public void testOtherErrorsArePropagated() {
+    InsightsHttpClient client =
+        new RejectingClient(100) {
+          @Override
+          public void sendInsightsReport(String reportName, InsightsReport report) {
+            throw new InsightsException(ERROR_HTTP_SEND_SERVER_ERROR, "server error");
+          }
+        };
+    InsightsException isx =
+        assertThrows(
+            InsightsException.class,
+            () -> uploader(10L * 1024 * 1024).sendUpdate(client, "hash", jars(2)));
+    assertEquals(ERROR_HTTP_SEND_SERVER_ERROR, isx.getError());
+  }
+
+  @Test
+  public void testRejectedConnectIsResentWithoutJars() {
+    DummyTopLevelReport report =
+        new DummyTopLevelReport(
+            logger, Collections.singletonMap("jars", new JarInfoSubreport(logger, jars(20))));
+    report.generateReport(Filtering.DEFAULT);
+    report.setIdHash("hash");
+    RejectingClient client = new RejectingClient(10);
+    uploader(10L * 1024 * 1024).sendConnect(client, "hash", report);
+
+    assertEquals("hash_connect", client.names.get(0));
+    assertEquals(0, client.jarCounts.get(0));
+    Object batchId = client.reports.get(0).getBasic().get("update.batch.id");
+    assertNotNull(batchId);
+    assertEquals(20, client.jarCounts.stream().mapToInt(Integer::intValue).sum());
+    for (InsightsReport update : client.reports.subList(1, client.reports.size())) {
+      assertEquals(batchId, update.getBasic().get("update.batch.id"));
+    }
+  }
+
+  private void assertBatch(List<InsightsReport> reports) {
+    Object batchId = reports.get(0).getBasic().get("update.batch.id");
+    assertNotNull(batchId);
+    for (int i = 0; i < reports.size(); i++) {
+      Map<String, Object> basic = reports.get(i).getBasic();
+      assertEquals(batchId, basic.get("update.batch.id"));
+      assertEquals(i + 1, basic.get("update.batch.part"));
+      assertEquals(i == reports.size() - 1, basic.get("update.batch.last"));
+    }
+  }
+
+  private SplittingUploader uploader(long maxUploadSize) {
+    return new SplittingUploader(
+        logger,
+        new DefaultConfiguration() {
+          @Override
+          public long getMaxUploadSize() {
+            return maxUploadSize;
+          }
+        },
+        Filtering.DEFAULT);
+  }
+
+  private static List<JarInfo> jars(int count) {
+    List<JarInfo> jars = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Map<String, String> attributes = new HashMap<>();
+      attributes.put("sha512Checksum", String.format("%0128d", i));
+      jars.add(new JarInfo("jar-" + i + ".jar", "1.0." + i, attributes));
+    }
+    return jars;
+  }
+
+  /** Accepts reports holding at most the given number of jars, rejects the others with a 413. */
+  private static class RejectingClient implements InsightsHttpClient {
+    private final int maxJars;
+    private final List<String> names = new ArrayList<>();
+    private final List<InsightsReport> reports = new ArrayList<>();
+    private final List<Integer> jarCounts = new ArrayList<>();
+    private int rejected;
+
+    RejectingClient(int maxJars) {
+      this.maxJars = maxJars;
+    }
+
+    @Override
+    public void decorate(InsightsReport report) {}
+
+    @Override
+    public void sendInsightsReport(String reportName, InsightsReport report) {
+      int jarCount = 0;
+      for (InsightsSubreport subreport : report.getSubreports().values()) {
+        if (subreport instanceof JarInfoSubreport) {
+          jarCount += ((JarInfoSubreport) subreport).getJarInfos().size();
+        }
+      }
+      if (jarCount > maxJars) {
+        rejected++;
+        throw new InsightsException(ERROR_HTTP_SEND_PAYLOAD, "Payload too large");
+      }
+      names.add(reportName);
+      reports.add(report);
+      jarCounts.add(jarCount);
+    }
+  }
+}
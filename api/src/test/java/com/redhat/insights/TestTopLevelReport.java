@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -14,9 +14,11 @@ import com.redhat.insights.jars.JarInfo;
 import com.redhat.insights.jars.JarInfoSubreport;
 import com.redhat.insights.reports.InsightsReport;
 import com.redhat.insights.reports.InsightsSubreport;
+import com.redhat.insights.reports.PackageInventory;
 import java.io.IOException;
 import java.lang.management.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jspecify.annotations.NullUnmarked;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
@@ -202,6 +204,7 @@ public class TestTopLevelReport extends AbstractReportTest {
   }
 
   @Test
+  @SuppressWarnings("unchecked")
   public void testGenerateReportWithPackages() throws IOException {
     DummyTopLevelReport insightsReport = new DummyTopLevelReport(logger, Collections.emptyMap());
     insightsReport.setPackages(Package.getPackages());
@@ -213,24 +216,20 @@ public class TestTopLevelReport extends AbstractReportTest {
     // check packages field is present
     assertTrue(
         basicReport.containsKey("jvm.packages"), "Basic report should have field \"jvm.packages\"");
-    String packagesString = (String) basicReport.get("jvm.packages");
+    Map<?, ?> packages = (Map<?, ?>) basicReport.get("jvm.packages");
+    assertEquals(PackageInventory.ENCODING, packages.get("encoding"));
 
-    // briefly check content of packages string
-    assertTrue(
-        packagesString.contains("package"),
-        "There should be substring \"package\" in packages field");
-    assertTrue(
-        packagesString.contains("version"),
-        "There should be substring \"version\" in packages field");
+    List<String> versions = (List<String>) packages.get("versions");
+    List<String> names = PackageInventory.decodeNames((List<String>) packages.get("packages"));
+    assertEquals(insightsReport.getPackages().length, names.size());
 
     // check specific packages
     for (Package pack : insightsReport.getPackages()) {
       assertTrue(
-          packagesString.contains(pack.getName()),
-          "Package " + pack.getName() + " should be in the output");
+          names.contains(pack.getName()), "Package " + pack.getName() + " should be in the output");
       if (pack.getSpecificationVersion() != null) {
         assertTrue(
-            packagesString.contains(pack.getSpecificationVersion()),
+            versions.contains(pack.getSpecificationVersion()),
             "Version "
                 + pack.getSpecificationVersion()
                 + " of package "
@@ -335,4 +334,37 @@ public class TestTopLevelReport extends AbstractReportTest {
           "The \"java.command\" property in the basic report should be properly sanitized.");
     }
   }
+
+  @Test
+  public void testStaticSectionsAreCachedAcrossCycles() throws IOException {
+    AtomicInteger generated = new AtomicInteger();
+    InsightsSubreport countingSubreport =
+        new JarInfoSubreport(logger) {
+          @Override
+          public void generateReport() {
+            generated.incrementAndGet();
+          }
+        };
+    DummyTopLevelReport insightsReport =
+        new DummyTopLevelReport(logger, Collections.singletonMap("jars", countingSubreport));
+    insightsReport.setPackages(new Package[0]);
+
+    Map<?, ?> firstBasic = (Map<?, ?>) parseReport(generateReport(insightsReport)).get("basic");
+    insightsReport.close();
+    insightsReport.setPackages(Package.getPackages());
+    Map<?, ?> secondBasic = (Map<?, ?>) parseReport(generateReport(insightsReport)).get("basic");
+
+    assertEquals(firstBasic.get("jvm.args"), secondBasic.get("jvm.args"));
+    assertEquals(
+        Collections.emptyList(), ((Map<?, ?>) firstBasic.get("jvm.packages")).get("packages"));
+    assertNotEquals(
+        firstBasic.get("jvm.packages"),
+        secondBasic.get("jvm.packages"),
+        "New packages should invalidate the cached package section");
+    assertEquals(2, generated.get(), "Subreports should be regenerated on each cycle");
+
+    // Within the same cycle, subreports are not regenerated
+    generateReport(insightsReport);
+    assertEquals(2, generated.get());
+  }
 }
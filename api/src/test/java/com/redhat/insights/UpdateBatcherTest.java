@@ -0,0 +1,118 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.doubles.DefaultConfiguration;
+import com.redhat.insights.jars.JarInfo;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class UpdateBatcherTest {
+
+  private static InsightsConfiguration adaptive(int jars, long bytes) {
+    return new DefaultConfiguration() {
+      @Override
+      public boolean isUpdateFlushAdaptive() {
+        return true;
+      }
+
+      @Override
+      public int getUpdateFlushJars() {
+        return jars;
+      }
+
+      @Override
+      public long getUpdateFlushBytes() {
+        return bytes;
+      }
+    };
+  }
+
+  private static void enqueue(BlockingQueue<JarInfo> queue, int count) {
+    for (int i = 0; i < count; i++) {
+      queue.add(new JarInfo("jar-" + i + ".jar", "1.0", Collections.emptyMap()));
+    }
+  }
+
+  @Test
+  public void testPeriodicByDefault() {
+    UpdateBatcher batcher = new UpdateBatcher(new DefaultConfiguration());
+    BlockingQueue<JarInfo> queue = new LinkedBlockingQueue<>();
+    assertTrue(batcher.nextBatch(queue).isEmpty());
+
+    enqueue(queue, 3);
+    assertEquals(3, batcher.nextBatch(queue).size());
+    assertTrue(queue.isEmpty());
+    assertEquals(Duration.ofMinutes(5), UpdateBatcher.getCheckPeriod(new DefaultConfiguration()));
+  }
+
+  @Test
+  public void testFlushOnCount() {
+    AtomicLong now = new AtomicLong();
+    UpdateBatcher batcher = new UpdateBatcher(adaptive(10, Long.MAX_VALUE), now::get);
+    BlockingQueue<JarInfo> queue = new LinkedBlockingQueue<>();
+
+    enqueue(queue, 6);
+    assertTrue(batcher.nextBatch(queue).isEmpty());
+    assertEquals(6, batcher.getPendingCount());
+    assertTrue(batcher.getPendingBytes() > 0);
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    enqueue(queue, 6);
+    assertEquals(12, batcher.nextBatch(queue).size());
+    assertEquals(0, batcher.getPendingCount());
+    assertEquals(0L, batcher.getPendingBytes());
+  }
+
+  @Test
+  public void testFlushOnBytes() {
+    AtomicLong now = new AtomicLong();
+    UpdateBatcher batcher = new UpdateBatcher(adaptive(Integer.MAX_VALUE, 1), now::get);
+    BlockingQueue<JarInfo> queue = new LinkedBlockingQueue<>();
+
+    enqueue(queue, 1);
+    assertEquals(1, batcher.nextBatch(queue).size());
+  }
+
+  @Test
+  public void testFlushOnAgeAndMinSpacing() {
+    AtomicLong now = new AtomicLong();
+    UpdateBatcher batcher = new UpdateBatcher(adaptive(2, Long.MAX_VALUE), now::get);
+    BlockingQueue<JarInfo> queue = new LinkedBlockingQueue<>();
+
+    enqueue(queue, 2);
+    assertEquals(2, batcher.nextBatch(queue).size());
+
+    // A storm right after a send waits for the minimum spacing
+    enqueue(queue, 5);
+    now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    assertTrue(batcher.nextBatch(queue).isEmpty());
+    now.addAndGet(TimeUnit.SECONDS.toNanos(20));
+    assertEquals(5, batcher.nextBatch(queue).size());
+
+    // A lone jar is sent once it is old enough
+    enqueue(queue, 1);
+    now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+    assertTrue(batcher.nextBatch(queue).isEmpty());
+    now.addAndGet(TimeUnit.MINUTES.toNanos(4));
+    assertTrue(batcher.nextBatch(queue).isEmpty());
+    now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+    assertEquals(1, batcher.nextBatch(queue).size());
+
+    // Quiet periods send nothing
+    now.addAndGet(TimeUnit.HOURS.toNanos(1));
+    assertTrue(batcher.nextBatch(queue).isEmpty());
+  }
+
+  @Test
+  public void testCheckPeriodFollowsMinSpacing() {
+    assertEquals(Duration.ofSeconds(30), UpdateBatcher.getCheckPeriod(adaptive(1, 1)));
+  }
+}
@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.configuration;
 
 import static com.redhat.insights.config.EnvAndSysPropsInsightsConfiguration.*;
@@ -39,7 +39,10 @@ public class EnvVariableConfigurationTest {
           .set(ENV_HTTP_CLIENT_RETRY_BACKOFF_FACTOR, "3")
           .set(ENV_HTTP_CLIENT_RETRY_MAX_ATTEMPTS, "5")
           .set(ENV_HTTP_CLIENT_TIMEOUT, "PT2M")
-          .set(ENV_CERT_HELPER_BINARY, "/usr/local/bin/yolo");
+          .set(ENV_CERT_HELPER_BINARY, "/usr/local/bin/yolo")
+          .set(ENV_COMPRESSION_LEVEL, "9")
+          .set(ENV_COMPRESSION_STRATEGY, "1")
+          .set(ENV_COMPRESSION_THREADS, "2");
 
   @BeforeAll
   public static void setup() {
@@ -173,4 +176,11 @@ public class EnvVariableConfigurationTest {
   void testHttpClientTimeout() {
     assertEquals(Duration.ofMinutes(2), config.getHttpClientTimeout());
   }
+
+  @Test
+  void testCompression() {
+    assertEquals(9, config.getCompressionLevel());
+    assertEquals(1, config.getCompressionStrategy());
+    assertEquals(2, config.getCompressionThreads());
+  }
 }
@@ -0,0 +1,162 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.http;
+
+import static com.redhat.insights.InsightsErrorCode.ERROR_CLIENT_BACKOFF_RETRIES_FAILED;
+import static com.redhat.insights.InsightsErrorCode.ERROR_HTTP_SEND_PAYLOAD;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.InsightsException;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jspecify.annotations.NullUnmarked;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+@NullUnmarked
+public class AsyncRetryExecutorTest {
+
+  private final ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1);
+
+  @AfterEach
+  public void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private AsyncRetryExecutor executor(int maxAttempts, RetryBudget budget, double jitter) {
+    return new AsyncRetryExecutor(
+        new NoopInsightsLogger(), 10L, 2.0, maxAttempts, budget, pool, () -> jitter);
+  }
+
+  @Test
+  public void testEventuallySucceeds() throws Exception {
+    AtomicInteger attempts = new AtomicInteger();
+    CompletableFuture<String> result =
+        executor(5, new RetryBudget(1.0), 0.5)
+            .submit(
+                () -> {
+                  if (attempts.incrementAndGet() < 3) {
+                    throw new IOException("fail");
+                  }
+                  return CompletableFuture.completedFuture("ok");
+                });
+    assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+    assertEquals(3, attempts.get());
+  }
+
+  @Test
+  public void testCallerIsNotBlocked() throws Exception {
+    CompletableFuture<Object> result =
+        executor(3, new RetryBudget(1.0), 1.0)
+            .submit(
+                () -> {
+                  throw new IOException("fail");
+                });
+    // Three attempts, with jittered delays of 30 and 40 ms
+    assertFalse(result.isDone());
+
+    ExecutionException err =
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+    InsightsException isx = (InsightsException) err.getCause();
+    assertEquals(ERROR_CLIENT_BACKOFF_RETRIES_FAILED, isx.getError());
+    assertEquals(3, isx.getSuppressed().length);
+  }
+
+  @Test
+  public void testPendingAttemptsDoNotHoldTheTimer() throws Exception {
+    AsyncRetryExecutor executor = executor(3, new RetryBudget(1.0), 0.0);
+    // More hung uploads than timer threads
+    List<CompletableFuture<String>> hung = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      CompletableFuture<String> pending = new CompletableFuture<>();
+      hung.add(pending);
+      assertFalse(executor.submit(() -> pending).isDone());
+    }
+
+    AtomicInteger attempts = new AtomicInteger();
+    CompletableFuture<String> result =
+        executor.submit(
+            () -> {
+              if (attempts.incrementAndGet() < 2) {
+                CompletableFuture<String> failed = new CompletableFuture<>();
+                failed.completeExceptionally(new IOException("fail"));
+                return failed;
+              }
+              return CompletableFuture.completedFuture("ok");
+            });
+    assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+    assertEquals(2, attempts.get());
+  }
+
+  @Test
+  public void testDecorrelatedJitterIsCapped() throws Exception {
+    List<Long> times = new ArrayList<>();
+    CompletableFuture<Object> result =
+        executor(4, new RetryBudget(1.0), 1.0)
+            .submit(
+                () -> {
+                  times.add(System.nanoTime());
+                  throw new IOException("fail");
+                });
+    assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+
+    assertEquals(4, times.size());
+    // Delays of 30 ms, then 80 ms capped to 10 * 2^3
+    assertTrue(times.get(1) - times.get(0) >= TimeUnit.MILLISECONDS.toNanos(30));
+    assertTrue(times.get(3) - times.get(2) >= TimeUnit.MILLISECONDS.toNanos(80));
+  }
+
+  @Test
+  public void testPayloadTooLargeIsNotRetried() {
+    AtomicInteger attempts = new AtomicInteger();
+    CompletableFuture<Object> result =
+        executor(5, new RetryBudget(1.0), 0.0)
+            .submit(
+                () -> {
+                  attempts.incrementAndGet();
+                  throw new InsightsException(ERROR_HTTP_SEND_PAYLOAD, "Payload too large");
+                });
+    ExecutionException err =
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+    assertEquals(ERROR_HTTP_SEND_PAYLOAD, ((InsightsException) err.getCause()).getError());
+    assertEquals(1, attempts.get());
+  }
+
+  @Test
+  public void testSharedBudgetLimitsRetries() {
+    RetryBudget budget = new RetryBudget(0.0);
+    AtomicInteger attempts = new AtomicInteger();
+    AsyncRetryExecutor executor = executor(5, budget, 0.0);
+    for (int i = 0; i < 4; i++) {
+      CompletableFuture<Object> result =
+          executor.submit(
+              () -> {
+                attempts.incrementAndGet();
+                throw new IOException("fail");
+              });
+      assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+    }
+    // The full bucket allows 10 retries in total, on top of the 4 first attempts
+    assertEquals(14, attempts.get());
+    assertEquals(0.0, budget.getBalance(), 1e-9);
+  }
+
+  @Test
+  public void testBudgetRefillsWithUploads() {
+    RetryBudget budget = new RetryBudget(0.5);
+    for (int i = 0; i < RetryBudget.CAPACITY; i++) {
+      assertTrue(budget.tryWithdraw());
+    }
+    assertFalse(budget.tryWithdraw());
+    budget.deposit();
+    assertFalse(budget.tryWithdraw());
+    budget.deposit();
+    assertTrue(budget.tryWithdraw());
+  }
+}
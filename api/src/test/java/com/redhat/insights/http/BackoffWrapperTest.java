@@ -1,6 +1,7 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.http;
 
+import static com.redhat.insights.InsightsErrorCode.ERROR_HTTP_SEND_PAYLOAD;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.redhat.insights.InsightsException;
@@ -62,4 +63,23 @@ class BackoffWrapperTest {
     assertEquals(2, backoff.run());
     assertTrue(System.currentTimeMillis() - start >= 30L);
   }
+
+  @Test
+  void payloadTooLargeIsNotRetried() {
+    AtomicInteger count = new AtomicInteger(0);
+    PrintLogger logger = PrintLogger.STDOUT_LOGGER;
+    BackoffWrapper backoff =
+        new BackoffWrapper(
+            logger,
+            10L,
+            2L,
+            3,
+            () -> {
+              count.incrementAndGet();
+              throw new InsightsException(ERROR_HTTP_SEND_PAYLOAD, "too large");
+            });
+    InsightsException err = assertThrows(InsightsException.class, backoff::run);
+    assertEquals(ERROR_HTTP_SEND_PAYLOAD, err.getError());
+    assertEquals(1, count.get());
+  }
 }
@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.http;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -10,12 +10,14 @@ import com.redhat.insights.config.InsightsConfiguration;
 import com.redhat.insights.doubles.NoopInsightsLogger;
 import com.redhat.insights.logging.InsightsLogger;
 import com.redhat.insights.reports.InsightsReport;
+import com.redhat.insights.reports.UpdateReportImpl;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.LinkedBlockingQueue;
 import org.junit.jupiter.api.Test;
 
 public class InsightsFileWritingClientTest {
@@ -51,6 +53,42 @@ public class InsightsFileWritingClientTest {
     Files.delete(tmpdir);
   }
 
+  @Test
+  public void testWriteToSegments() throws Exception {
+    Path tmpdir = Files.createTempDirectory("tmpDirPrefix");
+    InsightsConfiguration cfg =
+        new InsightsConfiguration() {
+          @Override
+          public String getIdentificationName() {
+            return "TEST";
+          }
+
+          @Override
+          public String getArchiveUploadDir() {
+            return tmpdir.toString();
+          }
+
+          @Override
+          public boolean isArchiveSegmented() {
+            return true;
+          }
+        };
+
+    InsightsLogger logger = new NoopInsightsLogger();
+    InsightsFileWritingClient client = new InsightsFileWritingClient(logger, cfg);
+    InsightsReport report = new UpdateReportImpl(new LinkedBlockingQueue<>(), logger);
+
+    client.sendInsightsReport("foo", report);
+    client.sendInsightsReport("bar", report);
+    client.close();
+    File[] files = tmpdir.toFile().listFiles();
+    assertEquals(1, files.length);
+    assertTrue(files[0].getName().endsWith(".ndjson.gz"));
+    // Cleanup
+    Files.delete(files[0].toPath());
+    Files.delete(tmpdir);
+  }
+
   @Test
   public void testIsReadyToSend() throws IOException {
     Path tmpdir = Files.createTempDirectory("tmpDirPrefix");
@@ -1,6 +1,8 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.http;
 
+import static com.redhat.insights.InsightsErrorCode.ERROR_CLIENT_FAILED;
+import static com.redhat.insights.InsightsErrorCode.ERROR_HTTP_SEND_PAYLOAD;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -17,8 +19,13 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.NullUnmarked;
 import org.junit.jupiter.api.Test;
 
+@NullUnmarked
 class InsightsMultiClientTest {
 
   @Test
@@ -110,4 +117,66 @@ class InsightsMultiClientTest {
     assertTrue(err.getMessage().contains(", Mock for InsightsHttpClient"));
     verify(report).decorate("app.client.exception", "Failing on purpose");
   }
+
+  @Test
+  void asyncFallsBackWithoutBlocking() throws Exception {
+    InsightsLogger logger = new NoopInsightsLogger();
+    InsightsReport report = mock(InsightsReport.class);
+    CompletableFuture<Void> upload = new CompletableFuture<>();
+    InsightsHttpClient retrying = mock(InsightsHttpClient.class);
+    when(retrying.sendInsightsReportAsync("async", report)).thenReturn(upload);
+    StoringInsightsHttpClient fallback = new StoringInsightsHttpClient();
+
+    CompletableFuture<Void> sent =
+        new InsightsMultiClient(logger, retrying, fallback)
+            .sendInsightsReportAsync("async", report);
+    // The upload is still retrying, the caller goes on
+    assertFalse(sent.isDone());
+    assertEquals(0, fallback.getReportsSent());
+
+    upload.completeExceptionally(new InsightsException("Retries have failed"));
+    sent.get(5, TimeUnit.SECONDS);
+    assertEquals(1, fallback.getReportsSent());
+    verify(report).decorate("app.client.exception", "Retries have failed");
+  }
+
+  @Test
+  void asyncFailsWhenAllClientsFail() {
+    InsightsLogger logger = new NoopInsightsLogger();
+    InsightsReport report = mock(InsightsReport.class);
+    InsightsHttpClient failing = mock(InsightsHttpClient.class);
+    CompletableFuture<Void> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new InsightsException("Failing on purpose"));
+    when(failing.sendInsightsReportAsync("async", report)).thenReturn(failed);
+
+    CompletableFuture<Void> sent =
+        new InsightsMultiClient(logger, failing, failing).sendInsightsReportAsync("async", report);
+    ExecutionException err =
+        assertThrows(ExecutionException.class, () -> sent.get(5, TimeUnit.SECONDS));
+    assertEquals(ERROR_CLIENT_FAILED, ((InsightsException) err.getCause()).getError());
+  }
+
+  @Test
+  void payloadTooLargeIsNotPassedOn() {
+    InsightsLogger logger = new NoopInsightsLogger();
+    InsightsReport report = mock(InsightsReport.class);
+    InsightsHttpClient rejecting = mock(InsightsHttpClient.class);
+    InsightsException tooLarge = new InsightsException(ERROR_HTTP_SEND_PAYLOAD, "Too large");
+    doThrow(tooLarge).when(rejecting).sendInsightsReport("sync", report);
+    CompletableFuture<Void> rejected = new CompletableFuture<>();
+    rejected.completeExceptionally(tooLarge);
+    when(rejecting.sendInsightsReportAsync("async", report)).thenReturn(rejected);
+    StoringInsightsHttpClient fallback = new StoringInsightsHttpClient();
+    InsightsMultiClient client = new InsightsMultiClient(logger, rejecting, fallback);
+
+    assertSame(
+        tooLarge,
+        assertThrows(InsightsException.class, () -> client.sendInsightsReport("sync", report)));
+    ExecutionException err =
+        assertThrows(
+            ExecutionException.class,
+            () -> client.sendInsightsReportAsync("async", report).get(5, TimeUnit.SECONDS));
+    assertSame(tooLarge, err.getCause());
+    assertEquals(0, fallback.getReportsSent());
+  }
 }
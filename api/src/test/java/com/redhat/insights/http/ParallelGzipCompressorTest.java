@@ -0,0 +1,81 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+public class ParallelGzipCompressorTest {
+
+  private static byte[] gunzip(byte[] gzipped) throws IOException {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped));
+        ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      byte[] buffer = new byte[4096];
+      int count;
+      while ((count = in.read(buffer)) != -1) {
+        out.write(buffer, 0, count);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  private static byte[] sampleReport(int size) {
+    StringBuilder sb = new StringBuilder();
+    Random random = new Random(42);
+    while (sb.length() < size) {
+      sb.append("{\"name\":\"jar-")
+          .append(random.nextInt(500))
+          .append(".jar\",\"sha256Checksum\":\"")
+          .append(Long.toHexString(random.nextLong()))
+          .append("\"},\n");
+    }
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testEmptyInput() throws IOException {
+    ParallelGzipCompressor compressor =
+        new ParallelGzipCompressor(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, 4);
+    assertArrayEquals(new byte[0], gunzip(compressor.compress(new byte[0])));
+  }
+
+  @Test
+  public void testSingleBlock() throws IOException {
+    byte[] report = "{\"version\":\"1.0.0\"}".getBytes(StandardCharsets.UTF_8);
+    ParallelGzipCompressor compressor =
+        new ParallelGzipCompressor(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, 4);
+    assertArrayEquals(report, gunzip(compressor.compress(report)));
+  }
+
+  @Test
+  public void testManyBlocksAreASingleValidMember() throws IOException {
+    byte[] report = sampleReport(300_000);
+    for (int threads : new int[] {1, 3, 8}) {
+      ParallelGzipCompressor compressor =
+          new ParallelGzipCompressor(
+              Deflater.BEST_SPEED, Deflater.DEFAULT_STRATEGY, threads, 16 * 1024);
+      byte[] gzipped = compressor.compress(report);
+      assertArrayEquals(report, gunzip(gzipped), "Round trip failed with " + threads + " threads");
+      assertTrue(gzipped.length < report.length / 2, "Report should actually be compressed");
+    }
+  }
+
+  @Test
+  public void testDictionaryKeepsRatioCloseToSingleStream() {
+    byte[] report = sampleReport(300_000);
+    int parallel =
+        new ParallelGzipCompressor(Deflater.DEFAULT_COMPRESSION, Deflater.DEFAULT_STRATEGY, 4)
+            .compress(report)
+            .length;
+    int sequential = InsightsHttpClient.gzipReport(report).length;
+    assertTrue(
+        parallel < sequential * 1.05, "Parallel: " + parallel + ", sequential: " + sequential);
+  }
+}
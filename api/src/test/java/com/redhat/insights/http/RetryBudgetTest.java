@@ -0,0 +1,47 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class RetryBudgetTest {
+
+  @Test
+  public void testExhaustedBudgetRefillsWithUploads() {
+    RetryBudget budget = new RetryBudget(0.5);
+    for (int i = 0; i < RetryBudget.CAPACITY; i++) {
+      assertTrue(budget.tryWithdraw());
+    }
+    assertFalse(budget.tryWithdraw());
+
+    budget.deposit();
+    assertFalse(budget.tryWithdraw());
+    budget.deposit();
+    assertTrue(budget.tryWithdraw());
+  }
+
+  @Test
+  public void testSmallestConfiguredRatioApplies() {
+    RetryBudget budget = new RetryBudget(0.2);
+    // The first controller may raise the default
+    budget.configure(0.5);
+    budget.configure(1.0);
+    drain(budget);
+    budget.deposit();
+    budget.deposit();
+    assertTrue(budget.tryWithdraw());
+
+    budget.configure(0.1);
+    drain(budget);
+    budget.deposit();
+    budget.deposit();
+    assertFalse(budget.tryWithdraw());
+  }
+
+  private static void drain(RetryBudget budget) {
+    while (budget.tryWithdraw()) {
+      // Empties the bucket
+    }
+  }
+}
@@ -0,0 +1,207 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.http;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.insights.Filtering;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import com.redhat.insights.jars.JarInfo;
+import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.reports.InsightsReport;
+import com.redhat.insights.reports.UpdateReportImpl;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RollingSegmentWriterTest {
+
+  private final InsightsLogger logger = new NoopInsightsLogger();
+  private final MutableClock clock = new MutableClock();
+
+  private Path dir;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("insights-segments");
+  }
+
+  @Test
+  public void testSegmentIsPublishedOnClose() throws IOException {
+    RollingSegmentWriter writer =
+        new RollingSegmentWriter(logger, dir, 1024 * 1024, Duration.ofHours(1), clock);
+    writer.append("hash_connect", report("a.jar"));
+    writer.append("hash_update", report("b.jar"));
+
+    assertTrue(segments().isEmpty(), "An open segment must not be visible");
+    writer.close();
+
+    List<Path> segments = segments();
+    assertEquals(1, segments.size());
+    assertEquals(1, fileCount(), "The temporary file must be renamed");
+    List<JsonNode> lines = readLines(segments.get(0));
+    assertEquals(2, lines.size());
+    assertEquals("hash_connect", lines.get(0).get("name").asText());
+    assertEquals("hash_update", lines.get(1).get("name").asText());
+    assertEquals(
+        "a.jar",
+        lines.get(0).get("report").get("updated-jars").get("jars").get(0).get("name").asText());
+  }
+
+  @Test
+  public void testSegmentIsRotatedBySize() throws IOException {
+    RollingSegmentWriter writer =
+        new RollingSegmentWriter(logger, dir, 1, Duration.ofHours(1), clock);
+    writer.append("one", report("a.jar"));
+    writer.append("two", report("b.jar"));
+    writer.append("three", report("c.jar"));
+
+    List<Path> segments = segments();
+    assertEquals(3, segments.size());
+    for (Path segment : segments) {
+      assertEquals(1, readLines(segment).size());
+    }
+    writer.close();
+    assertEquals(3, segments().size(), "Closing without pending reports publishes nothing");
+  }
+
+  @Test
+  public void testSegmentIsRotatedByAge() throws IOException {
+    RollingSegmentWriter writer =
+        new RollingSegmentWriter(logger, dir, 1024 * 1024, Duration.ofMinutes(10), clock);
+    writer.append("one", report("a.jar"));
+    clock.advance(Duration.ofMinutes(5));
+    writer.append("two", report("b.jar"));
+    assertTrue(segments().isEmpty());
+
+    clock.advance(Duration.ofMinutes(5));
+    writer.append("three", report("c.jar"));
+    List<Path> segments = segments();
+    assertEquals(1, segments.size());
+    assertEquals(2, readLines(segments.get(0)).size());
+
+    writer.close();
+    assertEquals(2, segments().size());
+  }
+
+  @Test
+  public void testSegmentIsPublishedWithoutFurtherAppends() throws IOException {
+    RollingSegmentWriter writer =
+        new RollingSegmentWriter(logger, dir, 1024 * 1024, Duration.ofMinutes(10), clock, 20L);
+    try {
+      writer.append("hash_connect", report("a.jar"));
+      clock.advance(Duration.ofMinutes(11));
+
+      await().atMost(Duration.ofSeconds(5)).until(() -> segments().size() == 1);
+      assertEquals(1, fileCount());
+      assertEquals(1, readLines(segments().get(0)).size());
+    } finally {
+      writer.close();
+    }
+  }
+
+  @Test
+  public void testFailedReportDiscardsSegment() throws IOException {
+    RollingSegmentWriter writer =
+        new RollingSegmentWriter(logger, dir, 1024 * 1024, Duration.ofHours(1), clock);
+    writer.append("one", report("a.jar"));
+    InsightsReport broken =
+        new UpdateReportImpl(new LinkedBlockingQueue<>(), logger) {
+          @Override
+          public String getVersion() {
+            throw new IllegalStateException("broken");
+          }
+        };
+    assertThrows(IOException.class, () -> writer.append("two", broken));
+    assertEquals(0, fileCount());
+
+    writer.append("three", report("c.jar"));
+    writer.close();
+    assertEquals(1, readLines(segments().get(0)).size());
+  }
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files
+          .filter(p -> p.getFileName().toString().endsWith(RollingSegmentWriter.SEGMENT_SUFFIX))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private long fileCount() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.count();
+    }
+  }
+
+  private static List<JsonNode> readLines(Path segment) throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(segment)), StandardCharsets.UTF_8))) {
+      return reader.lines().map(line -> readTree(mapper, line)).collect(Collectors.toList());
+    }
+  }
+
+  private static JsonNode readTree(ObjectMapper mapper, String line) {
+    try {
+      return mapper.readTree(line);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private InsightsReport report(String jarName) {
+    UpdateReportImpl report =
+        new UpdateReportImpl(
+            new LinkedBlockingQueue<>(
+                Collections.singletonList(
+                    new JarInfo(jarName, "1.0", Collections.singletonMap("sha1", "abc")))),
+            logger);
+    report.generateReport(Filtering.DEFAULT);
+    return report;
+  }
+
+  private static final class MutableClock extends Clock {
+    private volatile Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jars;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import com.redhat.insights.jars.JarEventQueue.OverflowPolicy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.jspecify.annotations.NullUnmarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@NullUnmarked
+public class JarEventQueueTest {
+
+  @TempDir Path spillDir;
+
+  private JarEventQueue queue(int capacity, OverflowPolicy policy) {
+    return new JarEventQueue(new NoopInsightsLogger(), capacity, policy, spillDir);
+  }
+
+  private static JarInfo jar(String name) {
+    return new JarInfo(
+        name, "1.0", Collections.singletonMap(JarAnalyzer.SHA256_CHECKSUM_KEY, "sha-" + name));
+  }
+
+  private static List<String> drain(JarEventQueue queue) {
+    List<JarInfo> jars = new ArrayList<>();
+    queue.drainTo(jars);
+    return jars.stream().map(JarInfo::name).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testIdenticalJarsAreCoalesced() {
+    JarEventQueue queue = queue(8, OverflowPolicy.DROP_NEW);
+    assertTrue(queue.offer(jar("a")));
+    assertTrue(queue.offer(jar("a")));
+    assertTrue(queue.offer(jar("b")));
+    assertEquals(2, queue.size());
+    assertEquals(1L, queue.getCoalesced());
+
+    assertEquals(Arrays.asList("a", "b"), drain(queue));
+    // Sent already, so queued again
+    assertTrue(queue.offer(jar("a")));
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  public void testJarsWithoutDigestAreNotCoalesced() {
+    JarEventQueue queue = queue(8, OverflowPolicy.DROP_NEW);
+    queue.offer(new JarInfo("a", "1.0", Collections.emptyMap()));
+    queue.offer(new JarInfo("a", "1.0", Collections.emptyMap()));
+    assertEquals(2, queue.size());
+  }
+
+  @Test
+  public void testDropNew() {
+    JarEventQueue queue = queue(2, OverflowPolicy.DROP_NEW);
+    assertTrue(queue.offer(jar("a")));
+    assertTrue(queue.offer(jar("b")));
+    assertFalse(queue.offer(jar("c")));
+    assertEquals(1L, queue.getDropped());
+    assertEquals(0, queue.remainingCapacity());
+    assertEquals(Arrays.asList("a", "b"), drain(queue));
+  }
+
+  @Test
+  public void testDropOldest() {
+    JarEventQueue queue = queue(2, OverflowPolicy.DROP_OLDEST);
+    queue.offer(jar("a"));
+    queue.offer(jar("b"));
+    assertTrue(queue.offer(jar("c")));
+    assertEquals(1L, queue.getDropped());
+    assertEquals(Arrays.asList("b", "c"), drain(queue));
+    // The dropped jar is no longer coalesced
+    assertTrue(queue.offer(jar("a")));
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  public void testSpillToDisk() throws Exception {
+    JarEventQueue queue = queue(2, OverflowPolicy.SPILL);
+    for (String name : Arrays.asList("a", "b", "c", "d")) {
+      assertTrue(queue.offer(jar(name)));
+    }
+    assertEquals(4, queue.size());
+    assertEquals(2L, queue.getSpilled());
+    assertEquals(0L, queue.getDropped());
+
+    List<JarInfo> jars = new ArrayList<>();
+    queue.drainTo(jars);
+    assertEquals(
+        Arrays.asList("a", "b", "c", "d"),
+        jars.stream().map(JarInfo::name).collect(Collectors.toList()));
+    assertEquals("sha-d", jars.get(3).attributes().get(JarAnalyzer.SHA256_CHECKSUM_KEY));
+    assertTrue(queue.isEmpty());
+    try (Stream<Path> files = Files.list(spillDir)) {
+      assertEquals(0L, files.count(), "The spill file must be deleted once drained");
+    }
+  }
+
+  @Test
+  public void testConcurrentProducers() throws InterruptedException {
+    int producers = 4;
+    int perProducer = 2_000;
+    JarEventQueue queue = queue(1024, OverflowPolicy.SPILL);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      int id = p;
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                  queue.offer(jar(id + "-" + i));
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+
+    Set<String> received = new HashSet<>();
+    start.countDown();
+    while (received.size() < producers * perProducer) {
+      JarInfo jar = queue.poll(5, TimeUnit.SECONDS);
+      assertNotNull(jar, "Only received " + received.size());
+      assertTrue(received.add(jar.name()), "Duplicate " + jar.name());
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testTakeWaitsForProducer() throws InterruptedException {
+    JarEventQueue queue = queue(4, OverflowPolicy.DROP_NEW);
+    Thread producer =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(50);
+              } catch (InterruptedException e) {
+                return;
+              }
+              queue.put(jar("a"));
+            });
+    producer.start();
+    assertEquals("a", queue.take().name());
+    producer.join();
+  }
+
+  @Test
+  public void testParsePolicy() {
+    assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.parse("drop-oldest"));
+    assertEquals(OverflowPolicy.SPILL, OverflowPolicy.parse(" SPILL "));
+    assertThrows(IllegalArgumentException.class, () -> OverflowPolicy.parse("block"));
+  }
+}
@@ -0,0 +1,101 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import org.jspecify.annotations.NullUnmarked;
+import org.junit.jupiter.api.Test;
+
+@NullUnmarked
+public class CgroupSubreportTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testV2() throws URISyntaxException {
+    Path fixture = fixture("v2");
+    CgroupSubreport subreport =
+        new CgroupSubreport(
+            new NoopInsightsLogger(), fixture.resolve("cgroup"), fixture.resolve("sys"));
+    subreport.generateReport();
+    Map<String, Object> summary = subreport.getSummary();
+    assertEquals("v2", summary.get("cgroup"));
+
+    Map<String, Object> cpu = (Map<String, Object>) summary.get("cpu");
+    assertEquals(150000L, cpu.get("quota_us"));
+    assertEquals(100000L, cpu.get("period_us"));
+    assertEquals(1.5, (Double) cpu.get("limit_cores"), 1e-9);
+    assertEquals(100L, cpu.get("weight"));
+    assertEquals("0-1,4", cpu.get("cpuset"));
+    assertEquals(3, cpu.get("cpuset_count"));
+    Map<String, Object> throttling = (Map<String, Object>) cpu.get("throttling");
+    assertEquals(4210L, throttling.get("periods"));
+    assertEquals(312L, throttling.get("throttled_periods"));
+    assertEquals(9876L, throttling.get("throttled_ms"));
+
+    Map<String, Object> memory = (Map<String, Object>) summary.get("memory");
+    assertEquals(1073741824L, memory.get("limit"));
+    assertEquals(CgroupSubreport.UNLIMITED, memory.get("high"));
+    assertEquals(805306368L, memory.get("peak"));
+    assertEquals(0L, memory.get("swap_limit"));
+    Map<String, Object> events = (Map<String, Object>) memory.get("events");
+    assertEquals(17L, events.get("max"));
+    assertEquals(1L, events.get("oom_kill"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testV1() throws URISyntaxException {
+    Path fixture = fixture("v1");
+    CgroupSubreport subreport =
+        new CgroupSubreport(
+            new NoopInsightsLogger(), fixture.resolve("cgroup"), fixture.resolve("sys"));
+    subreport.generateReport();
+    Map<String, Object> summary = subreport.getSummary();
+    assertEquals("v1", summary.get("cgroup"));
+
+    // The cpu group is namespaced: its files are at the mount point
+    Map<String, Object> cpu = (Map<String, Object>) summary.get("cpu");
+    assertEquals(CgroupSubreport.UNLIMITED, cpu.get("quota_us"));
+    assertFalse(cpu.containsKey("limit_cores"));
+    assertEquals(1024L, cpu.get("shares"));
+    assertEquals(7, cpu.get("cpuset_count"));
+    assertEquals(2500L, ((Map<String, Object>) cpu.get("throttling")).get("throttled_ms"));
+
+    // The memory group is found under its path
+    Map<String, Object> memory = (Map<String, Object>) summary.get("memory");
+    assertEquals(CgroupSubreport.UNLIMITED, memory.get("limit"));
+    assertEquals(268435456L, memory.get("soft_limit"));
+    assertEquals(209715200L, memory.get("peak"));
+    assertEquals(3L, memory.get("failcnt"));
+    assertFalse(memory.containsKey("swap_limit"));
+  }
+
+  @Test
+  public void testNoCgroup() {
+    CgroupSubreport subreport =
+        new CgroupSubreport(
+            new NoopInsightsLogger(), Paths.get("/does/not/exist"), Paths.get("/does/not/exist"));
+    subreport.generateReport();
+    assertEquals("none", subreport.getSummary().get("cgroup"));
+  }
+
+  @Test
+  public void testCountCpus() {
+    assertEquals(1, CgroupSubreport.countCpus("0"));
+    assertEquals(4, CgroupSubreport.countCpus("0-3"));
+    assertEquals(7, CgroupSubreport.countCpus("0-3,8,10-11"));
+    assertEquals(0, CgroupSubreport.countCpus(""));
+  }
+
+  private static Path fixture(String name) throws URISyntaxException {
+    return Paths.get(
+        ClassLoader.getSystemClassLoader()
+            .getResource("com/redhat/insights/jvm/cgroup/" + name)
+            .toURI());
+  }
+}
@@ -0,0 +1,102 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import com.sun.management.VMOption;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jspecify.annotations.NullUnmarked;
+import org.junit.jupiter.api.Test;
+
+@NullUnmarked
+public class JitSubreportTest {
+
+  @Test
+  public void testRealJvm() {
+    JitSubreport subreport = new JitSubreport(new NoopInsightsLogger());
+    subreport.generateReport();
+    Map<String, Object> summary = subreport.getSummary();
+
+    assertTrue(summary.containsKey("code_cache"));
+    @SuppressWarnings("unchecked")
+    Map<String, Object> flags = (Map<String, Object>) summary.get("flags");
+    // Defined by every HotSpot JVM
+    assertTrue(flags.containsKey("ReservedCodeCacheSize"), flags.toString());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCodeHeapOccupancyAndFlushes() {
+    MemoryPoolMXBean heap = codeHeap("CodeHeap 'non-profiled nmethods'");
+    MemoryPoolMXBean eden = mock(MemoryPoolMXBean.class);
+    when(eden.getType()).thenReturn(MemoryType.HEAP);
+    when(eden.getName()).thenReturn("Eden Space");
+
+    when(heap.getUsage())
+        .thenReturn(
+            new MemoryUsage(0, 50, 60, 100),
+            new MemoryUsage(0, 95, 100, 100),
+            new MemoryUsage(0, 40, 100, 100));
+
+    JitSubreport subreport =
+        new JitSubreport(new NoopInsightsLogger(), null, Arrays.asList(heap, eden), name -> null);
+
+    subreport.generateReport();
+    Map<String, Object> codeCache = (Map<String, Object>) subreport.getSummary().get("code_cache");
+    assertEquals(Collections.singleton("CodeHeap 'non-profiled nmethods'"), codeCache.keySet());
+    Map<String, Object> first = (Map<String, Object>) codeCache.values().iterator().next();
+    assertEquals(0.5, (Double) first.get("occupancy"), 1e-9);
+    assertEquals(false, first.get("nearly_full"));
+    assertEquals(0L, first.get("flushes_observed"));
+
+    subreport.generateReport();
+    Map<String, Object> second =
+        (Map<String, Object>)
+            ((Map<String, Object>) subreport.getSummary().get("code_cache"))
+                .values()
+                .iterator()
+                .next();
+    assertEquals(true, second.get("nearly_full"));
+
+    subreport.generateReport();
+    Map<String, Object> third =
+        (Map<String, Object>)
+            ((Map<String, Object>) subreport.getSummary().get("code_cache"))
+                .values()
+                .iterator()
+                .next();
+    assertEquals(1L, third.get("flushes_observed"));
+  }
+
+  @Test
+  public void testFlagsAreReadOnce() {
+    AtomicInteger reads = new AtomicInteger();
+    JitSubreport subreport =
+        new JitSubreport(
+            new NoopInsightsLogger(),
+            null,
+            Collections.emptyList(),
+            name -> {
+              reads.incrementAndGet();
+              return new VMOption(name, "1", true, VMOption.Origin.DEFAULT);
+            });
+    subreport.generateReport();
+    subreport.generateReport();
+    assertEquals(JitSubreport.FLAGS.size(), reads.get());
+  }
+
+  private static MemoryPoolMXBean codeHeap(String name) {
+    MemoryPoolMXBean pool = mock(MemoryPoolMXBean.class);
+    when(pool.getType()).thenReturn(MemoryType.NON_HEAP);
+    when(pool.getName()).thenReturn(name);
+    return pool;
+  }
+}
@@ -0,0 +1,132 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.doubles.DefaultConfiguration;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jspecify.annotations.NullUnmarked;
+import org.junit.jupiter.api.Test;
+
+@NullUnmarked
+public class NativeMemorySubreportTest {
+
+  private static final String NMT_SUMMARY =
+      "\n"
+          + "Native Memory Tracking:\n"
+          + "\n"
+          + "(Omitting categories weighting less than 1KB)\n"
+          + "\n"
+          + "Total: reserved=2933736KB, committed=119488KB\n"
+          + "       malloc: 2560KB #5667\n"
+          + "       mmap:   reserved=2931176KB, committed=116928KB\n"
+          + "\n"
+          + "-                 Java Heap (reserved=1538048KB, committed=96256KB)\n"
+          + "                            (mmap: reserved=1538048KB, committed=96256KB) \n"
+          + " \n"
+          + "-                     Class (reserved=1048645KB, committed=133KB)\n"
+          + "                            (classes #473)\n"
+          + "-                    Thread (reserved=10273KB, committed=541KB)\n"
+          + "                            (thread #11)\n";
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testParseNmtSummary() {
+    Map<String, Object> parsed = NativeMemorySubreport.parseNmtSummary(NMT_SUMMARY);
+
+    Map<String, Object> total = (Map<String, Object>) parsed.get("total");
+    assertEquals(2933736L * 1024, total.get("reserved"));
+    assertEquals(119488L * 1024, total.get("committed"));
+
+    Map<String, Object> categories = (Map<String, Object>) parsed.get("categories");
+    assertEquals(3, categories.size());
+    Map<String, Object> heap = (Map<String, Object>) categories.get("Java Heap");
+    assertEquals(96256L * 1024, heap.get("committed"));
+    assertTrue(categories.containsKey("Thread"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testParseUnscaledSummary() {
+    Map<String, Object> parsed =
+        NativeMemorySubreport.parseNmtSummary(
+            "Total: reserved=3004506583, committed=122356183\n"
+                + "-                 Java Heap (reserved=1574961152, committed=98566144)\n");
+    assertEquals(122356183L, ((Map<String, Object>) parsed.get("total")).get("committed"));
+  }
+
+  @Test
+  public void testNmtIsRateLimited() {
+    AtomicLong now = new AtomicLong();
+    AtomicInteger calls = new AtomicInteger();
+    NativeMemorySubreport subreport =
+        new NativeMemorySubreport(
+            new NoopInsightsLogger(),
+            Collections.emptyList(),
+            Collections.emptyList(),
+            () -> {
+              calls.incrementAndGet();
+              return NMT_SUMMARY;
+            },
+            Duration.ofMinutes(10),
+            now::get);
+
+    subreport.generateReport();
+    assertEquals(1, calls.get());
+    assertTrue(subreport.getSummary().containsKey("native_memory"));
+
+    now.addAndGet(Duration.ofMinutes(5).toNanos());
+    subreport.generateReport();
+    assertEquals(1, calls.get());
+    assertTrue(subreport.getSummary().containsKey("native_memory"));
+
+    now.addAndGet(Duration.ofMinutes(5).toNanos());
+    subreport.generateReport();
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  public void testNmtFailureIsRateLimited() {
+    AtomicInteger calls = new AtomicInteger();
+    NativeMemorySubreport subreport =
+        new NativeMemorySubreport(
+            new NoopInsightsLogger(),
+            Collections.emptyList(),
+            Collections.emptyList(),
+            () -> {
+              calls.incrementAndGet();
+              throw new IllegalStateException("NMT not enabled");
+            },
+            Duration.ofMinutes(10),
+            () -> 0L);
+
+    subreport.generateReport();
+    subreport.generateReport();
+    assertEquals(1, calls.get());
+    assertFalse(subreport.getSummary().containsKey("native_memory"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testRealJvm() {
+    NativeMemorySubreport subreport =
+        new NativeMemorySubreport(new NoopInsightsLogger(), new DefaultConfiguration());
+    subreport.generateReport();
+
+    Map<String, Object> buffers = (Map<String, Object>) subreport.getSummary().get("buffer_pools");
+    for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+      assertTrue(buffers.containsKey(pool.getName()), pool.getName());
+    }
+    Map<String, Object> metaspace = (Map<String, Object>) subreport.getSummary().get("metaspace");
+    assertTrue(metaspace.containsKey("Metaspace"), metaspace.toString());
+    // Tests do not run with -XX:NativeMemoryTracking
+    assertFalse(subreport.getSummary().containsKey("native_memory"));
+  }
+}
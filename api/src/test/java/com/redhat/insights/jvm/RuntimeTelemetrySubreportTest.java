@@ -0,0 +1,98 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.doubles.DefaultConfiguration;
+import com.redhat.insights.doubles.DummyTopLevelReport;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import com.redhat.insights.logging.InsightsLogger;
+import com.redhat.insights.reports.InsightsSubreport;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import org.jspecify.annotations.NullUnmarked;
+import org.junit.jupiter.api.Test;
+
+@NullUnmarked
+public class RuntimeTelemetrySubreportTest {
+
+  private static final InsightsLogger logger = new NoopInsightsLogger();
+
+  private static final DefaultConfiguration config =
+      new DefaultConfiguration() {
+        @Override
+        public Duration getTelemetrySampleInterval() {
+          return Duration.ofMillis(10);
+        }
+
+        @Override
+        public int getTelemetrySampleCapacity() {
+          return 8;
+        }
+      };
+
+  @Test
+  public void testNoSamples() {
+    RuntimeTelemetrySubreport subreport = new RuntimeTelemetrySubreport(logger, config);
+    subreport.generateReport();
+    assertEquals(0, subreport.getSummary().get("samples"));
+    assertFalse(subreport.getSummary().containsKey("gc"));
+  }
+
+  @Test
+  public void testSummary() {
+    RuntimeTelemetrySubreport subreport = new RuntimeTelemetrySubreport(logger, config);
+    for (int i = 0; i < 12; i++) {
+      subreport.sample();
+      System.gc();
+    }
+    subreport.generateReport();
+
+    Map<String, Object> summary = subreport.getSummary();
+    assertEquals(8, summary.get("samples"));
+    Percentiles heap = (Percentiles) summary.get("heap_used_bytes");
+    assertTrue(heap.getP50() > 0);
+    assertTrue(heap.getP50() <= heap.getMax());
+    assertTrue(((Percentiles) summary.get("threads_live")).getMax() >= 1);
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> gc = (Map<String, Object>) summary.get("gc");
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      assertTrue(gc.containsKey(collector.getName()), collector.getName());
+    }
+
+    DummyTopLevelReport report =
+        new DummyTopLevelReport(logger, Collections.singletonMap("runtime", subreport));
+    String serialized = new String(report.getSubModulesReport(), StandardCharsets.UTF_8);
+    assertTrue(serialized.contains("\"heap_used_bytes\""), serialized);
+    assertTrue(serialized.contains("\"p99\""), serialized);
+  }
+
+  @Test
+  public void testBackgroundSampling() {
+    RuntimeTelemetrySubreport subreport = new RuntimeTelemetrySubreport(logger, config);
+    subreport.start();
+    try {
+      await()
+          .atMost(Duration.ofSeconds(5))
+          .until(
+              () -> {
+                subreport.generateReport();
+                return (Integer) subreport.getSummary().get("samples") >= 3;
+              });
+    } finally {
+      subreport.close();
+    }
+  }
+
+  @Test
+  public void testIsASubreport() {
+    InsightsSubreport subreport = new RuntimeTelemetrySubreport(logger, config);
+    assertTrue(subreport.getSerializer() instanceof SummarizedSubreportSerializer);
+  }
+}
@@ -0,0 +1,63 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class SampleRingTest {
+
+  @Test
+  public void testKeepsMostRecentSamples() {
+    SampleRing ring = new SampleRing(3, 2);
+    long[] sample = new long[2];
+    for (long i = 1; i <= 5; i++) {
+      sample[0] = i;
+      sample[1] = i * 10;
+      ring.add(sample);
+    }
+
+    assertEquals(3, ring.size());
+    assertEquals(3L, ring.get(0, 0));
+    assertEquals(50L, ring.get(2, 1));
+
+    long[] column = new long[3];
+    assertEquals(3, ring.copyColumn(1, column));
+    assertArrayEquals(new long[] {30, 40, 50}, column);
+  }
+
+  @Test
+  public void testDeltas() {
+    SampleRing ring = new SampleRing(4, 1);
+    long[] deltas = new long[4];
+    assertEquals(0, ring.copyDeltas(0, deltas));
+
+    for (long value : new long[] {1, 4, 4, 10, 11}) {
+      ring.add(new long[] {value});
+    }
+    assertEquals(3, ring.copyDeltas(0, deltas));
+    assertArrayEquals(new long[] {0, 6, 1}, new long[] {deltas[0], deltas[1], deltas[2]});
+  }
+
+  @Test
+  public void testPercentiles() {
+    long[] values = new long[100];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = 100 - i;
+    }
+    Percentiles percentiles = Percentiles.of(values, 100);
+    assertEquals(50L, percentiles.getP50());
+    assertEquals(90L, percentiles.getP90());
+    assertEquals(99L, percentiles.getP99());
+    assertEquals(100L, percentiles.getMax());
+
+    Percentiles single = Percentiles.of(new long[] {7}, 1);
+    assertEquals(7L, single.getP50());
+    assertEquals(7L, single.getMax());
+  }
+
+  @Test
+  public void testRejectsTooSmallCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new SampleRing(1, 1));
+  }
+}
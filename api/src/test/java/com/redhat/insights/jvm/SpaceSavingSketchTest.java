@@ -0,0 +1,48 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class SpaceSavingSketchTest {
+
+  @Test
+  public void testCountsWithinCapacity() {
+    SpaceSavingSketch sketch = new SpaceSavingSketch(3);
+    sketch.add("a", true);
+    sketch.add("a", false);
+    sketch.add("b", true);
+
+    List<SpaceSavingSketch.Entry> top = sketch.top();
+    assertEquals(2, top.size());
+    assertEquals("a", top.get(0).getKey());
+    assertEquals(1L, top.get(0).getBlocked());
+    assertEquals(1L, top.get(0).getWaiting());
+    assertEquals(0L, top.get(0).getError());
+  }
+
+  @Test
+  public void testHeavyHittersSurviveEviction() {
+    SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+    for (int i = 0; i < 100; i++) {
+      sketch.add("hot", true);
+      sketch.add("cold-" + i, false);
+    }
+
+    List<SpaceSavingSketch.Entry> top = sketch.top();
+    assertEquals(2, top.size());
+    assertEquals("hot", top.get(0).getKey());
+    assertEquals(100L, top.get(0).getBlocked());
+    // The other slot churns, inheriting the evicted count as its error
+    assertEquals("cold-99", top.get(1).getKey());
+    assertEquals(1L, top.get(1).getWaiting());
+    assertTrue(top.get(1).getError() > 0);
+  }
+
+  @Test
+  public void testInvalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch(0));
+  }
+}
@@ -0,0 +1,126 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.jvm;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.doubles.DefaultConfiguration;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.jspecify.annotations.NullUnmarked;
+import org.junit.jupiter.api.Test;
+
+@NullUnmarked
+public class ThreadContentionSubreportTest {
+
+  private static final Object MONITOR = new Object();
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testBlockedThreadIsReported() throws InterruptedException {
+    ThreadContentionSubreport subreport =
+        new ThreadContentionSubreport(new NoopInsightsLogger(), new DefaultConfiguration());
+    Thread contender = new Thread(ThreadContentionSubreportTest::enterMonitor, "contender");
+
+    synchronized (MONITOR) {
+      contender.start();
+      await()
+          .atMost(Duration.ofSeconds(10))
+          .until(() -> contender.getState() == Thread.State.BLOCKED);
+      subreport.sample();
+    }
+    contender.join();
+
+    subreport.generateReport();
+    Map<String, Object> summary = subreport.getSummary();
+    assertEquals(1L, summary.get("samples"));
+
+    List<SpaceSavingSketch.Entry> locks = (List<SpaceSavingSketch.Entry>) summary.get("locks");
+    SpaceSavingSketch.Entry lock = find(locks, "java.lang.Object");
+    assertTrue(lock.getBlocked() >= 1L);
+
+    List<SpaceSavingSketch.Entry> frames = (List<SpaceSavingSketch.Entry>) summary.get("frames");
+    SpaceSavingSketch.Entry frame = find(frames, getClass().getName() + ".enterMonitor");
+    assertEquals(1L, frame.getBlocked());
+  }
+
+  @Test
+  public void testSlowSamplesAreSkipped() {
+    InsightsConfiguration config =
+        new DefaultConfiguration() {
+          @Override
+          public Duration getThreadContentionInterval() {
+            return Duration.ofMillis(100);
+          }
+        };
+    ThreadContentionSubreport subreport =
+        new ThreadContentionSubreport(
+            new NoopInsightsLogger(),
+            config,
+            () -> {
+              // Ten times the allowed 1 ms
+              sleep(10);
+              return new ThreadInfo[0];
+            });
+
+    for (int i = 0; i < 5; i++) {
+      subreport.sample();
+    }
+    subreport.generateReport();
+    Map<String, Object> summary = subreport.getSummary();
+    assertEquals(1L, summary.get("samples"));
+    @SuppressWarnings("unchecked")
+    Map<String, Object> overhead = (Map<String, Object>) summary.get("overhead");
+    assertEquals(4L, overhead.get("skipped_samples"));
+    assertTrue((Long) overhead.get("total_ms") >= 10L);
+  }
+
+  @Test
+  public void testTopFrameSkipsParking() {
+    StackTraceElement[] stack = {
+      new StackTraceElement("jdk.internal.misc.Unsafe", "park", null, -1),
+      new StackTraceElement("java.util.concurrent.locks.LockSupport", "park", null, -1),
+      new StackTraceElement("com.example.Service", "handle", null, 42)
+    };
+    assertEquals("com.example.Service.handle", ThreadContentionSubreport.topFrame(stack));
+    assertNull(ThreadContentionSubreport.topFrame(new StackTraceElement[0]));
+  }
+
+  @Test
+  public void testRealJvm() {
+    assertTrue(ManagementFactory.getThreadMXBean().isObjectMonitorUsageSupported());
+    ThreadContentionSubreport subreport =
+        new ThreadContentionSubreport(new NoopInsightsLogger(), new DefaultConfiguration());
+    subreport.sample();
+    subreport.generateReport();
+    assertEquals(1L, subreport.getSummary().get("samples"));
+  }
+
+  private static void enterMonitor() {
+    synchronized (MONITOR) {
+      MONITOR.notifyAll();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static SpaceSavingSketch.Entry find(List<SpaceSavingSketch.Entry> entries, String key) {
+    for (SpaceSavingSketch.Entry entry : entries) {
+      if (entry.getKey().equals(key)) {
+        return entry;
+      }
+    }
+    throw new AssertionError(key + " not in " + entries.size() + " entries");
+  }
+}
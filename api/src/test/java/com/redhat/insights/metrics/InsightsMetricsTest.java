@@ -0,0 +1,76 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.InsightsErrorCode;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.concurrent.LinkedBlockingQueue;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.junit.jupiter.api.Test;
+
+public class InsightsMetricsTest {
+
+  @Test
+  public void testCounters() {
+    InsightsMetrics metrics = new InsightsMetrics();
+    metrics.jarAnalyzed(100);
+    metrics.jarAnalyzed(50);
+    metrics.cacheHit();
+    metrics.cacheMiss();
+    metrics.cacheMiss();
+    metrics.retry();
+    metrics.uploaded(42);
+    metrics.failed(InsightsErrorCode.ERROR_HTTP_SEND_PAYLOAD);
+    metrics.failed(InsightsErrorCode.ERROR_HTTP_SEND_PAYLOAD);
+    metrics.sectionSerialized("jars", 10);
+    metrics.sectionSerialized("jars", 20);
+
+    assertEquals(2, metrics.getJarsAnalyzed());
+    assertEquals(150, metrics.getBytesHashed());
+    assertEquals(1, metrics.getCacheHits());
+    assertEquals(2, metrics.getCacheMisses());
+    assertEquals(1, metrics.getRetries());
+    assertEquals(1, metrics.getUploads());
+    assertEquals(42, metrics.getUploadLatencySumMillis());
+    assertEquals(Collections.singletonMap("ERROR_HTTP_SEND_PAYLOAD", 2L), metrics.getFailures());
+    assertEquals(Collections.singletonMap("jars", 20L), metrics.getReportSectionBytes());
+  }
+
+  @Test
+  public void testJarQueueDepth() {
+    InsightsMetrics metrics = new InsightsMetrics();
+    LinkedBlockingQueue<String> first = new LinkedBlockingQueue<>();
+    LinkedBlockingQueue<String> second = new LinkedBlockingQueue<>();
+    metrics.addJarQueue(first);
+    metrics.addJarQueue(second);
+    first.add("a");
+    second.add("b");
+    second.add("c");
+    assertEquals(3, metrics.getJarQueueDepth());
+
+    metrics.removeJarQueue(second);
+    assertEquals(1, metrics.getJarQueueDepth());
+  }
+
+  @Test
+  public void testRegisteredAsPlatformMBean() throws Exception {
+    InsightsMetrics metrics = InsightsMetrics.getInstance();
+    assertTrue(metrics.registerMBean());
+    assertTrue(metrics.registerMBean());
+
+    metrics.failed(InsightsErrorCode.ERROR_CLIENT_FAILED);
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(InsightsMetrics.OBJECT_NAME);
+    assertTrue(server.isRegistered(name));
+    assertEquals(metrics.getRetries(), server.getAttribute(name, "Retries"));
+
+    TabularData failures = (TabularData) server.getAttribute(name, "Failures");
+    CompositeData row = failures.get(new Object[] {"ERROR_CLIENT_FAILED"});
+    assertTrue((Long) row.get("value") >= 1L);
+  }
+}
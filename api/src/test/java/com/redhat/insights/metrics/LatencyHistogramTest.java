@@ -0,0 +1,48 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getPercentileMillis(99));
+  }
+
+  @Test
+  public void testBucketsAndPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 98; i++) {
+      histogram.record(3);
+    }
+    histogram.record(150);
+    histogram.record(120_000);
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(98 * 3 + 150 + 120_000, histogram.getSumMillis());
+    assertEquals(5, histogram.getPercentileMillis(50));
+    assertEquals(200, histogram.getPercentileMillis(99));
+    assertEquals(Long.MAX_VALUE, histogram.getPercentileMillis(100));
+
+    Map<String, Long> buckets = histogram.getBuckets();
+    assertEquals(98L, buckets.get("le_5ms"));
+    assertEquals(1L, buckets.get("le_200ms"));
+    assertEquals(1L, buckets.get("gt_60000ms"));
+    assertEquals(LatencyHistogram.BOUNDS_MILLIS.length + 1, buckets.size());
+  }
+
+  @Test
+  public void testBoundsAreInclusive() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(10);
+    histogram.record(0);
+    assertEquals(1L, histogram.getBuckets().get("le_10ms"));
+    assertEquals(1L, histogram.getBuckets().get("le_1ms"));
+  }
+}
@@ -0,0 +1,128 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.reports;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class HostnameProviderTest {
+
+  @Test
+  public void testLookupIsCached() {
+    AtomicInteger lookups = new AtomicInteger();
+    HostnameProvider provider =
+        new HostnameProvider(
+            new NoopInsightsLogger(),
+            () -> "host-" + lookups.incrementAndGet(),
+            Collections.emptyList(),
+            Duration.ofSeconds(5),
+            Duration.ofHours(1));
+
+    assertEquals("host-1", provider.getHostname());
+    assertEquals("host-1", provider.getHostname());
+    assertEquals(1, lookups.get());
+  }
+
+  @Test
+  public void testSlowLookupFallsBackToFile() throws Exception {
+    Path hostnameFile = Files.createTempFile("hostname", "");
+    Files.write(hostnameFile, "from-file\n".getBytes(StandardCharsets.UTF_8));
+    CountDownLatch release = new CountDownLatch(1);
+    HostnameProvider provider =
+        new HostnameProvider(
+            new NoopInsightsLogger(),
+            () -> {
+              release.await(10, TimeUnit.SECONDS);
+              return "from-dns";
+            },
+            Arrays.asList(Paths.get("/does/not/exist"), hostnameFile),
+            Duration.ofMillis(50),
+            Duration.ofHours(1));
+
+    long start = System.nanoTime();
+    assertEquals("from-file", provider.getHostname());
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    assertEquals("from-file", provider.getHostname());
+
+    // The late lookup replaces the fallback
+    release.countDown();
+    await().atMost(Duration.ofSeconds(5)).until(() -> "from-dns".equals(provider.getHostname()));
+    Files.delete(hostnameFile);
+  }
+
+  @Test
+  public void testHungLookupDoesNotDelayOtherProviders() {
+    CountDownLatch release = new CountDownLatch(1);
+    HostnameProvider hung =
+        new HostnameProvider(
+            new NoopInsightsLogger(),
+            () -> {
+              release.await(10, TimeUnit.SECONDS);
+              return "hung";
+            },
+            Collections.emptyList(),
+            Duration.ofMillis(50),
+            Duration.ofHours(1));
+    HostnameProvider other =
+        new HostnameProvider(
+            new NoopInsightsLogger(),
+            () -> "other",
+            Collections.emptyList(),
+            Duration.ofSeconds(5),
+            Duration.ofHours(1));
+
+    try {
+      assertEquals(HostnameProvider.DEFAULT_HOSTNAME, hung.getHostname());
+      long start = System.nanoTime();
+      assertEquals("other", other.getHostname());
+      assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testFailedLookupWithoutFallback() {
+    HostnameProvider provider =
+        new HostnameProvider(
+            new NoopInsightsLogger(),
+            () -> {
+              throw new UnknownHostException("no dns");
+            },
+            Collections.singletonList(Paths.get("/does/not/exist")),
+            Duration.ofSeconds(5),
+            Duration.ofHours(1));
+
+    assertEquals(HostnameProvider.DEFAULT_HOSTNAME, provider.getHostname());
+  }
+
+  @Test
+  public void testStaleNameIsRefreshedInBackground() {
+    AtomicInteger lookups = new AtomicInteger();
+    HostnameProvider provider =
+        new HostnameProvider(
+            new NoopInsightsLogger(),
+            () -> "host-" + lookups.incrementAndGet(),
+            Collections.emptyList(),
+            Duration.ofSeconds(5),
+            Duration.ZERO);
+
+    assertEquals("host-1", provider.getHostname());
+    await()
+        .atMost(Duration.ofSeconds(5))
+        .until(() -> !"host-1".equals(provider.getHostname()) && lookups.get() >= 2);
+  }
+}
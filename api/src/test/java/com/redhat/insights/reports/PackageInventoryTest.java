@@ -0,0 +1,41 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.reports;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class PackageInventoryTest {
+
+  @Test
+  public void testRoundTrip() {
+    Package[] packages = Package.getPackages();
+    PackageInventory inventory = new PackageInventory(packages);
+
+    List<String> expected =
+        Arrays.stream(packages).map(Package::getName).sorted().collect(Collectors.toList());
+    assertEquals(expected, PackageInventory.decodeNames(inventory.getPackages()));
+  }
+
+  @Test
+  public void testFrontCodingAndVersionDeduplication() {
+    Package lang = String.class.getPackage();
+    Package util = List.class.getPackage();
+    Package concurrent = java.util.concurrent.ConcurrentMap.class.getPackage();
+    PackageInventory inventory = new PackageInventory(new Package[] {util, concurrent, lang});
+
+    List<String> entries = inventory.getPackages();
+    assertEquals(3, entries.size());
+    assertTrue(entries.get(0).startsWith("0:java.lang"), entries.get(0));
+    assertTrue(entries.get(1).startsWith("5:util"), entries.get(1));
+    assertTrue(entries.get(2).startsWith("9:.concurrent"), entries.get(2));
+
+    // The same JDK version is shared by all three packages
+    assertEquals(
+        inventory.getVersions().stream().distinct().count(), inventory.getVersions().size());
+    assertEquals("", inventory.getVersions().get(0));
+  }
+}
@@ -0,0 +1,57 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.reports;
+
+import static com.redhat.insights.reports.SectionVolatility.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class ReportSectionCacheTest {
+
+  @Test
+  public void testStaticSectionsSurviveCycles() {
+    ReportSectionCache cache = new ReportSectionCache();
+    AtomicInteger count = new AtomicInteger();
+
+    assertEquals(1, cache.get("static", STATIC_FOR_PROCESS, count::incrementAndGet));
+    cache.endCycle();
+    assertEquals(1, cache.get("static", STATIC_FOR_PROCESS, count::incrementAndGet));
+    assertEquals(1, count.get(), "Static section should only be computed once");
+
+    cache.invalidate("static");
+    assertEquals(2, cache.get("static", STATIC_FOR_PROCESS, count::incrementAndGet));
+  }
+
+  @Test
+  public void testPerCycleSectionsAreDroppedAtEndOfCycle() {
+    ReportSectionCache cache = new ReportSectionCache();
+    AtomicInteger count = new AtomicInteger();
+
+    assertEquals(1, cache.get("cycle", REFRESH_PER_CYCLE, count::incrementAndGet));
+    assertEquals(1, cache.get("cycle", REFRESH_PER_CYCLE, count::incrementAndGet));
+    cache.endCycle();
+    assertFalse(cache.isCached("cycle"));
+    assertEquals(2, cache.get("cycle", REFRESH_PER_CYCLE, count::incrementAndGet));
+  }
+
+  @Test
+  public void testAlwaysFreshSectionsAreNeverCached() {
+    ReportSectionCache cache = new ReportSectionCache();
+    AtomicInteger count = new AtomicInteger();
+
+    assertEquals(1, cache.get("fresh", ALWAYS_FRESH, count::incrementAndGet));
+    assertEquals(2, cache.get("fresh", ALWAYS_FRESH, count::incrementAndGet));
+    assertFalse(cache.isCached("fresh"));
+  }
+
+  @Test
+  public void testValidityKeyChangeRecomputes() {
+    ReportSectionCache cache = new ReportSectionCache();
+    AtomicInteger count = new AtomicInteger();
+
+    assertEquals(1, cache.get("keyed", STATIC_FOR_PROCESS, 10, count::incrementAndGet));
+    assertEquals(1, cache.get("keyed", STATIC_FOR_PROCESS, 10, count::incrementAndGet));
+    assertEquals(2, cache.get("keyed", STATIC_FOR_PROCESS, 11, count::incrementAndGet));
+  }
+}
@@ -0,0 +1,115 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.core.httpclient;
+
+import com.redhat.insights.InsightsException;
+import com.redhat.insights.logging.InsightsLogger;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keeps one {@link HttpClient}, hence its {@code SSLContext} and keep-alive connections, across
+ * uploads.
+ *
+ * <p>The client is only rebuilt when the certificate or key files change. Their modification time
+ * and size are checked on each use, which only costs {@code stat} calls; when they differ, the
+ * contents are digested, so that a file merely touched does not discard the connections. Files the
+ * process cannot read, typically because they are read through the cert helper, are trusted on
+ * their modification time. Polling is preferred to a {@code WatchService}, which needs a thread and
+ * misses the symbolic link swaps of mounted secrets on some file systems.
+ */
+final class HttpClientHolder {
+
+  private final InsightsLogger logger;
+  private final List<Path> watched;
+  private final Supplier<HttpClient> factory;
+
+  private @Nullable HttpClient client;
+  private List<String> stamps = new ArrayList<>();
+  private byte @Nullable [] digest;
+
+  /**
+   * @param logger the client logger
+   * @param watched the files whose change requires a new client, empty for token authentication
+   * @param factory builds a client, with a new {@code SSLContext} if needed
+   */
+  HttpClientHolder(InsightsLogger logger, List<Path> watched, Supplier<HttpClient> factory) {
+    this.logger = logger;
+    this.watched = watched;
+    this.factory = factory;
+  }
+
+  /**
+   * @return the current client, rebuilt if the watched files changed since it was built
+   */
+  synchronized HttpClient get() {
+    HttpClient current = client;
+    if (current == null) {
+      List<String> newStamps = stamp();
+      byte @Nullable [] newDigest = digest();
+      current = factory.get();
+      client = current;
+      stamps = newStamps;
+      digest = newDigest;
+      return current;
+    }
+
+    List<String> newStamps = stamp();
+    if (newStamps.equals(stamps)) {
+      return current;
+    }
+    byte @Nullable [] newDigest = digest();
+    if (newDigest != null && digest != null && MessageDigest.isEqual(newDigest, digest)) {
+      stamps = newStamps;
+      return current;
+    }
+
+    logger.debug("Certificate or key changed, rebuilding the HTTP client");
+    try {
+      current = factory.get();
+    } catch (InsightsException e) {
+      // Possibly caught mid-rotation, retried on the next use
+      logger.warning("Could not rebuild the HTTP client, keeping the previous one", e);
+      return current;
+    }
+    client = current;
+    stamps = newStamps;
+    digest = newDigest;
+    return current;
+  }
+
+  private List<String> stamp() {
+    List<String> result = new ArrayList<>(watched.size());
+    for (Path file : watched) {
+      try {
+        result.add(Files.getLastModifiedTime(file) + "/" + Files.size(file));
+      } catch (IOException e) {
+        result.add("missing");
+      }
+    }
+    return result;
+  }
+
+  // null when a file cannot be read
+  private byte @Nullable [] digest() {
+    try {
+      MessageDigest sha = MessageDigest.getInstance("SHA-256");
+      for (Path file : watched) {
+        sha.update(Files.readAllBytes(file));
+      }
+      return sha.digest();
+    } catch (IOException | SecurityException e) {
+      return null;
+    } catch (NoSuchAlgorithmException e) {
+      // Mandated by the Java platform
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -1,14 +1,15 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.core.httpclient;
 
 import static com.redhat.insights.InsightsErrorCode.*;
 
 import com.redhat.insights.InsightsException;
 import com.redhat.insights.config.InsightsConfiguration;
-import com.redhat.insights.http.BackoffWrapper;
+import com.redhat.insights.http.AsyncRetryExecutor;
 import com.redhat.insights.http.InsightsHttpClient;
 import com.redhat.insights.logging.InsightsLogger;
 import com.redhat.insights.reports.InsightsReport;
+import com.redhat.insights.telemetry.InsightsEvents;
 import java.io.File;
 import java.net.InetSocketAddress;
 import java.net.ProxySelector;
@@ -16,11 +17,27 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLParameters;
 
-/** An insights HTTP client based on the built-in JDK client. */
+/**
+ * An insights HTTP client based on the built-in JDK client.
+ *
+ * <p>The underlying {@link HttpClient} and its {@code SSLContext} are kept across uploads, and
+ * rebuilt when the certificate or key files change: the same instance should be supplied to the
+ * controller for each upload.
+ *
+ * <p>With {@link InsightsConfiguration#getHttpClientVersion()} set to {@code HTTP_2}, HTTP/2 is
+ * negotiated through ALPN, and the concurrent uploads, such as a {@code CONNECT} followed by a
+ * backlog of {@code UPDATE} events, share a single TLS connection. Servers that do not offer HTTP/2
+ * are sent HTTP/1.1 requests.
+ */
 public class InsightsJdkHttpClient implements InsightsHttpClient {
 
   /*
@@ -31,6 +48,7 @@ public class InsightsJdkHttpClient implements InsightsHttpClient {
   private final InsightsConfiguration configuration;
   private final InsightsLogger logger;
   private final Supplier<SSLContext> sslContextSupplier;
+  private final HttpClientHolder clientHolder;
 
   public InsightsJdkHttpClient(
       InsightsLogger logger,
@@ -39,6 +57,15 @@ public class InsightsJdkHttpClient implements InsightsHttpClient {
     this.logger = logger;
     this.configuration = configuration;
     this.sslContextSupplier = sslContextSupplier;
+    this.clientHolder =
+        new HttpClientHolder(
+            logger,
+            configuration.useMTLS()
+                ? List.of(
+                    Paths.get(configuration.getCertFilePath()),
+                    Paths.get(configuration.getKeyFilePath()))
+                : List.of(),
+            this::buildHttpClient);
   }
 
   public InsightsJdkHttpClient(InsightsLogger logger, InsightsConfiguration configuration) {
@@ -65,15 +92,21 @@ public class InsightsJdkHttpClient implements InsightsHttpClient {
   }
 
   HttpClient getHttpClient() {
+    return clientHolder.get();
+  }
+
+  private HttpClient buildHttpClient() {
     var clientBuilder = HttpClient.newBuilder();
 
     clientBuilder = clientBuilder.connectTimeout(configuration.getHttpClientTimeout());
+    clientBuilder = clientBuilder.version(parseVersion(configuration.getHttpClientVersion()));
 
     if (configuration.useMTLS()) {
-      final var sslParameters = new SSLParameters();
+      final var tlsContext = sslContextSupplier.get();
+      // Starts from the defaults: without cipher suites, HTTP/2 is never negotiated
+      final var sslParameters = tlsContext.getDefaultSSLParameters();
       sslParameters.setWantClientAuth(true);
       clientBuilder = clientBuilder.sslParameters(sslParameters);
-      final var tlsContext = sslContextSupplier.get();
       clientBuilder = clientBuilder.sslContext(tlsContext);
     }
 
@@ -87,6 +120,15 @@ public class InsightsJdkHttpClient implements InsightsHttpClient {
     return clientBuilder.followRedirects(HttpClient.Redirect.NORMAL).build();
   }
 
+  private HttpClient.Version parseVersion(String value) {
+    try {
+      return HttpClient.Version.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      logger.warning("Unknown HTTP client version " + value + ", using HTTP_1_1");
+      return HttpClient.Version.HTTP_1_1;
+    }
+  }
+
   @Override
   public void decorate(InsightsReport report) {
     if (configuration.useMTLS()) {
@@ -103,14 +145,46 @@ public class InsightsJdkHttpClient implements InsightsHttpClient {
 
   @Override
   public void sendInsightsReport(String reportName, InsightsReport report) {
+    awaitSent(sendInsightsReportAsync(reportName, report));
+  }
+
+  /**
+   * Serializes and compresses the report on the calling thread, then uploads it with non-blocking
+   * requests, retried without holding any thread (see {@link AsyncRetryExecutor}).
+   */
+  @Override
+  public CompletableFuture<Void> sendInsightsReportAsync(String reportName, InsightsReport report) {
     decorate(report);
     final var client = getHttpClient();
-    final var gzipJson = InsightsHttpClient.gzipReport(report.serializeRaw());
-    sendInsightsReportWithClient(client, reportName + ".gz", gzipJson);
+
+    final var serialization = InsightsEvents.serialization();
+    serialization.begin();
+    final var json = report.serializeRaw();
+    if (serialization.shouldCommit()) {
+      serialization.setReportName(reportName);
+      serialization.setBytes(json.length);
+      serialization.commit();
+    }
+
+    final var compression = InsightsEvents.compression();
+    compression.begin();
+    final var gzipJson = InsightsHttpClient.gzipReport(json, configuration);
+    if (compression.shouldCommit()) {
+      compression.setInputBytes(json.length);
+      compression.setOutputBytes(gzipJson.length);
+      compression.commit();
+    }
+
+    return sendInsightsReportWithClientAsync(client, reportName + ".gz", gzipJson);
   }
 
   protected void sendInsightsReportWithClient(
       HttpClient client, String filename, byte[] gzipReport) {
+    awaitSent(sendInsightsReportWithClientAsync(client, filename, gzipReport));
+  }
+
+  protected CompletableFuture<Void> sendInsightsReportWithClientAsync(
+      HttpClient client, String filename, byte[] gzipReport) {
     var bodyBuilder =
         new MultipartBodyBuilder()
             .addFile("file", filename, GENERAL_MIME_TYPE, gzipReport)
@@ -121,7 +195,6 @@ public class InsightsJdkHttpClient implements InsightsHttpClient {
 
     var requestBuilder =
         HttpRequest.newBuilder()
-            .version(HttpClient.Version.HTTP_1_1)
             .header(MultipartBodyBuilder.CONTENT_TYPE_HEADER, bodyBuilder.contentTypeHeaderValue())
             .timeout(configuration.getHttpClientTimeout());
 
@@ -136,59 +209,77 @@ public class InsightsJdkHttpClient implements InsightsHttpClient {
     var request = requestBuilder.POST(body).build();
     logger.debug("Issuing a HTTP POST request to " + request);
 
-    var wrapper =
-        new BackoffWrapper(
-            logger,
-            configuration,
+    var attempts = new AtomicInteger();
+    return new AsyncRetryExecutor(logger, configuration)
+        .submit(
             () -> {
-              var response = client.send(request, HttpResponse.BodyHandlers.ofString());
-              int statusCode = response.statusCode();
-              logger.debug(
-                  "Red Hat Insights HTTP Client: status="
-                      + statusCode
-                      + ", body="
-                      + response.body());
-              switch (statusCode / 100) {
-                case 2:
-                  if (statusCode == 201) {
-                    logger.debug(
-                        "Red Hat Insights - Advisor content type with no metadata accepted for"
-                            + " processing");
-                  } else {
-                    logger.debug("Red Hat Insights - Payload was accepted for processing");
-                  }
-                  break;
-                case 4:
-                  switch (statusCode) {
-                    case 401:
-                      throw new InsightsException(
-                          ERROR_HTTP_SEND_AUTH_ERROR, "Authentication missing from request");
-                    case 403:
-                      throw new InsightsException(ERROR_HTTP_SEND_FORBIDDEN, "Forbidden");
-                    case 413:
-                      throw new InsightsException(ERROR_HTTP_SEND_PAYLOAD, "Payload too large");
-                    case 415:
-                      throw new InsightsException(
-                          ERROR_HTTP_SEND_INVALID_CONTENT_TYPE,
-                          "Content type of payload is unsupported");
-                    default:
-                      throw new InsightsException(
-                          ERROR_HTTP_SEND_CLIENT_ERROR,
-                          "Client error with HTTP status code " + statusCode);
-                  }
-                case 5:
-                default:
-                  throw new InsightsException(
-                      ERROR_HTTP_SEND_SERVER_ERROR,
-                      "Request failed on the server with code: " + statusCode);
-              }
+              var attempt = InsightsEvents.httpAttempt();
+              attempt.begin();
+              return client
+                  .sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                  .<Void>thenApply(
+                      response -> {
+                        int statusCode = response.statusCode();
+                        if (attempt.shouldCommit()) {
+                          attempt.setReportName(filename);
+                          attempt.setStatus(statusCode);
+                          attempt.setRetry(attempts.get());
+                          attempt.commit();
+                        }
+                        attempts.incrementAndGet();
+                        checkResponse(response);
+                        return null;
+                      });
             });
+  }
+
+  private void checkResponse(HttpResponse<String> response) {
+    int statusCode = response.statusCode();
+    logger.debug(
+        "Red Hat Insights HTTP Client: status=" + statusCode + ", body=" + response.body());
+    switch (statusCode / 100) {
+      case 2:
+        if (statusCode == 201) {
+          logger.debug(
+              "Red Hat Insights - Advisor content type with no metadata accepted for"
+                  + " processing");
+        } else {
+          logger.debug("Red Hat Insights - Payload was accepted for processing");
+        }
+        return;
+      case 4:
+        switch (statusCode) {
+          case 401:
+            throw new InsightsException(
+                ERROR_HTTP_SEND_AUTH_ERROR, "Authentication missing from request");
+          case 403:
+            throw new InsightsException(ERROR_HTTP_SEND_FORBIDDEN, "Forbidden");
+          case 413:
+            throw new InsightsException(ERROR_HTTP_SEND_PAYLOAD, "Payload too large");
+          case 415:
+            throw new InsightsException(
+                ERROR_HTTP_SEND_INVALID_CONTENT_TYPE, "Content type of payload is unsupported");
+          default:
+            throw new InsightsException(
+                ERROR_HTTP_SEND_CLIENT_ERROR, "Client error with HTTP status code " + statusCode);
+        }
+      case 5:
+      default:
+        throw new InsightsException(
+            ERROR_HTTP_SEND_SERVER_ERROR, "Request failed on the server with code: " + statusCode);
+    }
+  }
+
+  private static void awaitSent(CompletableFuture<Void> sent) {
     try {
-      wrapper.run();
-    } catch (InsightsException isx) {
-      throw isx;
-    } catch (Throwable err) {
-      throw new InsightsException(ERROR_HTTP_SEND_, "HTTP client request failed", err);
+      sent.join();
+    } catch (CompletionException e) {
+      var cause = e.getCause();
+      if (cause instanceof InsightsException) {
+        throw (InsightsException) cause;
+      }
+      throw new InsightsException(
+          ERROR_HTTP_SEND_, "HTTP client request failed", cause != null ? cause : e);
     }
   }
 
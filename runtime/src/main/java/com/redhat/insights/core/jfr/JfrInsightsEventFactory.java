@@ -0,0 +1,239 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.core.jfr;
+
+import com.redhat.insights.telemetry.BackoffEvent;
+import com.redhat.insights.telemetry.CompressionEvent;
+import com.redhat.insights.telemetry.HttpAttemptEvent;
+import com.redhat.insights.telemetry.IdHashEvent;
+import com.redhat.insights.telemetry.InsightsEventFactory;
+import com.redhat.insights.telemetry.JarAnalysisEvent;
+import com.redhat.insights.telemetry.SerializationEvent;
+import com.redhat.insights.telemetry.SubreportEvent;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Flight recorder implementation of the client's telemetry events, registered as a {@link
+ * java.util.ServiceLoader} service.
+ *
+ * <p>All events are disabled by default, and cost a single branch until a recording enables them,
+ * for instance with {@code jcmd <pid> JFR.start settings=insights.jfc} where the settings file
+ * enables the {@code com.redhat.insights.*} events.
+ */
+@NullMarked
+public final class JfrInsightsEventFactory implements InsightsEventFactory {
+
+  static final String CATEGORY = "Red Hat Insights";
+
+  @Override
+  public JarAnalysisEvent jarAnalysis() {
+    return new JfrJarAnalysisEvent();
+  }
+
+  @Override
+  public SubreportEvent subreport() {
+    return new JfrSubreportEvent();
+  }
+
+  @Override
+  public SerializationEvent serialization() {
+    return new JfrSerializationEvent();
+  }
+
+  @Override
+  public CompressionEvent compression() {
+    return new JfrCompressionEvent();
+  }
+
+  @Override
+  public IdHashEvent idHash() {
+    return new JfrIdHashEvent();
+  }
+
+  @Override
+  public HttpAttemptEvent httpAttempt() {
+    return new JfrHttpAttemptEvent();
+  }
+
+  @Override
+  public BackoffEvent backoff() {
+    return new JfrBackoffEvent();
+  }
+
+  @Name("com.redhat.insights.JarAnalysis")
+  @Label("Jar Analysis")
+  @Description("Checksums and manifest of a jar found on the classpath")
+  @Category(CATEGORY)
+  @Enabled(false)
+  @StackTrace(false)
+  static final class JfrJarAnalysisEvent extends Event implements JarAnalysisEvent {
+    @Label("Path")
+    String path = "";
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Digest Time")
+    @Timespan
+    long digestNanos;
+
+    @Override
+    public void setPath(String path) {
+      this.path = path;
+    }
+
+    @Override
+    public void setBytes(long bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public void setDigestNanos(long digestNanos) {
+      this.digestNanos = digestNanos;
+    }
+  }
+
+  @Name("com.redhat.insights.Subreport")
+  @Label("Subreport Generation")
+  @Category(CATEGORY)
+  @Enabled(false)
+  @StackTrace(false)
+  static final class JfrSubreportEvent extends Event implements SubreportEvent {
+    @Label("Name")
+    String name = "";
+
+    @Override
+    public void setName(String name) {
+      this.name = name;
+    }
+  }
+
+  @Name("com.redhat.insights.Serialization")
+  @Label("Report Serialization")
+  @Category(CATEGORY)
+  @Enabled(false)
+  @StackTrace(false)
+  static final class JfrSerializationEvent extends Event implements SerializationEvent {
+    @Label("Report Name")
+    String reportName = "";
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Override
+    public void setReportName(String reportName) {
+      this.reportName = reportName;
+    }
+
+    @Override
+    public void setBytes(long bytes) {
+      this.bytes = bytes;
+    }
+  }
+
+  @Name("com.redhat.insights.Compression")
+  @Label("Report Compression")
+  @Category(CATEGORY)
+  @Enabled(false)
+  @StackTrace(false)
+  static final class JfrCompressionEvent extends Event implements CompressionEvent {
+    @Label("Input Size")
+    @DataAmount
+    long inputBytes;
+
+    @Label("Output Size")
+    @DataAmount
+    long outputBytes;
+
+    @Override
+    public void setInputBytes(long inputBytes) {
+      this.inputBytes = inputBytes;
+    }
+
+    @Override
+    public void setOutputBytes(long outputBytes) {
+      this.outputBytes = outputBytes;
+    }
+  }
+
+  @Name("com.redhat.insights.IdHash")
+  @Label("Report Id Hash")
+  @Category(CATEGORY)
+  @Enabled(false)
+  @StackTrace(false)
+  static final class JfrIdHashEvent extends Event implements IdHashEvent {
+    @Label("Hashed Size")
+    @DataAmount
+    long bytes;
+
+    @Override
+    public void setBytes(long bytes) {
+      this.bytes = bytes;
+    }
+  }
+
+  @Name("com.redhat.insights.HttpAttempt")
+  @Label("HTTP Upload Attempt")
+  @Category(CATEGORY)
+  @Enabled(false)
+  @StackTrace(false)
+  static final class JfrHttpAttemptEvent extends Event implements HttpAttemptEvent {
+    @Label("Report Name")
+    String reportName = "";
+
+    @Label("Status")
+    int status;
+
+    @Label("Retry")
+    int retry;
+
+    @Override
+    public void setReportName(String reportName) {
+      this.reportName = reportName;
+    }
+
+    @Override
+    public void setStatus(int status) {
+      this.status = status;
+    }
+
+    @Override
+    public void setRetry(int retry) {
+      this.retry = retry;
+    }
+  }
+
+  @Name("com.redhat.insights.Backoff")
+  @Label("HTTP Retry Backoff")
+  @Category(CATEGORY)
+  @Enabled(false)
+  @StackTrace(false)
+  static final class JfrBackoffEvent extends Event implements BackoffEvent {
+    @Label("Retry")
+    int retry;
+
+    @Label("Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    long delayMillis;
+
+    @Override
+    public void setRetry(int retry) {
+      this.retry = retry;
+    }
+
+    @Override
+    public void setDelayMillis(long delayMillis) {
+      this.delayMillis = delayMillis;
+    }
+  }
+}
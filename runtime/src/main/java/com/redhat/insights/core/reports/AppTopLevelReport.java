@@ -1,11 +1,17 @@
-/* Copyright (C) Red Hat 2022-2023 */
+/* Copyright (C) Red Hat 2022-2026 */
 package com.redhat.insights.core.reports;
 
 import com.redhat.insights.config.InsightsConfiguration;
 import com.redhat.insights.jars.ClasspathJarInfoSubreport;
+import com.redhat.insights.jvm.CgroupSubreport;
+import com.redhat.insights.jvm.JitSubreport;
+import com.redhat.insights.jvm.NativeMemorySubreport;
+import com.redhat.insights.jvm.RuntimeTelemetrySubreport;
+import com.redhat.insights.jvm.ThreadContentionSubreport;
 import com.redhat.insights.logging.InsightsLogger;
 import com.redhat.insights.reports.AppInsightsSubreport;
 import com.redhat.insights.reports.InsightsSubreport;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -21,11 +27,30 @@ public class AppTopLevelReport extends TopLevelReportBaseImpl {
   }
 
   public static AppTopLevelReport of(InsightsLogger logger, InsightsConfiguration config) {
-    return new AppTopLevelReport(
-        logger,
-        config,
-        Map.of(
-            "jars", new ClasspathJarInfoSubreport(logger), "details", new AppInsightsSubreport()));
+    // The samplers are closed with the other subreports when the controller shuts down
+    RuntimeTelemetrySubreport telemetry = new RuntimeTelemetrySubreport(logger, config);
+    telemetry.start();
+    Map<String, InsightsSubreport> subReports =
+        new HashMap<>(
+            Map.of(
+                "jars",
+                new ClasspathJarInfoSubreport(logger),
+                "details",
+                new AppInsightsSubreport(),
+                "runtime",
+                telemetry,
+                "jit",
+                new JitSubreport(logger),
+                "memory",
+                new NativeMemorySubreport(logger, config),
+                "container",
+                new CgroupSubreport(logger)));
+    if (config.isThreadContentionSamplingEnabled()) {
+      ThreadContentionSubreport contention = new ThreadContentionSubreport(logger, config);
+      contention.start();
+      subReports.put("contention", contention);
+    }
+    return new AppTopLevelReport(logger, config, subReports);
   }
 
   public Map<String, String> getNecessary() {
@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights;
 
 import static com.redhat.insights.config.InsightsConfiguration.DEFAULT_HTTP_CLIENT_RETRY_BACKOFF_FACTOR;
@@ -15,6 +15,7 @@ import com.redhat.insights.tls.PEMSupport;
 import java.net.http.HttpClient;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 
 public class InsightsReportControllerThreadingTest {
@@ -37,7 +38,8 @@ public class InsightsReportControllerThreadingTest {
     var mock = mock(HttpClient.class);
     HttpResponse<String> response = makeResponder(code);
 
-    when(mock.send(any(), any(HttpResponse.BodyHandler.class))).thenReturn(response);
+    when(mock.sendAsync(any(), any(HttpResponse.BodyHandler.class)))
+        .thenAnswer(invocation -> CompletableFuture.completedFuture(response));
     var pem = new PEMSupport(logger, config);
     var httpClient =
         new MockInsightsJdkHttpClient(logger, config, () -> pem.createTLSContext(), mock);
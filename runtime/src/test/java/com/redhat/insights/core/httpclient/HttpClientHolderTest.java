@@ -0,0 +1,107 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.core.httpclient;
+
+import static com.redhat.insights.InsightsErrorCode.ERROR_SSL_CREATING_CONTEXT;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.redhat.insights.InsightsException;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jspecify.annotations.NullUnmarked;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@NullUnmarked
+public class HttpClientHolderTest {
+
+  @TempDir Path dir;
+
+  private Path write(String name, String content) throws IOException {
+    return Files.write(dir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void age(Path file) throws IOException {
+    FileTime modified = Files.getLastModifiedTime(file);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() - 60_000L));
+  }
+
+  @Test
+  public void testReusedUntilContentChanges() throws IOException {
+    Path cert = write("cert.pem", "cert-1");
+    Path key = write("key.pem", "key-1");
+    AtomicInteger builds = new AtomicInteger();
+    HttpClientHolder holder =
+        new HttpClientHolder(
+            new NoopInsightsLogger(),
+            List.of(cert, key),
+            () -> {
+              builds.incrementAndGet();
+              return mock(HttpClient.class);
+            });
+
+    HttpClient first = holder.get();
+    assertSame(first, holder.get());
+    assertEquals(1, builds.get());
+
+    // Touched, same content
+    age(cert);
+    assertSame(first, holder.get());
+    assertEquals(1, builds.get());
+
+    // Rotated
+    write("cert.pem", "cert-2-rotated");
+    HttpClient second = holder.get();
+    assertNotSame(first, second);
+    assertSame(second, holder.get());
+    assertEquals(2, builds.get());
+  }
+
+  @Test
+  public void testKeepsClientWhenRebuildFails() throws IOException {
+    Path cert = write("cert.pem", "cert-1");
+    AtomicBoolean broken = new AtomicBoolean();
+    HttpClientHolder holder =
+        new HttpClientHolder(
+            new NoopInsightsLogger(),
+            List.of(cert),
+            () -> {
+              if (broken.get()) {
+                throw new InsightsException(ERROR_SSL_CREATING_CONTEXT, "Half-written key");
+              }
+              return mock(HttpClient.class);
+            });
+
+    HttpClient first = holder.get();
+    broken.set(true);
+    write("cert.pem", "cert-2-partial");
+    assertSame(first, holder.get());
+
+    // Retried on the next use
+    broken.set(false);
+    assertNotSame(first, holder.get());
+  }
+
+  @Test
+  public void testNeverRebuiltWithoutWatchedFiles() {
+    AtomicInteger builds = new AtomicInteger();
+    HttpClientHolder holder =
+        new HttpClientHolder(
+            new NoopInsightsLogger(),
+            List.of(),
+            () -> {
+              builds.incrementAndGet();
+              return mock(HttpClient.class);
+            });
+    assertSame(holder.get(), holder.get());
+    assertEquals(1, builds.get());
+  }
+}
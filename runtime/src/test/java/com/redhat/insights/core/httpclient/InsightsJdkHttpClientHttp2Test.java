@@ -0,0 +1,188 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.core.httpclient;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.config.InsightsConfiguration;
+import com.redhat.insights.doubles.DefaultConfiguration;
+import com.redhat.insights.doubles.DummyTopLevelReport;
+import com.redhat.insights.doubles.NoopInsightsLogger;
+import com.redhat.insights.logging.InsightsLogger;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.net.PemKeyCertOptions;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.ext.web.Router;
+import io.vertx.mutiny.ext.web.handler.BodyHandler;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.security.cert.CertificateFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import org.jspecify.annotations.NullUnmarked;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Uploads to a local stand-in for the ingress service, over TLS with ALPN. */
+@NullUnmarked
+public class InsightsJdkHttpClientHttp2Test {
+  private static final InsightsLogger logger = new NoopInsightsLogger();
+
+  private static final long RESPONSE_DELAY_MILLIS = 300L;
+
+  private Vertx vertx;
+  // The protocol and client port of each upload
+  private final ConcurrentLinkedQueue<String> received = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  @BeforeEach
+  void prepare() {
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void cleanup() {
+    vertx.closeAndAwait();
+  }
+
+  private int startIngress(HttpVersion... versions) throws Exception {
+    Router router = Router.router(vertx);
+    router.route().handler(BodyHandler.create(Files.createTempDirectory("h2-ingress").toString()));
+    router
+        .post("/api/ingress/v1/upload")
+        .handler(
+            ctx -> {
+              maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+              received.add(ctx.request().version() + "@" + ctx.request().remoteAddress().port());
+              // Keeps the uploads overlapping
+              vertx.setTimer(
+                  RESPONSE_DELAY_MILLIS,
+                  id -> {
+                    inFlight.decrementAndGet();
+                    ctx.response().setStatusCode(202).endAndForget("Accepted");
+                  });
+            });
+
+    HttpServerOptions options =
+        new HttpServerOptions()
+            .setSsl(true)
+            .setUseAlpn(true)
+            .setAlpnVersions(List.of(versions))
+            .setPemKeyCertOptions(
+                new PemKeyCertOptions()
+                    .setCertPath(getPathFromResource("com/redhat/insights/tls/ingress.cert"))
+                    .setKeyPath(getPathFromResource("com/redhat/insights/tls/ingress.key")));
+    return vertx.createHttpServer(options).requestHandler(router).listenAndAwait(0).actualPort();
+  }
+
+  private InsightsJdkHttpClient client(int port, String version) {
+    InsightsConfiguration config =
+        new DefaultConfiguration() {
+          @Override
+          public String getUploadBaseURL() {
+            return "https://localhost:" + port;
+          }
+
+          @Override
+          public String getHttpClientVersion() {
+            return version;
+          }
+        };
+    return new InsightsJdkHttpClient(logger, config, this::trustIngress);
+  }
+
+  private SSLContext trustIngress() {
+    try (InputStream cert =
+        Files.newInputStream(
+            Paths.get(getPathFromResource("com/redhat/insights/tls/ingress.cert")))) {
+      KeyStore trusted = KeyStore.getInstance(KeyStore.getDefaultType());
+      trusted.load(null, null);
+      trusted.setCertificateEntry(
+          "ingress", CertificateFactory.getInstance("X.509").generateCertificate(cert));
+      TrustManagerFactory trust =
+          TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+      trust.init(trusted);
+      SSLContext context = SSLContext.getInstance("TLS");
+      context.init(null, trust.getTrustManagers(), null);
+      return context;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // A CONNECT, then a backlog of UPDATE events sent at once
+  private void sendConnectAndBacklog(InsightsJdkHttpClient client, int backlog) throws Exception {
+    client
+        .sendInsightsReportAsync("connect", DummyTopLevelReport.of(logger))
+        .get(10, TimeUnit.SECONDS);
+    List<CompletableFuture<Void>> updates = new ArrayList<>();
+    for (int i = 0; i < backlog; i++) {
+      updates.add(client.sendInsightsReportAsync("update-" + i, DummyTopLevelReport.of(logger)));
+    }
+    CompletableFuture.allOf(updates.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+  }
+
+  private Set<String> protocols() {
+    Set<String> protocols = new HashSet<>();
+    for (String upload : received) {
+      protocols.add(upload.substring(0, upload.indexOf('@')));
+    }
+    return protocols;
+  }
+
+  private Set<String> connections() {
+    Set<String> ports = new HashSet<>();
+    for (String upload : received) {
+      ports.add(upload.substring(upload.indexOf('@') + 1));
+    }
+    return ports;
+  }
+
+  @Test
+  public void testUploadsMultiplexedOverHttp2() throws Exception {
+    int port = startIngress(HttpVersion.HTTP_2, HttpVersion.HTTP_1_1);
+
+    sendConnectAndBacklog(client(port, "HTTP_2"), 4);
+
+    assertEquals(5, received.size());
+    assertEquals(Collections.singleton("HTTP_2"), protocols());
+    assertEquals(1, connections().size(), "All uploads should share one connection");
+    assertTrue(maxInFlight.get() >= 2, "Uploads should be concurrent streams");
+  }
+
+  @Test
+  public void testFallbackToHttp11() throws Exception {
+    int port = startIngress(HttpVersion.HTTP_1_1);
+
+    sendConnectAndBacklog(client(port, "HTTP_2"), 2);
+
+    assertEquals(3, received.size());
+    assertEquals(Collections.singleton("HTTP_1_1"), protocols());
+  }
+
+  @Test
+  public void testHttp11ByDefault() throws Exception {
+    int port = startIngress(HttpVersion.HTTP_2, HttpVersion.HTTP_1_1);
+
+    sendConnectAndBacklog(client(port, InsightsConfiguration.DEFAULT_HTTP_CLIENT_VERSION), 1);
+
+    assertEquals(Collections.singleton("HTTP_1_1"), protocols());
+  }
+
+  private String getPathFromResource(String path) {
+    return Paths.get(ClassLoader.getSystemClassLoader().getResource(path).getPath()).toString();
+  }
+}
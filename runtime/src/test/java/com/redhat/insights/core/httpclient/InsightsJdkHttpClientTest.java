@@ -1,4 +1,4 @@
-/* Copyright (C) Red Hat 2023-2024 */
+/* Copyright (C) Red Hat 2023-2026 */
 package com.redhat.insights.core.httpclient;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,8 +24,10 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
 import org.jspecify.annotations.NullUnmarked;
 import org.junit.jupiter.api.Test;
 
@@ -37,8 +39,10 @@ public class InsightsJdkHttpClientTest {
   public void testHttpClientWithMTLS() {
     // default configuration provides no token => client should use MTLS
     InsightsConfiguration config = MockInsightsConfiguration.of("yolo", false);
+    SSLContext sslContext = mock(SSLContext.class);
+    when(sslContext.getDefaultSSLParameters()).thenReturn(new SSLParameters());
     InsightsJdkHttpClient insightsClient =
-        new InsightsJdkHttpClient(logger, config, () -> mock(SSLContext.class));
+        new InsightsJdkHttpClient(logger, config, () -> sslContext);
     HttpClient httpClient = insightsClient.getHttpClient();
 
     assertTrue(
@@ -50,6 +54,7 @@ public class InsightsJdkHttpClientTest {
     InsightsConfiguration config = mock(InsightsConfiguration.class);
     when(config.getMaybeAuthToken()).thenReturn(Optional.of("randomToken"));
     when(config.getHttpClientTimeout()).thenReturn(Duration.ofSeconds(30));
+    when(config.getHttpClientVersion()).thenReturn("HTTP_1_1");
 
     InsightsJdkHttpClient insightsClient = new InsightsJdkHttpClient(logger, config);
     HttpClient httpClient = insightsClient.getHttpClient();
@@ -65,6 +70,7 @@ public class InsightsJdkHttpClientTest {
     when(config.getProxyConfiguration())
         .thenReturn(Optional.of(new InsightsConfiguration.ProxyConfiguration("localhost", 8080)));
     when(config.getHttpClientTimeout()).thenReturn(Duration.ofSeconds(30));
+    when(config.getHttpClientVersion()).thenReturn("HTTP_1_1");
 
     InsightsJdkHttpClient insightsClient = new InsightsJdkHttpClient(logger, config);
     HttpClient httpClient = insightsClient.getHttpClient();
@@ -168,11 +174,11 @@ public class InsightsJdkHttpClientTest {
 
     AtomicReference<HttpRequest> request = new AtomicReference<>();
 
-    when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+    when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
         .thenAnswer(
             invocation -> {
               request.set(invocation.getArgument(0));
-              return getOKResponse();
+              return CompletableFuture.completedFuture(getOKResponse());
             });
 
     InsightsReport report = AppTopLevelReport.of(logger, config);
@@ -189,6 +195,9 @@ public class InsightsJdkHttpClientTest {
     when(config.getUploadBaseURL()).thenReturn("https://site.com");
     when(config.getUploadUri()).thenReturn("/path");
     when(config.getHttpClientTimeout()).thenReturn(Duration.ofSeconds(30));
+    when(config.getTelemetrySampleInterval()).thenReturn(Duration.ofSeconds(10));
+    when(config.getTelemetrySampleCapacity()).thenReturn(360);
+    when(config.getNativeMemoryMinInterval()).thenReturn(Duration.ofMinutes(10));
 
     HttpClient httpClient = mock(HttpClient.class);
     PEMSupport pem = new PEMSupport(logger, config);
@@ -197,11 +206,11 @@ public class InsightsJdkHttpClientTest {
 
     AtomicReference<HttpRequest> request = new AtomicReference<>();
 
-    when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+    when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
         .thenAnswer(
             invocation -> {
               request.set(invocation.getArgument(0));
-              return getOKResponse();
+              return CompletableFuture.completedFuture(getOKResponse());
             });
 
     InsightsReport report = AppTopLevelReport.of(logger, config);
@@ -0,0 +1,63 @@
+/* Copyright (C) Red Hat 2026 */
+package com.redhat.insights.core.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.redhat.insights.telemetry.InsightsEvents;
+import com.redhat.insights.telemetry.JarAnalysisEvent;
+import com.redhat.insights.telemetry.SerializationEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+public class JfrInsightsEventFactoryTest {
+
+  @Test
+  public void testFactoryIsDiscovered() {
+    assertTrue(InsightsEvents.jarAnalysis() instanceof JfrInsightsEventFactory.JfrJarAnalysisEvent);
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    JarAnalysisEvent event = new JfrInsightsEventFactory().jarAnalysis();
+    event.begin();
+    assertFalse(event.isEnabled());
+    assertFalse(event.shouldCommit());
+  }
+
+  @Test
+  public void testRecordedWhenEnabled() throws IOException {
+    Path dump = Files.createTempFile("insights", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("com.redhat.insights.Serialization");
+      recording.start();
+
+      SerializationEvent event = InsightsEvents.serialization();
+      event.begin();
+      assertTrue(event.isEnabled());
+      if (event.shouldCommit()) {
+        event.setReportName("abc_connect");
+        event.setBytes(1234);
+        event.commit();
+      }
+
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+    Files.delete(dump);
+    RecordedEvent recorded =
+        events.stream()
+            .filter(e -> e.getEventType().getName().equals("com.redhat.insights.Serialization"))
+            .findFirst()
+            .orElseThrow();
+    assertEquals("abc_connect", recorded.getString("reportName"));
+    assertEquals(1234L, recorded.getLong("bytes"));
+  }
+}